@@ -0,0 +1,20 @@
+import axios from "axios";
+
+// Page size asked to the list endpoints, the server caps it at 200
+const PAGE_SIZE = 200;
+
+// FetchAllPages follows the next token of a paginated list endpoint and returns every item, in id order.
+// The admin pages search and sort the whole list on the client, each request stays one bounded page on the server.
+const FetchAllPages = async (url, headers) => {
+    const items = [];
+    let after = null;
+    do {
+        const params = after ? { size: PAGE_SIZE, after } : { size: PAGE_SIZE };
+        const response = await axios.get(url, { headers, params });
+        items.push(...(response?.data?.items ?? []));
+        after = response?.data?.next;
+    } while (after);
+    return items;
+}
+
+export default FetchAllPages;
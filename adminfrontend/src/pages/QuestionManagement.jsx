@@ -5,6 +5,8 @@ import {
   TextField,
   IconButton,
   Radio,
+  Checkbox,
+  FormControlLabel,
   CircularProgress,
 } from "@mui/material";
 import { Add, Delete, Edit } from "@mui/icons-material";
@@ -163,13 +165,20 @@ const QuestionManagement = () => {
     setFormData({ ...formData, testCases: updatedTestCases });
   };
 
+  // Handle the sample flag, sample test cases are shown to students and the others only used for grading
+  const handleSampleChange = (index) => (event) => {
+    const updatedTestCases = [...formData.testCases];
+    updatedTestCases[index].sample = event.target.checked;
+    setFormData({ ...formData, testCases: updatedTestCases });
+  };
+
   // Add a new test case for coding question
   const addTestCase = () => {
     setFormData({
       ...formData,
       testCases: [
         ...(formData.testCases || []),
-        { inputData: "", expectedOutput: "" },
+        { inputData: "", expectedOutput: "", sample: false },
       ],
     });
   };
@@ -390,6 +399,15 @@ const QuestionManagement = () => {
                   onChange={handleTestCaseChange(index, "expectedOutput")}
                   placeholder="Enter expected output"
                 />
+                <FormControlLabel
+                  control={
+                    <Checkbox
+                      checked={Boolean(testCase.sample)}
+                      onChange={handleSampleChange(index)}
+                    />
+                  }
+                  label="Sample"
+                />
                 <IconButton onClick={() => removeTestCase(index)} color="error">
                   <Delete />
                 </IconButton>
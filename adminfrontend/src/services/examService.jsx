@@ -1,11 +1,11 @@
 import axios from "axios";
+import FetchAllPages from "../Helper/FetchAllPages";
 
 const API_URL = import.meta.env.VITE_API_URL + '/api/exam';
 
-// Function to fetch all exams
+// Function to fetch all exams, one page per request
 const getExams = async (headers) => { 
-    const response = await axios.get(`${API_URL}/exams`, { headers }); 
-    return response?.data;
+    return FetchAllPages(`${API_URL}/exams`, headers);
 }
 
 // Function to create a new exam
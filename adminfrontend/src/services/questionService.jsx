@@ -1,4 +1,5 @@
 import axios from "axios"; // Import axios for making HTTP requests
+import FetchAllPages from "../Helper/FetchAllPages"; // Follows the pages of a list endpoint
 
 // Base URL for all question-related API endpoints, dynamically retrieved from environment variables
 const API_URL = import.meta.env.VITE_API_URL + '/api/questions';
@@ -15,16 +16,14 @@ const addCodingQuestion = async (codingQuestion, headers) => {
     return response?.data; // Return the response data
 }
 
-// Function to fetch all MCQ questions via a GET request
+// Function to fetch all MCQ questions, one page per GET request
 const getMcqQuestions = async (headers) => {
-    const response = await axios.get(`${API_URL}/get-mcqs`, { headers }); 
-    return response?.data; // Return the list of MCQ questions
+    return FetchAllPages(`${API_URL}/get-mcqs`, headers); // Return the list of MCQ questions
 };
 
-// Function to fetch all coding questions via a GET request
+// Function to fetch all coding questions, one page per GET request
 const getCodingQuestions = async (headers) => { 
-    const response = await axios.get(`${API_URL}/get-codes`, { headers }); 
-    return response?.data; // Return the list of coding questions
+    return FetchAllPages(`${API_URL}/get-codes`, headers); // Return the list of coding questions
 }
 
 // Function to delete an MCQ question via a DELETE request
@@ -1,12 +1,12 @@
 import axios from 'axios';
+import FetchAllPages from '../Helper/FetchAllPages';
 
 // Set the base API URL for user-related endpoints
 const API_URL = import.meta.env.VITE_API_URL + '/api/user';
 
-// Fetch all users from the server using provided headers
+// Fetch all users from the server one page at a time using provided headers
 const getAllUsers = async (headers) => {
-  const response = await axios.get(`${API_URL}/alluser`, { headers });  
-  return response?.data; // Return the data from the server response
+  return FetchAllPages(`${API_URL}/alluser`, headers); // Return the users of every page
 };
 
 // Delete a user by ID, sending the request with authorization headers
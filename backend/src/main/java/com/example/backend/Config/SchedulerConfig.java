@@ -0,0 +1,23 @@
+package com.example.backend.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+
+    /* Creates the scheduler on which the non-blocking endpoints run their blocking database work. It is bounded,
+       so a burst of code submissions waits in its queue instead of taking every connection of the pool.
+
+     param threads - the maximum number of threads, it should not exceed the size of the connection pool
+     param queueSize - the maximum number of tasks waiting for a thread
+     return - the database scheduler, disposed when the application shuts down */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(@Value("${database-scheduler.threads:8}") int threads,
+                                       @Value("${database-scheduler.queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "database");
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.Config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -41,6 +42,8 @@ public class SecurityConfig {
     /* Configures the security filter chain to define application security settings.
         - Disables CSRF protection for a stateless RESTful API.
         - Requires authentication for all requests by default. Authentication related requests are public. Other requests are having role base permission.
+        - Permits async dispatches, they resume a request which was already authorized and the JwtFilter does not run on them.
+        - The actuator health endpoint is public, the other actuator endpoints such as metrics are for admins.
         - Enables HTTP Basic Authentication for simplicity.
         - Sets session management policy to stateless, as JWT tokens are used for stateful user sessions.
         - Adds JwtFilter before the UsernamePasswordAuthenticationFilter to validate JWT tokens on each request.
@@ -56,10 +59,12 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/register-student","/api/auth/register-admin","/api/university/**"
                         , "api/user/**","api/questions/**","api/exam/**").hasRole("ADMIN")
                         .requestMatchers("api/student-exam/**","api/exam-questions/**").hasRole("STUDENT")
-                        .requestMatchers( "/api/auth/**").permitAll()
+                        .requestMatchers( "/api/auth/**", "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(Customizer.withDefaults())
@@ -1,15 +1,19 @@
 package com.example.backend.Controller;
 
 import com.example.backend.Dto.ExamCreateRequest;
+import com.example.backend.Dto.KeysetPage;
 import com.example.backend.Entity.Exam;
+import com.example.backend.Dto.GradingProgress;
+import com.example.backend.Service.ExamGradingService;
 import com.example.backend.Service.ExamService;
+import com.example.backend.Service.ExecutionScheduler;
+import com.example.backend.Service.ScoreService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /* The ExamController class is a REST controller responsible for handling requests related to exam operations.
    It provides endpoints to add, retrieve, update, and delete exams from the system.
 
@@ -19,9 +23,13 @@ import java.util.List;
 
  * Endpoints:
   - /create-exam: Create an exam in the system.
-  - /exams: Retrieves all the exams from the system.
+  - /exams: Retrieves the exams from the system, one page at a time.
   - /update-exam/{id}: Updates an existing exam data by ID.
-  - /delete-exam/{id}: Deletes an exam by ID. */
+  - /delete-exam/{id}: Deletes an exam by ID.
+  - /reconcile-scores/{id}: Recomputes the running scores of an exam from the answers and reports the drift.
+  - /grade-exam/{id}: Starts grading the student exams of an exam which were not submitted.
+  - /grade-progress/{id}: Retrieves the progress and throughput of the grading of an exam.
+  - /execution-stats: Retrieves the queue depth, rejections and wait times of the code execution lanes. */
 @RestController
 @RequestMapping("/api/exam")
 public class ExamController {
@@ -30,6 +38,18 @@ public class ExamController {
     @Autowired
     ExamService examService;
 
+    // Injects ScoreService to reconcile the running scores of an exam
+    @Autowired
+    private ScoreService scoreService;
+
+    // Injects ExamGradingService to grade the open attempts of an exam
+    @Autowired
+    private ExamGradingService examGradingService;
+
+    // Injects ExecutionScheduler to report the load of the code execution lanes
+    @Autowired
+    private ExecutionScheduler executionScheduler;
+
     /* Create an exam into the system
 
        @param examCreateRequest - For data to create an exam, and it is a dto object.
@@ -44,14 +64,18 @@ public class ExamController {
         }
     }
 
-    /* Retrives all the exams from the system
+    /* Retrives one page of the exams from the system, in id order.
 
-       @return - ResponseEntity with list of exams in the system or error message in case of failure. */
+       @param after - The next token of the previous page, absent for the first page.
+       @param size - The number of exams of the page.
+       @return - ResponseEntity with the page of exams and the token of the next one or error message in case of failure. */
     @GetMapping("/exams")
-    public ResponseEntity<?> getExams() {
+    public ResponseEntity<?> getExams(@RequestParam(required = false) String after, @RequestParam(defaultValue = "50") int size) {
         try {
-            List<Exam> exams = examService.getExams();
+            KeysetPage<Exam> exams = examService.getExams(after, size);
             return ResponseEntity.status(HttpStatus.CREATED).body(exams);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong");
         }
@@ -85,4 +109,54 @@ public class ExamController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong.");
         }
     }
-}
\ No newline at end of file
+
+    /* Recomputes the running scores of all student exams of an exam from their answers and corrects any drift.
+
+       @param id - The ID of the exam to reconcile.
+       @return - ResponseEntity with the list of student exams whose score drifted or error message in case of failure. */
+    @PostMapping("/reconcile-scores/{id}")
+    public ResponseEntity<?> reconcileScores(@PathVariable long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(scoreService.reconcile(id));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong.");
+        }
+    }
+
+    /* Starts grading all student exams of an exam which were not submitted. Grading runs in the background,
+       the returned progress can be polled with /grade-progress/{id}.
+
+       @param id - The ID of the exam to grade.
+       @return - ResponseEntity with the progress of the grading job or error message in case of failure. */
+    @PostMapping("/grade-exam/{id}")
+    public ResponseEntity<?> gradeExam(@PathVariable long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(examGradingService.gradeExam(id));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong.");
+        }
+    }
+
+    /* Retrieves the progress of the grading of an exam.
+
+       @param id - The ID of the exam.
+       @return - ResponseEntity with the progress of the grading job or error message if the exam was never graded. */
+    @GetMapping("/grade-progress/{id}")
+    public ResponseEntity<?> getGradingProgress(@PathVariable long id) {
+        GradingProgress progress = examGradingService.getProgress(id);
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No grading found for this exam");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(progress);
+    }
+
+    /* Retrieves the load of the graded and practice code execution lanes, to size the Judge0 capacity for an exam.
+
+       @return - ResponseEntity with the stats of each lane. */
+    @GetMapping("/execution-stats")
+    public ResponseEntity<?> getExecutionStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(executionScheduler.getStats());
+    }
+}
@@ -1,19 +1,28 @@
 package com.example.backend.Controller;
 
+import com.example.backend.Service.ExamPageBytes;
 import com.example.backend.Service.ExamQuestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /* The ExamQuestionController class is responsible for handling requests related to exam questions.
    It provides endpoints for retrieving paginated MCQ and coding questions assigned to a specific student for a given exam.
 
  * Endpoints:
    - /{exam_id}/mcq/{email}: Retrieves paginated MCQ questions for a specific exam and student.
-   - /{exam_id}/code/{email}: Retrieves paginated coding questions for a specific exam and student. */
+   - /{exam_id}/code/{email}: Retrieves paginated coding questions for a specific exam and student.
+   - /{exam_id}/mcq/{email}/page and /{exam_id}/code/{email}/page: Retrieve a page of questions without answers,
+     serialized once for every student of the exam, with an ETag. A request whose If-None-Match has the ETag
+     gets 304 Not Modified without a body.
+   - /{exam_id}/mcq/{email}/answers and /{exam_id}/code/{email}/answers: Retrieve the saved answers of the
+     student for the same page, to merge with it. */
 @RestController
 @RequestMapping("/api/exam-questions")
 public class ExamQuestionController {
@@ -63,5 +72,109 @@ public class ExamQuestionController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong in pagination");
         }
     }
-}
 
+    /* Retrieves a page of MCQ questions of an exam without answers, the same bytes for every student.
+
+       @param exam_id - The unique identifier of the exam.
+       @param email - The email address of the student.
+       @param page - The page number of the paginated results.
+       @param size - The number of questions per page.
+       @param webRequest - The request, its If-None-Match header is checked against the ETag of the page.
+       @return - ResponseEntity containing the JSON page with its ETag, 304 if the client has it, or an error message in case of failure. */
+    @GetMapping("/{exam_id}/mcq/{email}/page")
+    public ResponseEntity<?> getMcqPage(@PathVariable Long exam_id,
+                                        @PathVariable String email,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "10") int size,
+                                        WebRequest webRequest) {
+
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            return pageResponse(examQuestionService.getMcqPageBytes(exam_id, pageable, email), webRequest);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong in pagination");
+        }
+    }
+
+    /* Retrieves a page of coding questions of an exam without answers, the same bytes for every student.
+
+       @param exam_id - The unique identifier of the exam.
+       @param email - The email address of the student.
+       @param page - The page number of the paginated results.
+       @param size - The number of questions per page.
+       @param webRequest - The request, its If-None-Match header is checked against the ETag of the page.
+       @return - ResponseEntity containing the JSON page with its ETag, 304 if the client has it, or an error message in case of failure. */
+    @GetMapping("/{exam_id}/code/{email}/page")
+    public ResponseEntity<?> getCodingPage(@PathVariable Long exam_id,
+                                           @PathVariable String email,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "10") int size,
+                                           WebRequest webRequest) {
+
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            return pageResponse(examQuestionService.getCodingPageBytes(exam_id, pageable, email), webRequest);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong in pagination");
+        }
+    }
+
+    /* Retrieves the saved answers of a student for a page of MCQ questions.
+
+       @param exam_id - The unique identifier of the exam.
+       @param email - The email address of the student.
+       @param page - The page number of the paginated results.
+       @param size - The number of questions per page.
+       @return - ResponseEntity containing the answers of the page or an error message in case of failure. */
+    @GetMapping("/{exam_id}/mcq/{email}/answers")
+    public ResponseEntity<?> getMcqAnswers(@PathVariable Long exam_id,
+                                           @PathVariable String email,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "10") int size) {
+
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            return ResponseEntity.status(HttpStatus.OK).body(examQuestionService.getMcqAnswers(exam_id, pageable, email));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong in pagination");
+        }
+    }
+
+    /* Retrieves the saved answers and languages of a student for a page of coding questions.
+
+       @param exam_id - The unique identifier of the exam.
+       @param email - The email address of the student.
+       @param page - The page number of the paginated results.
+       @param size - The number of questions per page.
+       @return - ResponseEntity containing the answers of the page or an error message in case of failure. */
+    @GetMapping("/{exam_id}/code/{email}/answers")
+    public ResponseEntity<?> getCodingAnswers(@PathVariable Long exam_id,
+                                              @PathVariable String email,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "10") int size) {
+
+        try {
+            Pageable pageable = PageRequest.of(page, size);
+            return ResponseEntity.status(HttpStatus.OK).body(examQuestionService.getCodingAnswers(exam_id, pageable, email));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong in pagination");
+        }
+    }
+
+    /* Builds the response of a serialized page. The client must revalidate the page on every use, so an edited
+       question is seen at once, but an unchanged page costs a 304 without a body.
+
+       @param page - The serialized page.
+       @param webRequest - The request with the If-None-Match header.
+       @return - 304 if the client has the page, otherwise 200 with the page bytes. */
+    private ResponseEntity<?> pageResponse(ExamPageBytes page, WebRequest webRequest) {
+        if (webRequest.checkNotModified(page.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(page.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(page.getBody());
+    }
+}
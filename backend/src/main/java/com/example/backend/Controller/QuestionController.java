@@ -1,5 +1,6 @@
 package com.example.backend.Controller;
 
+import com.example.backend.Dto.KeysetPage;
 import com.example.backend.Entity.CodingQuestion;
 import com.example.backend.Entity.McqQuestion;
 import com.example.backend.Service.QuestionService;
@@ -8,8 +9,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /* The QuestionController class is a REST controller responsible for handling requests related to question operations.
    It provides endpoints to add, retrieve, update, and delete MCQ and coding questions from the system.
 
@@ -20,8 +19,8 @@ import java.util.List;
  * Endpoints:
   - /add-mcq: Handles requests to add a new MCQ question to the system.
   - /add-coding: Handles requests to add a new coding question to the system.
-  - /get-mcqs: Retrieves all MCQ questions from the system.
-  - /get-codes: Retrieves all coding questions from the system.
+  - /get-mcqs: Retrieves the MCQ questions of the system, one page at a time.
+  - /get-codes: Retrieves the coding questions of the system, one page at a time.
   - /update-mcq/{id}: Updates an existing MCQ question by ID.
   - /update-coding/{id}: Updates an existing coding question by ID.
   - /delete-mcq/{id}: Deletes an MCQ question by ID.
@@ -64,27 +63,35 @@ public class QuestionController {
         }
     }
 
-    /* Retrieves all MCQ questions from the system.
+    /* Retrieves one page of MCQ questions from the system, in id order.
 
-       @return - ResponseEntity with a list of all MCQ questions, or error message in case of failure. */
+       @param after - The next token of the previous page, absent for the first page.
+       @param size - The number of questions of the page.
+       @return - ResponseEntity with the page of MCQ questions and the token of the next one, or error message in case of failure. */
     @GetMapping("/get-mcqs")
-    public ResponseEntity<?> getMcqs() {
+    public ResponseEntity<?> getMcqs(@RequestParam(required = false) String after, @RequestParam(defaultValue = "50") int size) {
         try {
-            List<McqQuestion> mcqs = questionService.getMcqQuestion();
+            KeysetPage<McqQuestion> mcqs = questionService.getMcqQuestions(after, size);
             return ResponseEntity.status(HttpStatus.OK).body(mcqs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong");
         }
     }
 
-    /* Retrieves all coding questions from the system.
+    /* Retrieves one page of coding questions from the system, in id order.
 
-       @return - ResponseEntity with a list of all coding questions, or error message in case of failure. */
+       @param after - The next token of the previous page, absent for the first page.
+       @param size - The number of questions of the page.
+       @return - ResponseEntity with the page of coding questions and the token of the next one, or error message in case of failure. */
     @GetMapping("/get-codes")
-    public ResponseEntity<?> getCondingQuestions() {
+    public ResponseEntity<?> getCondingQuestions(@RequestParam(required = false) String after, @RequestParam(defaultValue = "50") int size) {
         try {
-            List<CodingQuestion> codes = questionService.getCodingQuestion();
+            KeysetPage<CodingQuestion> codes = questionService.getCodingQuestions(after, size);
             return ResponseEntity.status(HttpStatus.OK).body(codes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong");
         }
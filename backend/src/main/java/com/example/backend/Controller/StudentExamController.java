@@ -2,15 +2,23 @@ package com.example.backend.Controller;
 
 import com.example.backend.Dto.AutoSaveRequest;
 import com.example.backend.Dto.CodeRequest;
+import com.example.backend.Dto.CodeSubmissionEvent;
 import com.example.backend.Dto.StudentAnswerDTO;
 import com.example.backend.Dto.StudentExamDisplay;
+import com.example.backend.Service.ExecutionScheduler;
+import com.example.backend.Service.Judge0Client;
 import com.example.backend.Service.StudentExamService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.security.Principal;
 import java.util.List;
 
 /* The StudentExamController class is responsible for handling requests related to studentExam operations.
@@ -19,10 +27,22 @@ import java.util.List;
  * Endpoints:
   - /find-exam/{email}: Retrieves all exams assigned to a student identified by their email.
   - /create-exam/{email}/{exam_id}: Starts an exam for a student by their email and exam ID.
-  - /submit-exam/{id}: Allows a student to submit an exam by its unique ID.
+  - /{exam_id}/bootstrap: Starts or resumes an exam for the logged in student and returns the attempt, the time left,
+    the first page of questions of each section and the saved answers in one response.
+  - /submit-exam/{id}: Allows a student to submit their exam by its unique ID, the result is graded in the background.
+  - /submit-status/{id}: Retrieves the grading status of the student's submitted exam and its result once it is ready.
+    Both answer 404 Not Found for a student exam of another student.
   - /auto-save/{exam_id}: Handles auto-saving answers during an exam.
   - /run-code: Allows students to execute their code in exams and get the output.
-  - /submit-code/{email}/{exam_id}: Allows to submit code by their email and exam ID. */
+  - /submit-code/{email}/{exam_id}: Allows to submit code by their email and exam ID.
+  - /submit-code-verdicts/{email}/{exam_id}: Submits code like /submit-code and returns the verdict of each test case.
+  - /submit-code-stream/{email}/{exam_id}: Submits code like /submit-code and streams the verdict of each test case
+    as a Server-Sent Event as soon as it finished.
+  The submit-code endpoints grade the code of the logged in student, the email in their path is kept for the
+  existing clients and is not used.
+
+ * The code endpoints return a Mono, so the request thread is released while the code runs. They answer
+   429 Too Many Requests when the execution queue is full or the student already has runs in flight. */
 @RestController
 @RequestMapping("/api/student-exam")
 public class StudentExamController {
@@ -58,28 +78,70 @@ public class StudentExamController {
         }
     }
 
-    /* Submits an exam after the student completes it and auto-submit exam.
+    /* Starts or resumes an exam for the logged in student with everything needed to open it.
+
+       @param exam_id - The unique identifier of the exam to be opened.
+       @param size - The number of questions of the first page of each section.
+       @param principal - The logged in student.
+       @return - ResponseEntity with the ExamBootstrap of the attempt or an error message in case of failure. */
+    @PostMapping("/{exam_id}/bootstrap")
+    public ResponseEntity<?> bootstrapExam(@PathVariable long exam_id, @RequestParam(defaultValue = "8") int size, Principal principal) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(studentExamService.bootstrapExam(principal.getName(), exam_id, size));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong exam not opened");
+        }
+    }
+
+    /* Submits an exam after the student completes it and auto-submit exam. The exam is queued for grading and
+       the response is sent before the result is written.
 
        @param id - The unique identifier of the student exam being submitted.
-       @return - ResponseEntity with confirmation of successful submission or an error message in case of failure. */
+       @param principal - The logged in student, who must own the student exam.
+       @return - ResponseEntity with the submission status or an error message in case of failure. */
     @PostMapping("/submit-exam/{id}")
-    public ResponseEntity<?> submitExam(@PathVariable long id) {
+    public ResponseEntity<?> submitExam(@PathVariable long id, Principal principal) {
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(studentExamService.submitExam(id));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(studentExamService.submitExam(id, principal != null ? principal.getName() : null));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong in submit exam");
         }
     }
 
+    /* Retrieves the grading status of a submitted exam.
+
+       @param id - The unique identifier of the submitted student exam.
+       @param principal - The logged in student, who must own the student exam.
+       @return - ResponseEntity with the submission status, including the marks once the result is ready, or an error message in case of failure. */
+    @GetMapping("/submit-status/{id}")
+    public ResponseEntity<?> getSubmissionStatus(@PathVariable long id, Principal principal) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(studentExamService.getSubmissionStatus(id, principal != null ? principal.getName() : null));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("something went wrong in submission status");
+        }
+    }
+
     /* Handles auto-saving answers during an exam.
 
        @param exam_id - The unique identifier of the exam.
        @param autoSaveRequest - A DTO containing the answers to be auto-saved.
+       @param principal - The logged in student, whose attempt must be the one of the request.
        @return - ResponseEntity confirming successful auto-save or an error message in case of failure. */
     @PostMapping("/auto-save/{exam_id}")
-    public ResponseEntity<?> autoSave(@PathVariable long exam_id, @RequestBody AutoSaveRequest autoSaveRequest) {
+    public ResponseEntity<?> autoSave(@PathVariable long exam_id, @RequestBody AutoSaveRequest autoSaveRequest, Principal principal) {
         try {
-            studentExamService.autoSaveAnswers(exam_id, autoSaveRequest);
+            studentExamService.autoSaveAnswers(principal.getName(), exam_id, autoSaveRequest);
             return ResponseEntity.ok("Auto-save successful");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
@@ -89,28 +151,73 @@ public class StudentExamController {
     /* Executes code written by a student during an exam.
 
        @param codeRequest - A DTO containing the source code, programming language, and standard input for execution.
-       @return - ResponseEntity with the output of the code execution or an error message in case of failure. */
+       @param principal - The logged in student, used to limit the runs each student has in flight.
+       @return - Mono of ResponseEntity with the output of the code execution or an error message in case of failure. */
     @PostMapping("/run-code")
-    public ResponseEntity<?> runCode(@RequestBody CodeRequest codeRequest) throws JsonProcessingException {
-        try {
-            return ResponseEntity.ok(studentExamService.runCode(codeRequest.getSourceCode(), codeRequest.getLanguage(), codeRequest.getStdin()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
-        }
+    public Mono<ResponseEntity<?>> runCode(@RequestBody CodeRequest codeRequest, Principal principal) {
+        return studentExamService.runCode(codeRequest.getSourceCode(), codeRequest.getLanguage(), codeRequest.getStdin(),
+                        principal != null ? principal.getName() : null)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(codeErrorResponse(e)));
     }
 
     /* Run code submitted by a student and if code gives expected output then store that code
 
-       @param email - The email address of the student.
        @param exam_id - The unique identifier of the exam.
        @param studentAnswerDTO - A DTO containing the answers of code.
+       @param principal - The logged in student, whose answer is graded and whose runs in flight are limited.
        @return - ResponseEntity with the string message or an error message in case of failure. */
     @PostMapping("/submit-code/{email}/{exam_id}")
-    public ResponseEntity<?> submitCode(@PathVariable String email, @PathVariable long exam_id, @RequestBody StudentAnswerDTO studentAnswerDTO) {
-        try {
-            return ResponseEntity.ok(studentExamService.submitCode(email, exam_id, studentAnswerDTO));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+    public Mono<ResponseEntity<?>> submitCode(@PathVariable long exam_id, @RequestBody StudentAnswerDTO studentAnswerDTO, Principal principal) {
+        return studentExamService.submitCode(principal.getName(), exam_id, studentAnswerDTO)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(codeErrorResponse(e)));
+    }
+
+    /* Submits code like /submit-code and returns the verdict, run time and memory of each test case.
+
+       @param exam_id - The unique identifier of the exam.
+       @param studentAnswerDTO - A DTO containing the code, language and question of the answer.
+       @param principal - The logged in student, whose answer is graded and whose runs in flight are limited.
+       @return - ResponseEntity with the result of the submission or an error message in case of failure. */
+    @PostMapping("/submit-code-verdicts/{email}/{exam_id}")
+    public Mono<ResponseEntity<?>> submitCodeVerdicts(@PathVariable long exam_id, @RequestBody StudentAnswerDTO studentAnswerDTO, Principal principal) {
+        return studentExamService.gradeCode(principal.getName(), exam_id, studentAnswerDTO)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(codeErrorResponse(e)));
+    }
+
+    /* Submits code like /submit-code and streams its progress as Server-Sent Events: compile, then one verdict
+       event per test case with its run time and memory, then the result. A rejected or failed submission ends
+       the stream with a rejected or error event.
+
+       @param exam_id - The unique identifier of the exam.
+       @param failFast - Whether to stop at the first failing test case, the configured default if not given.
+       @param studentAnswerDTO - A DTO containing the code, language and question of the answer.
+       @param principal - The logged in student, whose answer is graded and whose runs in flight are limited.
+       @return - Flux of the events of the submission. */
+    @PostMapping(value = "/submit-code-stream/{email}/{exam_id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> submitCodeStream(@PathVariable long exam_id,
+                                                         @RequestParam(required = false) Boolean failFast,
+                                                         @RequestBody StudentAnswerDTO studentAnswerDTO, Principal principal) {
+        return studentExamService.streamCode(principal.getName(), exam_id, studentAnswerDTO, failFast)
+                .onErrorResume(e -> Flux.just(new CodeSubmissionEvent(
+                        e instanceof ExecutionScheduler.RejectedException ? "rejected" : "error", e.getMessage())))
+                .map(event -> ServerSentEvent.builder(event.getData()).event(event.getEvent()).build());
+    }
+
+    /* Maps an error of a code endpoint to its response.
+
+       @param e - The error signalled by the code run.
+       @return - 429 if the run was rejected by the ExecutionScheduler, 503 if Judge0 is unavailable, otherwise 500,
+                 with the error message. */
+    private ResponseEntity<?> codeErrorResponse(Throwable e) {
+        if (e instanceof ExecutionScheduler.RejectedException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        }
+        if (e instanceof Judge0Client.UnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
     }
 }
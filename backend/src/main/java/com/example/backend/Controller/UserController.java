@@ -14,7 +14,7 @@ import org.springframework.web.bind.annotation.*;
     to the UserService, which handles the core business logic for user operations.
 
  * Endpoints:
-  - /alluser: Handles GET requests to retrieve a list of all users in the system.
+  - /alluser: Handles GET requests to retrieve the users of the system, one page at a time.
   - /delete-user/{id}: Handles DELETE requests to remove a user by their unique ID.
   - /update-user/{id}: Handles PUT requests to update a user’s information by their unique ID. */
 @RestController
@@ -25,12 +25,14 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    /* Retrieves all users from the system.
+    /* Retrieves one page of users from the system, in id order.
 
-       @return - ResponseEntity containing a list of all users. */
+       @param after - The next token of the previous page, absent for the first page.
+       @param size - The number of users of the page.
+       @return - ResponseEntity containing the page of users and the token of the next one. */
     @GetMapping("/alluser")
-    public ResponseEntity<?> getAllUser() {
-        return userService.getAll();
+    public ResponseEntity<?> getAllUser(@RequestParam(required = false) String after, @RequestParam(defaultValue = "50") int size) {
+        return userService.getAll(after, size);
     }
 
     /* Deletes a user by their unique ID.
@@ -0,0 +1,33 @@
+package com.example.backend.Dto;
+
+/* The CodeSubmissionEvent class is one event of a streamed code submission, sent to the student as a
+   Server-Sent Event while the test cases run.
+
+ * Fields:
+   - event: Contains the name of the event:
+       compile - Whether the code compiled, sent once before the first verdict. Its data has status and compileOutput.
+       verdict - The TestCaseVerdict of one test case, sent as soon as the test case finished.
+       result - The CodeSubmissionResult of the submission, sent last.
+       rejected - The code run was not accepted because the execution queue is full, its data is the message.
+       error - The submission failed, its data is the message.
+   - data: Contains the payload of the event.
+
+ * Methods:
+   - Getter methods are provided for each field. */
+public class CodeSubmissionEvent {
+    private final String event;
+    private final Object data;
+
+    public CodeSubmissionEvent(String event, Object data) {
+        this.event = event;
+        this.data = data;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public Object getData() {
+        return data;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.backend.Dto;
+
+import java.util.List;
+
+/* The CodeSubmissionResult class is used to report the outcome of a code submission against the test cases
+   of a coding question.
+
+ * Fields:
+   - correct: Indicates whether the code passed every test case, the answer is saved as correct only then.
+   - passedCount: Contains the number of test cases the code passed.
+   - totalCount: Contains the number of test cases of the question.
+   - message: Contains the message shown to the student.
+   - verdicts: Contains the verdict of each test case, empty when all test cases were run as one program.
+   - firstMismatchTestCaseId / firstMismatchLine: Contain the first test case whose output differs from the
+     expected output and the line of its expected output where it differs, null if no output differs.
+
+ * Methods:
+   - Getter and Setter methods are provided for each field to allow controlled access and modification of the result. */
+public class CodeSubmissionResult {
+    private boolean correct;
+    private int passedCount;
+    private int totalCount;
+    private String message;
+    private List<TestCaseVerdict> verdicts;
+    private Long firstMismatchTestCaseId;
+    private Integer firstMismatchLine;
+
+    public CodeSubmissionResult(boolean correct, int passedCount, int totalCount, String message, List<TestCaseVerdict> verdicts) {
+        this.correct = correct;
+        this.passedCount = passedCount;
+        this.totalCount = totalCount;
+        this.message = message;
+        this.verdicts = verdicts;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(boolean correct) {
+        this.correct = correct;
+    }
+
+    public int getPassedCount() {
+        return passedCount;
+    }
+
+    public void setPassedCount(int passedCount) {
+        this.passedCount = passedCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<TestCaseVerdict> getVerdicts() {
+        return verdicts;
+    }
+
+    public void setVerdicts(List<TestCaseVerdict> verdicts) {
+        this.verdicts = verdicts;
+    }
+
+    public Long getFirstMismatchTestCaseId() {
+        return firstMismatchTestCaseId;
+    }
+
+    public void setFirstMismatchTestCaseId(Long firstMismatchTestCaseId) {
+        this.firstMismatchTestCaseId = firstMismatchTestCaseId;
+    }
+
+    public Integer getFirstMismatchLine() {
+        return firstMismatchLine;
+    }
+
+    public void setFirstMismatchLine(Integer firstMismatchLine) {
+        this.firstMismatchLine = firstMismatchLine;
+    }
+}
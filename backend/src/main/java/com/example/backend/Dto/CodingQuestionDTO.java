@@ -12,7 +12,7 @@ import java.util.Set;
    - questionText: Contains the text of the coding question.
    - category: Contains the category to which the coding question belongs.
    - functionSignature: Contains function signature that student must implement as part of the solution.
-   - testCases: Contains a set of test cases, encapsulated in the `CodingTestCaseDTO` class.
+   - testCases: Contains the set of sample test cases, encapsulated in the `CodingTestCaseDTO` class.
 
  * Methods:
    - Getter and Setter methods are provided for each field to allow controlled access and modification of the coding question details. */
@@ -1,7 +1,8 @@
 package com.example.backend.Dto;
 
-/* The CodingTestCaseDTO class is used to represent a test case for a coding question.
-   This class provides the input and expected output required to validate a student's solution.
+/* The CodingTestCaseDTO class is used to represent a sample test case of a coding question.
+   This class provides the input and expected output shown to a student as an example, hidden test cases are
+   never sent.
 
  * Fields:
    - id: Contains the unique identifier for the test case.
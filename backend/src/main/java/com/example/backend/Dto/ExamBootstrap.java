@@ -0,0 +1,136 @@
+package com.example.backend.Dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/* The ExamBootstrap class is used to give a student everything needed to open an exam in one response: the
+   attempt, the time left, the first page of each section and every saved answer.
+
+ * Fields:
+   - studentExamId: Contains the unique identifier of the attempt, used to auto-save and submit.
+   - examId: Contains the unique identifier of the exam.
+   - examName: Contains the name of the exam.
+   - duration: Holds the duration of the exam in a string format in minutes.
+   - startTime: Contains the time the attempt was started.
+   - endTime: Contains the time of the last saved activity of the attempt.
+   - remainingSeconds: Contains the time left to the student in seconds, computed by the server. It is 0 when the
+     time is over but the attempt was not submitted, the client then submits it at once.
+   - mcqQuestions: Contains the first page of MCQ questions, without answers.
+   - codingQuestions: Contains the first page of coding questions, without answers.
+   - mcqCount: Contains the number of MCQ questions of the exam.
+   - codingCount: Contains the number of coding questions of the exam.
+   - answers: Contains every saved answer of the attempt, keyed by the exam question id.
+
+ * Methods:
+   - Getter and Setter methods are provided for each field. */
+public class ExamBootstrap {
+
+    private Long studentExamId;
+    private Long examId;
+    private String examName;
+    private String duration;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long remainingSeconds;
+    private List<ExamQuestionDTO> mcqQuestions;
+    private List<ExamQuestionDTO> codingQuestions;
+    private int mcqCount;
+    private int codingCount;
+    private List<QuestionAnswerDTO> answers;
+
+    public Long getStudentExamId() {
+        return studentExamId;
+    }
+
+    public void setStudentExamId(Long studentExamId) {
+        this.studentExamId = studentExamId;
+    }
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+
+    public String getExamName() {
+        return examName;
+    }
+
+    public void setExamName(String examName) {
+        this.examName = examName;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public void setDuration(String duration) {
+        this.duration = duration;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public long getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public void setRemainingSeconds(long remainingSeconds) {
+        this.remainingSeconds = remainingSeconds;
+    }
+
+    public List<ExamQuestionDTO> getMcqQuestions() {
+        return mcqQuestions;
+    }
+
+    public void setMcqQuestions(List<ExamQuestionDTO> mcqQuestions) {
+        this.mcqQuestions = mcqQuestions;
+    }
+
+    public List<ExamQuestionDTO> getCodingQuestions() {
+        return codingQuestions;
+    }
+
+    public void setCodingQuestions(List<ExamQuestionDTO> codingQuestions) {
+        this.codingQuestions = codingQuestions;
+    }
+
+    public int getMcqCount() {
+        return mcqCount;
+    }
+
+    public void setMcqCount(int mcqCount) {
+        this.mcqCount = mcqCount;
+    }
+
+    public int getCodingCount() {
+        return codingCount;
+    }
+
+    public void setCodingCount(int codingCount) {
+        this.codingCount = codingCount;
+    }
+
+    public List<QuestionAnswerDTO> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<QuestionAnswerDTO> answers) {
+        this.answers = answers;
+    }
+}
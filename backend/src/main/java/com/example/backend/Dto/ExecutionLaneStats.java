@@ -0,0 +1,90 @@
+package com.example.backend.Dto;
+
+/* The ExecutionLaneStats class is used to report the load of one lane of the code execution scheduler to admins,
+   so the Judge0 capacity can be sized for an exam.
+
+ * Fields:
+   - lane: Represents the lane (GRADED or PRACTICE).
+   - maxConcurrency / queueCapacity / perStudentLimit: Contain the configured limits of the lane.
+   - running: Contains the number of runs of the lane executing now.
+   - queued: Contains the number of runs of the lane waiting for a slot.
+   - submitted: Contains the number of runs accepted by the lane since startup.
+   - rejected: Contains the number of runs rejected because the queue was full or the student had too many runs in flight.
+   - completed: Contains the number of runs of the lane which finished, failed or were cancelled.
+   - averageWaitMs / maxWaitMs: Contain the average and longest time a run waited in the queue before it started.
+
+ * Methods:
+   - Getter methods are provided for each field. */
+public class ExecutionLaneStats {
+
+    private final String lane;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final int perStudentLimit;
+    private final int running;
+    private final int queued;
+    private final long submitted;
+    private final long rejected;
+    private final long completed;
+    private final double averageWaitMs;
+    private final double maxWaitMs;
+
+    public ExecutionLaneStats(String lane, int maxConcurrency, int queueCapacity, int perStudentLimit, int running, int queued,
+                              long submitted, long rejected, long completed, double averageWaitMs, double maxWaitMs) {
+        this.lane = lane;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.perStudentLimit = perStudentLimit;
+        this.running = running;
+        this.queued = queued;
+        this.submitted = submitted;
+        this.rejected = rejected;
+        this.completed = completed;
+        this.averageWaitMs = averageWaitMs;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getPerStudentLimit() {
+        return perStudentLimit;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public double getAverageWaitMs() {
+        return averageWaitMs;
+    }
+
+    public double getMaxWaitMs() {
+        return maxWaitMs;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.Dto;
+
+/* The GradedAttempt class is used to carry the outcome of grading one student exam to the batch writers
+   of the exam grading engine.
+
+ * Fields:
+   - studentExamId: Represents the unique identifier of the graded student exam.
+   - userId: Represents the unique identifier of the student.
+   - marks: Contains the marks computed from the correct answers.
+   - passed: Indicates whether the marks reach the passing marks of the exam.
+
+ * Methods:
+   - Getter methods are provided for each field, the values are fixed once the attempt is graded. */
+public class GradedAttempt {
+    private final long studentExamId;
+    private final long userId;
+    private final int marks;
+    private final boolean passed;
+
+    public GradedAttempt(long studentExamId, long userId, int marks, boolean passed) {
+        this.studentExamId = studentExamId;
+        this.userId = userId;
+        this.marks = marks;
+        this.passed = passed;
+    }
+
+    public long getStudentExamId() {
+        return studentExamId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getMarks() {
+        return marks;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+}
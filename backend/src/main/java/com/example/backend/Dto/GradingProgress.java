@@ -0,0 +1,103 @@
+package com.example.backend.Dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* The GradingProgress class is used to report the progress of grading a whole exam to admins.
+   It is updated by the grading workers while the job runs, so the counters are atomic.
+
+ * Fields:
+   - examId: Represents the unique identifier of the exam being graded.
+   - status: Contains the state of the grading job (RUNNING, COMPLETED or FAILED).
+   - total: Contains the number of unfinished student exams found when the job started.
+   - graded: Contains the number of student exams graded so far.
+   - skipped: Contains the number of student exams which were submitted by the student while the job ran.
+   - startedAt / finishedAt: Contain the start and end time of the job.
+   - error: Contains the error message if the job failed.
+   - throughputPerSecond: Contains the number of student exams graded per second since the job started.
+
+ * Methods:
+   - Getter methods are provided for each field, and methods for the grading engine to update the counters. */
+public class GradingProgress {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final long examId;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong graded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long total;
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public GradingProgress(long examId) {
+        this.examId = examId;
+    }
+
+    public long getExamId() {
+        return examId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getGraded() {
+        return graded.get();
+    }
+
+    public void addGraded(long count) {
+        graded.addAndGet(count);
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public void addSkipped(long count) {
+        skipped.addAndGet(count);
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public double getThroughputPerSecond() {
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return graded.get() * 1000.0 / millis;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.Dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/* The KeysetPage class is used to give one page of a list ordered by id, with the token to continue after it.
+   A page is read with a seek on the id (WHERE id > last id ORDER BY id) instead of an offset, so a page costs the
+   same whatever its position and rows added or deleted meanwhile do not shift the following pages.
+
+ * Fields:
+   - items: Contains the rows of the page, ordered by id.
+   - next: Contains the opaque token to pass as `after` to get the next page, null on the last page.
+
+ * Methods:
+   - limit(int size): Clamps a requested page size between 1 and MAX_SIZE.
+   - after(String token): Decodes a continuation token into the id to seek after, 0 for the first page.
+   - of(List<T> rows, int limit, ToLongFunction<T> id): Builds a page from rows read with limit + 1, the extra row
+     only telling whether a next page exists. */
+public class KeysetPage<T> {
+
+    public static final int MAX_SIZE = 200;
+
+    private static final String TOKEN_PREFIX = "id:";
+
+    private final List<T> items;
+    private final String next;
+
+    public KeysetPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /* Decodes a continuation token.
+
+       @param token - The token given as next by the previous page, or null for the first page.
+       @return The id to seek after.
+       @throws IllegalArgumentException if the token was not given by a previous page. */
+    public static long after(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.startsWith(TOKEN_PREFIX)) {
+                long id = Long.parseLong(decoded.substring(TOKEN_PREFIX.length()));
+                if (id > 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the invalid token error below
+        }
+        throw new IllegalArgumentException("Invalid page token.");
+    }
+
+    /* Builds a page from the rows read after the previous page.
+
+       @param rows - The rows read ordered by id, at most limit + 1.
+       @param limit - The size of the page.
+       @param id - Gives the id of a row.
+       @return The page with at most limit rows, and the token of its last row if more rows follow. */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, ToLongFunction<T> id) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        String token = TOKEN_PREFIX + id.applyAsLong(items.get(limit - 1));
+        return new KeysetPage<>(items, Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
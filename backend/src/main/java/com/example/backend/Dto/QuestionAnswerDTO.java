@@ -0,0 +1,35 @@
+package com.example.backend.Dto;
+
+/* The QuestionAnswerDTO class is used to give the saved answer of a student for one question of a page, sent
+   apart from the question page which is the same for every student.
+
+ * Fields:
+   - id: Contains the unique identifier of the exam question, the id of its ExamQuestionDTO.
+   - answer: Contains the answer given by student in past for that question.
+   - language: Contains coding question language otherwise null.
+
+ * Methods:
+   - Getter methods are provided for each field. */
+public class QuestionAnswerDTO {
+    private final Long id;
+    private final String answer;
+    private final String language;
+
+    public QuestionAnswerDTO(Long id, String answer, String language) {
+        this.id = id;
+        this.answer = answer;
+        this.language = language;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+}
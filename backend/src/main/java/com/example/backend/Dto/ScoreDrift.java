@@ -0,0 +1,47 @@
+package com.example.backend.Dto;
+
+/* The ScoreDrift class is used to report a student exam whose running score did not match the marks
+   recomputed from its answers during score reconciliation.
+
+ * Fields:
+   - studentExamId: Represents the unique identifier of the student exam.
+   - storedScore: Contains the running score which was stored on the student exam.
+   - computedScore: Contains the marks recomputed from the correct answers, the stored score is corrected to this value.
+
+ * Methods:
+   - Getter and Setter methods are provided for each field to allow controlled access and modification of the drift details. */
+public class ScoreDrift {
+    private Long studentExamId;
+    private int storedScore;
+    private int computedScore;
+
+    public ScoreDrift(Long studentExamId, int storedScore, int computedScore) {
+        this.studentExamId = studentExamId;
+        this.storedScore = storedScore;
+        this.computedScore = computedScore;
+    }
+
+    public Long getStudentExamId() {
+        return studentExamId;
+    }
+
+    public void setStudentExamId(Long studentExamId) {
+        this.studentExamId = studentExamId;
+    }
+
+    public int getStoredScore() {
+        return storedScore;
+    }
+
+    public void setStoredScore(int storedScore) {
+        this.storedScore = storedScore;
+    }
+
+    public int getComputedScore() {
+        return computedScore;
+    }
+
+    public void setComputedScore(int computedScore) {
+        this.computedScore = computedScore;
+    }
+}
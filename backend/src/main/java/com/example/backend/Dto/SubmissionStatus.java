@@ -0,0 +1,60 @@
+package com.example.backend.Dto;
+
+import com.example.backend.Entity.GradingJob;
+
+/* The SubmissionStatus class is used to report the state of a submitted student exam while its result is
+   being written by the grading workers.
+
+ * Fields:
+   - studentExamId: Represents the unique identifier of the submitted student exam.
+   - status: Contains the state of the grading job, the result is ready when it is DONE.
+   - marksObtained: Contains the marks of the student once the result is ready, null before.
+   - passed: Indicates whether the student passed once the result is ready, null before.
+
+ * Methods:
+   - Getter and Setter methods are provided for each field to allow controlled access and modification of the status. */
+public class SubmissionStatus {
+    private Long studentExamId;
+    private GradingJob.Status status;
+    private Integer marksObtained;
+    private Boolean passed;
+
+    public SubmissionStatus(Long studentExamId, GradingJob.Status status, Integer marksObtained, Boolean passed) {
+        this.studentExamId = studentExamId;
+        this.status = status;
+        this.marksObtained = marksObtained;
+        this.passed = passed;
+    }
+
+    public Long getStudentExamId() {
+        return studentExamId;
+    }
+
+    public void setStudentExamId(Long studentExamId) {
+        this.studentExamId = studentExamId;
+    }
+
+    public GradingJob.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(GradingJob.Status status) {
+        this.status = status;
+    }
+
+    public Integer getMarksObtained() {
+        return marksObtained;
+    }
+
+    public void setMarksObtained(Integer marksObtained) {
+        this.marksObtained = marksObtained;
+    }
+
+    public Boolean getPassed() {
+        return passed;
+    }
+
+    public void setPassed(Boolean passed) {
+        this.passed = passed;
+    }
+}
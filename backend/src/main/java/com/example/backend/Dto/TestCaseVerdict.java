@@ -0,0 +1,79 @@
+package com.example.backend.Dto;
+
+/* The TestCaseVerdict class is used to report the outcome of a submitted code on one test case.
+
+ * Fields:
+   - testCaseId: Represents the unique identifier of the test case.
+   - passed: Indicates whether the code ran successfully and produced the expected output.
+   - status: Contains the status description of the run, for example Accepted, Time Limit Exceeded or Runtime Error.
+   - time: Contains the run time in seconds, as reported by the executor.
+   - memory: Contains the memory used in kilobytes, null if the executor does not measure it.
+   - mismatchLine: Contains the line of the expected output where the output first differs, null unless the run
+     finished with a wrong answer.
+
+ * Methods:
+   - Getter and Setter methods are provided for each field to allow controlled access and modification of the verdict. */
+public class TestCaseVerdict {
+    private Long testCaseId;
+    private boolean passed;
+    private String status;
+    private String time;
+    private Integer memory;
+    private Integer mismatchLine;
+
+    public TestCaseVerdict(Long testCaseId, boolean passed, String status, String time, Integer memory) {
+        this.testCaseId = testCaseId;
+        this.passed = passed;
+        this.status = status;
+        this.time = time;
+        this.memory = memory;
+    }
+
+    public Long getTestCaseId() {
+        return testCaseId;
+    }
+
+    public void setTestCaseId(Long testCaseId) {
+        this.testCaseId = testCaseId;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public void setPassed(boolean passed) {
+        this.passed = passed;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public void setTime(String time) {
+        this.time = time;
+    }
+
+    public Integer getMemory() {
+        return memory;
+    }
+
+    public void setMemory(Integer memory) {
+        this.memory = memory;
+    }
+
+    public Integer getMismatchLine() {
+        return mismatchLine;
+    }
+
+    public void setMismatchLine(Integer mismatchLine) {
+        this.mismatchLine = mismatchLine;
+    }
+}
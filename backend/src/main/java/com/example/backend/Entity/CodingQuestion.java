@@ -1,7 +1,9 @@
 package com.example.backend.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -27,7 +29,13 @@ import java.util.Set;
     and reference purposes. It is mandatory and can accommodate long text.
   - testCases: Represents a collection of test cases associated with the coding question. This field establishes
     a one-to-many relationship with the CodingTestCase entity. Each coding question can have multiple test cases,
-    and each test case has input data and expected output that are used to validate user submissions. */
+    and each test case has input data and expected output that are used to validate user submissions.
+  - sampleTestCases: The test cases marked as sample, the only ones shown to students. It is a read-only view of
+    testCases filtered in SQL, so loading it never reads the hidden test cases. Changes go through testCases.
+  - outputCheck: How the output of a submission is compared with the expected output: EXACT (the default when
+    not set), WHITESPACE which ignores differences in spaces and line breaks, or NUMERIC which also accepts
+    numbers within numericTolerance.
+  - numericTolerance: The absolute or relative difference accepted between numbers in NUMERIC mode, 1e-6 if not set. */
 @Entity
 @Table(name = "coding_questions")
 public class CodingQuestion {
@@ -57,6 +65,18 @@ public class CodingQuestion {
     @JsonManagedReference
     private Set<CodingTestCase> testCases = new HashSet<>();
 
+    @OneToMany(mappedBy = "codingQuestion")
+    @SQLRestriction("sample = 1")
+    @JsonIgnore
+    private Set<CodingTestCase> sampleTestCases = new HashSet<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "output_check", length = 16)
+    private OutputCheck outputCheck;
+
+    @Column(name = "numeric_tolerance")
+    private Double numericTolerance;
+
     public Long getId() {
         return id;
     }
@@ -105,6 +125,10 @@ public class CodingQuestion {
         this.testCases = testCases;
     }
 
+    public Set<CodingTestCase> getSampleTestCases() {
+        return sampleTestCases;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -120,4 +144,26 @@ public class CodingQuestion {
     public void setCorrectCode(String correctCode) {
         this.correctCode = correctCode;
     }
-}
\ No newline at end of file
+
+    public OutputCheck getOutputCheck() {
+        return outputCheck;
+    }
+
+    public void setOutputCheck(OutputCheck outputCheck) {
+        this.outputCheck = outputCheck;
+    }
+
+    public Double getNumericTolerance() {
+        return numericTolerance;
+    }
+
+    public void setNumericTolerance(Double numericTolerance) {
+        this.numericTolerance = numericTolerance;
+    }
+
+    public enum OutputCheck {
+        EXACT,
+        WHITESPACE,
+        NUMERIC
+    }
+}
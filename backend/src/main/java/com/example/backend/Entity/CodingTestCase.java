@@ -22,7 +22,9 @@ import jakarta.persistence.*;
   - inputData: The input data provided to the user's code when executing the test case. This field stores the
     input as a string, allowing for complex data structures to be provided in text form.
   - expectedOutput: The expected output for the test case. This field stores the correct result that the user's
-    code should produce when given the corresponding input data. */
+    code should produce when given the corresponding input data.
+  - sample: Whether the test case is shown to students as an example. Hidden test cases, false or not set, stay
+    on the server and are only used for grading. Every test case is used for grading. */
  @Entity
 @Table(name = "coding_test_cases")
 public class CodingTestCase {
@@ -41,6 +43,9 @@ public class CodingTestCase {
     @Column(name = "expected_output", nullable = false, length = 100000)
     private String expectedOutput;
 
+    @Column(name = "sample")
+    private Boolean sample;
+
     public Long getId() {
         return id;
     }
@@ -72,4 +77,12 @@ public class CodingTestCase {
     public void setExpectedOutput(String expectedOutput) {
         this.expectedOutput = expectedOutput;
     }
+
+    public Boolean getSample() {
+        return sample;
+    }
+
+    public void setSample(Boolean sample) {
+        this.sample = sample;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.example.backend.Entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/* The GradingJob class is an entity representing a submitted student exam waiting for its ExamResult.
+   Submitting an exam only marks the student exam completed and inserts a job, the result is written later by
+   the grading workers, which may run on any backend node.
+
+ * Purpose:
+   * This class is the durable queue between the submit request and the grading workers. A job is claimed by
+     one worker at a time and survives restarts, so no submitted exam is left without a result.
+
+ * Fields:
+  - id: A unique identifier for each job, generated automatically. It is the primary key and the queue order.
+  - studentExam: A reference to the submitted StudentExam, each student exam has at most one job.
+  - status: The state of the job (PENDING, RUNNING, DONE, FAILED).
+  - attempts: The number of times the job failed, the job is marked FAILED after too many attempts.
+  - claimedBy: The worker which claimed the job, null while the job is pending.
+  - claimedAt: The time the job was claimed, a RUNNING job claimed too long ago is released again.
+  - createdAt: The time the exam was submitted.
+  - completedAt: The time the ExamResult was written.
+  - error: The error of the last failed attempt.
+
+ * Relationships:
+  - @OneToOne (studentExam): Links each job to the submitted student exam. */
+@Entity
+@Table(name = "grading_jobs", indexes = @Index(name = "idx_grading_jobs_status", columnList = "status, id"))
+public class GradingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_exam_id", nullable = false, unique = true)
+    private StudentExam studentExam;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int attempts;
+
+    @Column(length = 64)
+    private String claimedBy;
+
+    @Column
+    private LocalDateTime claimedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    @Column(length = 500)
+    private String error;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public StudentExam getStudentExam() {
+        return studentExam;
+    }
+
+    public void setStudentExam(StudentExam studentExam) {
+        this.studentExam = studentExam;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+}
@@ -3,6 +3,8 @@ package com.example.backend.Entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -24,6 +26,9 @@ import java.util.Set;
   - startTime: The timestamp when the student started the exam.
   - endTime: The timestamp when the student completed the exam, if applicable. Can be null if the exam is not yet completed.
   - isCompleted: A boolean flag indicating whether the student has completed the exam.
+  - score: The running marks of the correct answers, updated whenever the correctness of an answer changes so that
+    grading only reads this number. It is changed with an atomic update query, so the entity is saved with
+    @DynamicUpdate to never write back a stale score.
   - answers: A collection of StudentAnswer entities, representing the answers submitted by the student for the exam.
 
  * Relationships:
@@ -32,6 +37,7 @@ import java.util.Set;
   - @OneToMany (answers): Establishes a one-to-many relationship with the StudentAnswer entity,
     linking each student exam to the answers submitted during the exam. */
 @Entity
+@DynamicUpdate
 @Table(name = "student_exam")
 public class StudentExam {
     @Id
@@ -56,6 +62,10 @@ public class StudentExam {
     @Column(nullable = false)
     private boolean isCompleted;
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int score;
+
     @OneToMany(mappedBy = "studentExam", cascade = CascadeType.ALL)
     @JsonManagedReference
     private Set<StudentAnswer> answers = new HashSet<>();
@@ -108,6 +118,14 @@ public class StudentExam {
         isCompleted = completed;
     }
 
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
     public Set<StudentAnswer> getAnswers() {
         return answers;
     }
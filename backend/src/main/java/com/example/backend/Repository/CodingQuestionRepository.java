@@ -1,9 +1,13 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.CodingQuestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /* Repository interface for accessing and managing CodingQuestion entities in the database.
@@ -15,6 +19,11 @@ import java.util.List;
  * Methods:
    - findByCategoryAndDifficultyLevel(String category, String difficultyLevel): Retrieves a list of CodingQuestion
      entities based on the specified category and difficulty level.
+   - findExistingIds(Collection<Long> ids): Retrieves which of the given ids belong to an existing CodingQuestion, in one IN query.
+   - findIdsAfter(long after, Limit limit): Retrieves the ids of one page of CodingQuestion entities, the ones following the id
+     `after` in id order, with a seek on the primary key.
+   - findWithTestCasesByIdIn(Collection<Long> ids): Retrieves the CodingQuestion entities of a page ordered by id, with all their
+     test cases fetched in the same statement.
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access
    and manipulation, such as save, findById, findAll, delete, etc. */
@@ -22,4 +31,13 @@ import java.util.List;
 public interface CodingQuestionRepository extends JpaRepository<CodingQuestion, Long> {
 
     List<CodingQuestion> findByCategoryAndDifficultyLevel(String category, String difficultyLevel);
+
+    @Query("SELECT c.id FROM CodingQuestion c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM CodingQuestion c WHERE c.id > :after ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT c FROM CodingQuestion c LEFT JOIN FETCH c.testCases WHERE c.id IN :ids ORDER BY c.id")
+    List<CodingQuestion> findWithTestCasesByIdIn(@Param("ids") Collection<Long> ids);
 }
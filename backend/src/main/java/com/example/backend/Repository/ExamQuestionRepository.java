@@ -1,13 +1,14 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.ExamQuestion;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /* Repository interface for accessing and managing ExamQuestion entities in the database.
 
  * This interface extends JpaRepository to provide CRUD operations and additional query capabilities for the
@@ -15,21 +16,28 @@ import org.springframework.stereotype.Repository;
    as saving, finding, updating, and deleting exam questions.
 
  * Methods:
-   - findMcqQuestionsByExamId(Long examId, Pageable pageable): Retrieves a List of ExamQuestion entities contains mcq questions based on
-     the specified examId and pageable and pageable have page number and size of page.
-   - findCodingQuestionsByExamId(Long examId, Pageable pageable): Retrieves a List of ExamQuestion entities contains coding questions based on
-     the specified examId and pageable and pageable have page number and size of page.
+   - findMcqQuestionsWithOptionsByExamId(Long examId): Retrieves the ExamQuestion entities of an exam which contain mcq questions
+     ordered by id, with the exam, the question and its options fetched in the same statement.
+   - findCodingQuestionsWithSamplesByExamId(Long examId): Retrieves the ExamQuestion entities of an exam which contain coding
+     questions ordered by id, with the exam, the question and its sample test cases fetched in the same statement.
+     Together they load the ExamPaper of an exam in two statements whatever the number of questions.
+   - findAllMarksByExamId(Long examId): Retrieves the marks of every question of an exam as rows of [mcq question id, coding question id, marks].
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
 @Repository
 public interface ExamQuestionRepository extends JpaRepository<ExamQuestion, Long> {
 
-    @Query("SELECT eq FROM ExamQuestion eq WHERE eq.exam.id = :examId AND eq.mcqQuestion IS NOT NULL")
-    Page<ExamQuestion> findMcqQuestionsByExamId(@Param("examId") Long examId, Pageable pageable);
+    @Query("SELECT eq FROM ExamQuestion eq JOIN FETCH eq.exam JOIN FETCH eq.mcqQuestion m LEFT JOIN FETCH m.options " +
+            "WHERE eq.exam.id = :examId ORDER BY eq.id")
+    List<ExamQuestion> findMcqQuestionsWithOptionsByExamId(@Param("examId") Long examId);
+
+    @Query("SELECT eq FROM ExamQuestion eq JOIN FETCH eq.exam JOIN FETCH eq.codingQuestion c LEFT JOIN FETCH c.sampleTestCases " +
+            "WHERE eq.exam.id = :examId ORDER BY eq.id")
+    List<ExamQuestion> findCodingQuestionsWithSamplesByExamId(@Param("examId") Long examId);
 
-    @Query("SELECT eq FROM ExamQuestion eq WHERE eq.exam.id = :examId AND eq.codingQuestion IS NOT NULL")
-    Page<ExamQuestion> findCodingQuestionsByExamId(@Param("examId") Long examId, Pageable pageable);
+    @Query("SELECT m.id, c.id, eq.marks FROM ExamQuestion eq LEFT JOIN eq.mcqQuestion m LEFT JOIN eq.codingQuestion c WHERE eq.exam.id = :examId")
+    List<Object[]> findAllMarksByExamId(@Param("examId") Long examId);
 
 }
 
@@ -2,11 +2,13 @@ package com.example.backend.Repository;
 
 import com.example.backend.Entity.Exam;
 import com.example.backend.Entity.StudentExam;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +20,9 @@ import java.util.Optional;
 
  * Methods:
    - findExamsByUniversityId(Long universityId): Retrieves a List of Exam entities based on the specified universityId.
-   - existsByStudentEmail(String email): Check whether student present in studentExam list or not.
+   - findIdsByStatusIn(Collection<Exam.ExamStatus> statuses): Retrieves the ids of the exams having one of the given statuses.
+   - findAfter(long after, Limit limit): Retrieves one page of exams, the ones following the id `after` in id order, with a
+     seek on the primary key.
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
@@ -28,6 +32,9 @@ public interface ExamRepository extends JpaRepository<Exam, Long> {
     @Query("SELECT e FROM Exam e JOIN e.universities u WHERE u.universityId = :universityId")
     List<Exam> findExamsByUniversityId(@Param("universityId") Long universityId);
 
-    @Query("SELECT CASE WHEN COUNT(se) > 0 THEN true ELSE false END FROM StudentExam se WHERE se.student.email = :email")
-    boolean existsByStudentEmail(@Param("email") String email);
+    @Query("SELECT e.id FROM Exam e WHERE e.status IN :statuses")
+    List<Long> findIdsByStatusIn(@Param("statuses") Collection<Exam.ExamStatus> statuses);
+
+    @Query("SELECT e FROM Exam e WHERE e.id > :after ORDER BY e.id")
+    List<Exam> findAfter(@Param("after") long after, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Dto.GradedAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/* Repository class for writing the outcome of bulk grading with plain JDBC batches.
+
+ * Methods:
+   - completeAll(List<GradedAttempt> attempts): Marks the graded student exams as completed and stores their score in one batch.
+     Only student exams which are still not completed are updated, the returned counts tell which ones were, in
+     the order of the attempts.
+   - insertAll(long examId, List<GradedAttempt> attempts): Inserts the ExamResult rows of the graded attempts in one batch. */
+@Repository
+public class ExamResultJdbcRepository {
+
+    private static final String COMPLETE_SQL =
+            "UPDATE student_exam SET is_completed = ?, score = ? WHERE id = ? AND is_completed = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO exam_results (exam_id, user_id, marks_obtained, is_passed) VALUES (?, ?, ?, ?)";
+
+    // Injects JdbcTemplate, it joins the transaction opened by the JPA transaction manager
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* Marks the graded student exams as completed in one JDBC batch.
+
+       @param attempts - The graded attempts.
+       @return The updated row count of each attempt, 0 if the student exam was already completed. */
+    public int[] completeAll(List<GradedAttempt> attempts) {
+        int[][] counts = jdbcTemplate.batchUpdate(COMPLETE_SQL, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setBoolean(1, true);
+            ps.setInt(2, attempt.getMarks());
+            ps.setLong(3, attempt.getStudentExamId());
+            ps.setBoolean(4, false);
+        });
+        // one array per executed batch, an empty list executes none
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    /* Inserts the exam results of the graded attempts in one JDBC batch.
+
+       @param examId - The ID of the exam.
+       @param attempts - The graded attempts to insert a result for. */
+    public void insertAll(long examId, List<GradedAttempt> attempts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setLong(1, examId);
+            ps.setLong(2, attempt.getUserId());
+            ps.setInt(3, attempt.getMarks());
+            ps.setBoolean(4, attempt.isPassed());
+        });
+    }
+}
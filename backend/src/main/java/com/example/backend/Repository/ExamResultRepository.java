@@ -2,16 +2,26 @@ package com.example.backend.Repository;
 
 import com.example.backend.Entity.ExamResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /* Repository interface for accessing and managing ExamResult entities in the database.
 
  * This interface extends JpaRepository to provide CRUD operations and additional query capabilities for the
    ExamResult entity. It allows seamless interaction with the underlying database, enabling operations such
    as saving, finding, updating, and deleting exam results.
 
+ * Methods:
+   - findByExamIdAndUserId(Long examId, Long userId): Retrieves the result of a student in an exam.
+
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
 @Repository
 public interface ExamResultRepository extends JpaRepository<ExamResult, Long> {
+
+    @Query("SELECT er FROM ExamResult er WHERE er.exam.id = :examId AND er.student.userId = :userId")
+    Optional<ExamResult> findByExamIdAndUserId(@Param("examId") Long examId, @Param("userId") Long userId);
 }
@@ -0,0 +1,88 @@
+package com.example.backend.Repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/* Repository class for claiming and completing grading jobs with plain JDBC.
+
+ * Several backend nodes drain the same grading_jobs table. A claim takes the oldest pending jobs with the
+   ROWLOCK, UPDLOCK and READPAST hints, so concurrent claims skip the rows another worker is claiming instead of
+   waiting on them, and marks them RUNNING in the same statement.
+
+ * Methods:
+   - claim(String workerId, int batchSize): Claims up to batchSize pending jobs and returns rows of [job id, student exam id].
+   - completeAll(String workerId, List<Long> jobIds): Marks the claimed jobs DONE in one batch. Only jobs still
+     claimed by the worker are updated, the returned counts tell which ones were.
+   - failAll(String workerId, List<Long> jobIds, int maxAttempts, String error): Puts the claimed jobs back to PENDING,
+     or marks them FAILED once they failed maxAttempts times. */
+@Repository
+public class GradingJobJdbcRepository {
+
+    private static final String CLAIM_SQL =
+            "WITH next AS (SELECT TOP (?) * FROM grading_jobs WITH (ROWLOCK, UPDLOCK, READPAST) " +
+            "WHERE status = 'PENDING' ORDER BY id) " +
+            "UPDATE next SET status = 'RUNNING', claimed_by = ?, claimed_at = ? " +
+            "OUTPUT inserted.id, inserted.student_exam_id;";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE grading_jobs SET status = 'DONE', completed_at = ?, error = NULL " +
+            "WHERE id = ? AND status = 'RUNNING' AND claimed_by = ?";
+
+    private static final String FAIL_SQL =
+            "UPDATE grading_jobs SET status = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END, " +
+            "attempts = attempts + 1, error = ?, claimed_by = NULL, claimed_at = NULL " +
+            "WHERE id = ? AND status = 'RUNNING' AND claimed_by = ?";
+
+    // Injects JdbcTemplate, it joins the transaction opened by the JPA transaction manager
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* Claims the oldest pending jobs for a worker.
+
+       @param workerId - The ID of the claiming worker.
+       @param batchSize - The maximum number of jobs to claim.
+       @return The claimed jobs as rows of [job id, student exam id]. */
+    public List<long[]> claim(String workerId, int batchSize) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                batchSize, workerId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /* Marks the claimed jobs DONE in one JDBC batch.
+
+       @param workerId - The ID of the worker which claimed the jobs.
+       @param jobIds - The IDs of the jobs.
+       @return The updated row count of each job, 0 if the job is no longer claimed by the worker. */
+    public int[] completeAll(String workerId, List<Long> jobIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(COMPLETE_SQL, jobIds, jobIds.size(), (ps, jobId) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, jobId);
+            ps.setString(3, workerId);
+        });
+        // one array per executed batch, an empty list executes none
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    /* Releases the claimed jobs after a failure in one JDBC batch.
+
+       @param workerId - The ID of the worker which claimed the jobs.
+       @param jobIds - The IDs of the jobs.
+       @param maxAttempts - The number of failures after which a job is marked FAILED.
+       @param error - The error to record on the jobs. */
+    public void failAll(String workerId, List<Long> jobIds, int maxAttempts, String error) {
+        String truncated = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        jdbcTemplate.batchUpdate(FAIL_SQL, jobIds, jobIds.size(), (ps, jobId) -> {
+            ps.setInt(1, maxAttempts);
+            ps.setString(2, truncated);
+            ps.setLong(3, jobId);
+            ps.setString(4, workerId);
+        });
+    }
+}
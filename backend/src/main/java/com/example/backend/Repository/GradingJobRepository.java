@@ -0,0 +1,40 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.GradingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/* Repository interface for accessing and managing GradingJob entities in the database.
+
+ * This interface extends JpaRepository to provide CRUD operations and additional query capabilities for the
+   GradingJob entity. Claiming and completing jobs is done in batches by GradingJobJdbcRepository.
+
+ * Methods:
+   - findByStudentExamId(Long studentExamId): Retrieves the grading job of a student exam.
+   - releaseStale(LocalDateTime claimedBefore, int maxAttempts): Puts RUNNING jobs claimed before the given time back
+     to PENDING, so the jobs of a worker which died are picked up by another one. A timed out claim counts as a
+     failed attempt, and a job is marked FAILED once it failed maxAttempts times.
+
+ * By extending JpaRepository, this interface also inherits various generic methods for data access and
+   manipulation, such as save, findById, findAll, delete, etc. */
+@Repository
+public interface GradingJobRepository extends JpaRepository<GradingJob, Long> {
+
+    @Query("SELECT j FROM GradingJob j WHERE j.studentExam.id = :studentExamId")
+    Optional<GradingJob> findByStudentExamId(@Param("studentExamId") Long studentExamId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GradingJob j SET j.status = CASE WHEN j.attempts + 1 >= :maxAttempts " +
+            "THEN com.example.backend.Entity.GradingJob.Status.FAILED ELSE com.example.backend.Entity.GradingJob.Status.PENDING END, " +
+            "j.attempts = j.attempts + 1, j.error = 'Claim timed out', j.claimedBy = null, j.claimedAt = null " +
+            "WHERE j.status = com.example.backend.Entity.GradingJob.Status.RUNNING AND j.claimedAt < :claimedBefore")
+    int releaseStale(@Param("claimedBefore") LocalDateTime claimedBefore, @Param("maxAttempts") int maxAttempts);
+}
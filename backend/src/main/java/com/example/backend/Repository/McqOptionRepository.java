@@ -2,16 +2,28 @@ package com.example.backend.Repository;
 
 import com.example.backend.Entity.McqOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /* Repository interface for accessing and managing McqOption entities in the database.
 
  * This interface extends JpaRepository to provide CRUD operations and additional query capabilities for the
    McqOption entity. It allows seamless interaction with the underlying database, enabling operations such
    as saving, finding, updating, and deleting MCQ option.
 
+ * Methods:
+   - findCorrectOptionsByExamId(Long examId): Retrieves the correct option of each MCQ question of an exam in one query,
+     as rows of [question id, option id, option text].
+
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
 @Repository
 public interface McqOptionRepository extends JpaRepository<McqOption, Long> {
+
+    @Query("SELECT o.mcqQuestion.id, o.id, o.optionText FROM McqOption o WHERE o.isCorrect = true AND o.mcqQuestion.id IN " +
+            "(SELECT eq.mcqQuestion.id FROM ExamQuestion eq WHERE eq.exam.id = :examId)")
+    List<Object[]> findCorrectOptionsByExamId(@Param("examId") Long examId);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.McqQuestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /* Repository interface for accessing and managing McqQuestion entities in the database.
@@ -15,6 +19,11 @@ import java.util.List;
  * Methods:
    - findByCategoryAndDifficultyLevel(String category, String difficultyLevel): Retrieves a list of McqQuestion
      entities based on the specified category and difficulty level.
+   - findExistingIds(Collection<Long> ids): Retrieves which of the given ids belong to an existing McqQuestion, in one IN query.
+   - findIdsAfter(long after, Limit limit): Retrieves the ids of one page of McqQuestion entities, the ones following the id
+     `after` in id order, with a seek on the primary key.
+   - findWithOptionsByIdIn(Collection<Long> ids): Retrieves the McqQuestion entities of a page ordered by id, with their options
+     fetched in the same statement.
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access
    and manipulation, such as save, findById, findAll, delete, etc. */
@@ -22,4 +31,13 @@ import java.util.List;
 public interface McqQuestionRepository extends JpaRepository<McqQuestion, Long> {
 
     List<McqQuestion> findByCategoryAndDifficultyLevel(String category, String difficultyLevel);
+
+    @Query("SELECT m.id FROM McqQuestion m WHERE m.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT m.id FROM McqQuestion m WHERE m.id > :after ORDER BY m.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT m FROM McqQuestion m LEFT JOIN FETCH m.options WHERE m.id IN :ids ORDER BY m.id")
+    List<McqQuestion> findWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
 }
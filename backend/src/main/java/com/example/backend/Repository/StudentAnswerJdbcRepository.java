@@ -0,0 +1,68 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.StudentAnswer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/* Repository class for writing StudentAnswer rows with plain JDBC.
+
+ * StudentAnswer ids are generated by an identity column, so Hibernate can not batch their inserts. This class
+   writes a whole set of answers with a single MERGE statement executed as one JDBC batch: rows with an id are
+   updated and rows without an id are inserted, which costs one round-trip whatever the number of answers.
+
+ * Methods:
+   - upsertAll(long studentExamId, List<StudentAnswer> answers): Inserts or updates the given answers of a student exam.
+     The question of each answer only needs its id, so a reference from getReferenceById is enough. */
+@Repository
+public class StudentAnswerJdbcRepository {
+
+    private static final String UPSERT_SQL =
+            "MERGE INTO student_answers AS target " +
+            "USING (VALUES (?, ?, ?, ?, ?, ?, ?)) " +
+            "AS source (id, student_exam_id, mcq_question_id, coding_question_id, answer, language, is_correct) " +
+            "ON target.id = source.id " +
+            "WHEN MATCHED THEN UPDATE SET answer = source.answer, language = source.language, is_correct = source.is_correct " +
+            "WHEN NOT MATCHED THEN INSERT (student_exam_id, mcq_question_id, coding_question_id, answer, language, is_correct) " +
+            "VALUES (source.student_exam_id, source.mcq_question_id, source.coding_question_id, source.answer, source.language, source.is_correct);";
+
+    // Injects JdbcTemplate, it joins the transaction opened by the JPA transaction manager
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* Inserts or updates the given answers of a student exam in one JDBC batch.
+
+       @param studentExamId - The ID of the student exam the answers belong to.
+       @param answers - The answers to write, answers without an id are inserted. */
+    public void upsertAll(long studentExamId, List<StudentAnswer> answers) {
+
+        if (answers.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StudentAnswer answer = answers.get(i);
+                ps.setObject(1, answer.getId(), Types.BIGINT);
+                ps.setLong(2, studentExamId);
+                ps.setObject(3, answer.getMcqQuestion() != null ? answer.getMcqQuestion().getId() : null, Types.BIGINT);
+                ps.setObject(4, answer.getCodingQuestion() != null ? answer.getCodingQuestion().getId() : null, Types.BIGINT);
+                ps.setString(5, answer.getAnswer());
+                ps.setString(6, answer.getLanguage());
+                ps.setBoolean(7, answer.isCorrect());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return answers.size();
+            }
+        });
+    }
+}
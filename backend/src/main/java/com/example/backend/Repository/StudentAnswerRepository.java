@@ -3,8 +3,12 @@ package com.example.backend.Repository;
 import com.example.backend.Entity.StudentAnswer;
 import com.example.backend.Entity.StudentExam;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /* Repository interface for accessing and managing StudentAnswer entities in the database.
@@ -18,6 +22,19 @@ import java.util.Optional;
      the specified studentExam and mcqQuestionId.
    - findByStudentExamAndCodingQuestionId(StudentExam studentExam, Long codingQuestionId): Retrieves a StudentAnswer entity based on
      the specified studentExam and codingQuestionId.
+   - findAnswerKeys(Long studentExamId, Collection<Long> mcqQuestionIds, Collection<Long> codingQuestionIds): Retrieves in one query
+     the existing answers of a student exam for the given questions as rows of [answer id, mcq question id, coding question id, isCorrect].
+     The id collections must not be empty.
+   - findCorrectAnswerKeys(Collection<Long> studentExamIds): Retrieves the correct answers of the given student exams in one query
+     as rows of [student exam id, mcq question id, coding question id].
+   - findCorrectAnswerKeysByExamId(Long examId): Retrieves the correct answers of all student exams of an exam
+     as rows of [student exam id, mcq question id, coding question id].
+   - findMcqAnswers(Long studentExamId, Collection<Long> mcqQuestionIds): Retrieves the saved answers of a student exam for the
+     given MCQ questions only, as rows of [mcq question id, answer]. The id collection must not be empty.
+   - findCodingAnswers(Long studentExamId, Collection<Long> codingQuestionIds): Retrieves the saved answers of a student exam for
+     the given coding questions only, as rows of [coding question id, answer, language]. The id collection must not be empty.
+   - findAnswersByStudentExamId(Long studentExamId): Retrieves all saved answers of a student exam as rows of
+     [mcq question id, coding question id, answer, language], without loading the answer entities.
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
@@ -25,4 +42,32 @@ import java.util.Optional;
 public interface StudentAnswerRepository extends JpaRepository<StudentAnswer, Long> {
     Optional<StudentAnswer> findByStudentExamAndMcqQuestionId(StudentExam studentExam, Long mcqQuestionId);
     Optional<StudentAnswer> findByStudentExamAndCodingQuestionId(StudentExam studentExam, Long codingQuestionId);
+
+    @Query("SELECT sa.id, m.id, c.id, sa.isCorrect FROM StudentAnswer sa LEFT JOIN sa.mcqQuestion m LEFT JOIN sa.codingQuestion c " +
+            "WHERE sa.studentExam.id = :studentExamId AND (m.id IN :mcqQuestionIds OR c.id IN :codingQuestionIds)")
+    List<Object[]> findAnswerKeys(@Param("studentExamId") Long studentExamId,
+                                  @Param("mcqQuestionIds") Collection<Long> mcqQuestionIds,
+                                  @Param("codingQuestionIds") Collection<Long> codingQuestionIds);
+
+    @Query("SELECT sa.studentExam.id, m.id, c.id FROM StudentAnswer sa LEFT JOIN sa.mcqQuestion m LEFT JOIN sa.codingQuestion c " +
+            "WHERE sa.studentExam.id IN :studentExamIds AND sa.isCorrect = true")
+    List<Object[]> findCorrectAnswerKeys(@Param("studentExamIds") Collection<Long> studentExamIds);
+
+    @Query("SELECT sa.studentExam.id, m.id, c.id FROM StudentAnswer sa LEFT JOIN sa.mcqQuestion m LEFT JOIN sa.codingQuestion c " +
+            "WHERE sa.studentExam.exam.id = :examId AND sa.isCorrect = true")
+    List<Object[]> findCorrectAnswerKeysByExamId(@Param("examId") Long examId);
+
+    @Query("SELECT sa.mcqQuestion.id, sa.answer FROM StudentAnswer sa " +
+            "WHERE sa.studentExam.id = :studentExamId AND sa.mcqQuestion.id IN :mcqQuestionIds")
+    List<Object[]> findMcqAnswers(@Param("studentExamId") Long studentExamId,
+                                  @Param("mcqQuestionIds") Collection<Long> mcqQuestionIds);
+
+    @Query("SELECT sa.codingQuestion.id, sa.answer, sa.language FROM StudentAnswer sa " +
+            "WHERE sa.studentExam.id = :studentExamId AND sa.codingQuestion.id IN :codingQuestionIds")
+    List<Object[]> findCodingAnswers(@Param("studentExamId") Long studentExamId,
+                                     @Param("codingQuestionIds") Collection<Long> codingQuestionIds);
+
+    @Query("SELECT m.id, c.id, sa.answer, sa.language FROM StudentAnswer sa LEFT JOIN sa.mcqQuestion m LEFT JOIN sa.codingQuestion c " +
+            "WHERE sa.studentExam.id = :studentExamId")
+    List<Object[]> findAnswersByStudentExamId(@Param("studentExamId") Long studentExamId);
 }
@@ -1,11 +1,17 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.StudentExam;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /* Repository interface for accessing and managing StudentExam entities in the database.
@@ -17,6 +23,23 @@ import java.util.Optional;
  * Methods:
    - findByStudentEmailAndExamId(String email, Long examId): Retrieves a StudentExam entity based on
      the specified examId and email level.
+   - existsByIdAndStudentEmail(Long id, String email): Checks whether a StudentExam belongs to the student with the given email.
+   - updateEndTime(Long id, LocalDateTime endTime): Sets the end time of a StudentExam without loading it and returns the updated row count.
+   - updateEndTimeIfNotCompleted(Long id, LocalDateTime endTime): Sets the end time of a StudentExam only if it is not submitted yet
+     and returns the updated row count. The row lock it takes orders the caller's transaction against markSubmitted.
+   - addScore(Long id, int delta): Atomically adds delta to the running score of a StudentExam.
+   - findScoresByExamId(Long examId): Retrieves the running score of every StudentExam of an exam as rows of [student exam id, score].
+   - updateScoreIfUnchanged(Long id, int expectedScore, int score): Sets the score only if it still equals expectedScore.
+   - markSubmitted(Long id, LocalDateTime endTime): Marks a StudentExam completed if it is not completed yet and returns the updated row count.
+   - findGradingRows(Collection<Long> ids): Retrieves what is needed to write the results of the given student exams as rows of
+     [student exam id, user id, exam id, score, passing marks].
+   - countUnfinishedByExamId(Long examId): Counts the student exams of an exam which are not completed.
+   - findUnfinishedAttempts(Long examId, Long afterId, Pageable pageable): Retrieves the next page of not completed student exams
+     of an exam after the given id, ordered by id, as rows of [student exam id, user id]. Only the page size of pageable is used.
+   - findSessionRows(String email, Long examId): Retrieves the student, the exam and the attempt of the student in one query as
+     at most one row of [user id, user branch, user semester, exam id, exam name, status, enable, schedule date, exam branch,
+     exam semester, duration, student exam id, start time, end time, completed]. The attempt columns are null before the
+     exam is started, and there is no row if the user or the exam does not exist.
 
  * By extending JpaRepository, this interface also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
@@ -25,4 +48,50 @@ public interface StudentExamRepository extends JpaRepository<StudentExam, Long>
 
     @Query("SELECT se FROM StudentExam se WHERE se.student.email = :email AND se.exam.id = :examId")
     Optional<StudentExam> findByStudentEmailAndExamId(@Param("email") String email, @Param("examId") Long examId);
+
+    boolean existsByIdAndStudentEmail(Long id, String email);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StudentExam se SET se.endTime = :endTime WHERE se.id = :id")
+    int updateEndTime(@Param("id") Long id, @Param("endTime") LocalDateTime endTime);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StudentExam se SET se.endTime = :endTime WHERE se.id = :id AND se.isCompleted = false")
+    int updateEndTimeIfNotCompleted(@Param("id") Long id, @Param("endTime") LocalDateTime endTime);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StudentExam se SET se.score = se.score + :delta WHERE se.id = :id")
+    int addScore(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT se.id, se.score FROM StudentExam se WHERE se.exam.id = :examId")
+    List<Object[]> findScoresByExamId(@Param("examId") Long examId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StudentExam se SET se.score = :score WHERE se.id = :id AND se.score = :expectedScore")
+    int updateScoreIfUnchanged(@Param("id") Long id, @Param("expectedScore") int expectedScore, @Param("score") int score);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StudentExam se SET se.isCompleted = true, se.endTime = :endTime WHERE se.id = :id AND se.isCompleted = false")
+    int markSubmitted(@Param("id") Long id, @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT se.id, se.student.userId, se.exam.id, se.score, se.exam.passingMarks FROM StudentExam se WHERE se.id IN :ids")
+    List<Object[]> findGradingRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(se) FROM StudentExam se WHERE se.exam.id = :examId AND se.isCompleted = false")
+    long countUnfinishedByExamId(@Param("examId") Long examId);
+
+    @Query("SELECT se.id, se.student.userId FROM StudentExam se " +
+            "WHERE se.exam.id = :examId AND se.isCompleted = false AND se.id > :afterId ORDER BY se.id")
+    List<Object[]> findUnfinishedAttempts(@Param("examId") Long examId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.userId, u.branch, u.semester, e.id, e.examName, e.status, e.enable, e.scheduleDate, e.branch, e.semester, " +
+            "e.duration, se.id, se.startTime, se.endTime, se.isCompleted " +
+            "FROM User u JOIN Exam e ON e.id = :examId LEFT JOIN StudentExam se ON se.student = u AND se.exam = e " +
+            "WHERE u.email = :email")
+    List<Object[]> findSessionRows(@Param("email") String email, @Param("examId") Long examId);
 }
@@ -1,10 +1,13 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-
+import java.util.List;
 
 /* Repository interface for accessing and managing User entities in the database.
 
@@ -14,10 +17,15 @@ import org.springframework.stereotype.Repository;
 
  * Methods:
  - findByEmail(String email): Retrieves an Optional<User> based on the unique email.
+ - findAfter(long after, Limit limit): Retrieves one page of users, the ones following the id `after` in id order, with a
+   seek on the primary key and their university fetched in the same statement.
 
  * By extending JpaRepository, it also inherits various generic methods for data access and
    manipulation, such as save, findById, findAll, delete, etc. */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.university WHERE u.userId > :after ORDER BY u.userId")
+    List<User> findAfter(@Param("after") long after, Limit limit);
 }
@@ -0,0 +1,336 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.StudentAnswerDTO;
+import com.example.backend.Entity.StudentAnswer;
+import com.example.backend.Repository.*;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/* The AutoSaveBuffer class is an in-memory write-behind buffer for the answers sent by the auto-save endpoint.
+   Auto-saves are staged in memory per StudentExam id, repeated edits of the same question are coalesced so only
+   the latest answer is kept, and the buffered answers are written to the database in batched transactions on a
+   configurable interval.
+
+ * Flushing:
+   - The scheduled flush writes up to autosave.flush-batch-size attempts in one transaction every autosave.flush-interval-ms.
+   - flush(studentExamId) forces the pending answers of one attempt to the database, it is called before an exam or code is submitted.
+   - All pending answers are flushed when the application shuts down gracefully.
+   - An attempt whose write fails stays pending and is retried by the next scheduled flush, it is only dropped
+     after autosave.max-flush-failures failed flushes in a row.
+   - The answers of an attempt which was submitted before they were written are discarded, so the answers and the
+     running score read by the GradingWorker do not change after submit. */
+@Service
+public class AutoSaveBuffer {
+
+    // Injects an instance of StudentExamRepository for database operations
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    // Injects an instance of StudentAnswerRepository for database operations
+    @Autowired
+    private StudentAnswerRepository studentAnswerRepository;
+
+    // Injects an instance of McqQuestionRepository for database operations
+    @Autowired
+    private McqQuestionRepository mcqQuestionRepository;
+
+    // Injects an instance of CodingQuestionRepository for database operations
+    @Autowired
+    private CodingQuestionRepository codingQuestionRepository;
+
+    // Injects an instance of McqAnswerKeyCache to grade MCQ answers without loading their options
+    @Autowired
+    private McqAnswerKeyCache mcqAnswerKeyCache;
+
+    // Injects an instance of ScoreService to keep the running score in step with the answers
+    @Autowired
+    private ScoreService scoreService;
+
+    // Injects an instance of StudentAnswerJdbcRepository to write answers in one JDBC batch
+    @Autowired
+    private StudentAnswerJdbcRepository studentAnswerJdbcRepository;
+
+    // Injects the transaction manager used to write each flush batch in one transaction
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Reads the maximum number of attempts written in one flush transaction
+    @Value("${autosave.flush-batch-size:50}")
+    private int flushBatchSize;
+
+    // Reads the number of failed flushes in a row after which the answers of an attempt are dropped
+    @Value("${autosave.max-flush-failures:10}")
+    private int maxFlushFailures;
+
+    // Pending answers of every attempt which are not written to the database yet, keyed by StudentExam id
+    private final Map<Long, PendingAttempt> pending = new ConcurrentHashMap<>();
+
+    /* Stages answers of an attempt in memory. Answers of a question which is already staged replace the older answer.
+
+       @param studentExamId - The ID of the student exam.
+       @param examId - The ID of the exam the student exam belongs to.
+       @param answers - The answers sent by the auto-save request. */
+    public void stage(long studentExamId, long examId, List<StudentAnswerDTO> answers) {
+
+        while (true) {
+            PendingAttempt attempt = pending.computeIfAbsent(studentExamId, id -> new PendingAttempt());
+            attempt.lock.lock();
+            try {
+                // the attempt was flushed and removed after we got it, so stage into a new one
+                if (attempt.retired) {
+                    continue;
+                }
+
+                for (StudentAnswerDTO answerDTO : answers) {
+                    attempt.answers.put(answerDTO.getQuestionType().toLowerCase() + ":" + answerDTO.getQuestionId(), answerDTO);
+                }
+                attempt.examId = examId;
+                attempt.lastSavedAt = LocalDateTime.now();
+                return;
+            } finally {
+                attempt.lock.unlock();
+            }
+        }
+    }
+
+    /* Writes the pending answers of one attempt to the database. Used before grading so that no staged answer is lost.
+
+       @param studentExamId - The ID of the student exam to flush. */
+    public void flush(long studentExamId) {
+
+        PendingAttempt attempt = pending.get(studentExamId);
+        if (attempt == null) {
+            return;
+        }
+
+        attempt.lock.lock();
+        try {
+            if (attempt.retired) {
+                return;
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> writeAttempt(studentExamId, attempt));
+            retire(studentExamId, attempt);
+        } finally {
+            attempt.lock.unlock();
+        }
+    }
+
+    /* Writes the pending answers of all attempts to the database, batching several attempts in one transaction.
+       If a batch fails, its attempts are written one by one so a single bad attempt does not block the others. */
+    @Scheduled(fixedDelayString = "${autosave.flush-interval-ms:2000}")
+    public synchronized void flushAll() {
+
+        List<Long> ids = new ArrayList<>(pending.keySet());
+
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            Map<Long, PendingAttempt> batch = new LinkedHashMap<>();
+
+            try {
+                for (Long id : ids.subList(from, Math.min(from + flushBatchSize, ids.size()))) {
+                    PendingAttempt attempt = pending.get(id);
+                    if (attempt == null) {
+                        continue;
+                    }
+                    attempt.lock.lock();
+                    if (attempt.retired) {
+                        attempt.lock.unlock();
+                        continue;
+                    }
+                    batch.put(id, attempt);
+                }
+
+                try {
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                            batch.forEach(this::writeAttempt));
+                    batch.forEach(this::retire);
+                } catch (RuntimeException e) {
+                    System.err.println("Auto-save batch flush failed, retrying attempts one by one " + e.getMessage());
+                    batch.forEach(this::flushSingle);
+                }
+            } finally {
+                batch.values().forEach(attempt -> attempt.lock.unlock());
+            }
+        }
+    }
+
+    /* Flushes every pending answer before the application context is closed. */
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    /* Writes one attempt in its own transaction. An attempt which can not be written stays pending so the next
+       scheduled flush retries it, its answers are dropped once it failed autosave.max-flush-failures times in a row.
+
+       @param studentExamId - The ID of the student exam.
+       @param attempt - The locked pending attempt. */
+    private void flushSingle(Long studentExamId, PendingAttempt attempt) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> writeAttempt(studentExamId, attempt));
+        } catch (RuntimeException e) {
+            attempt.failures++;
+            if (attempt.failures < maxFlushFailures) {
+                System.err.println("Auto-save flush failed for student exam " + studentExamId + ", retrying on next flush " + e.getMessage());
+                return;
+            }
+            System.err.println("Auto-save flush failed " + attempt.failures + " times for student exam " + studentExamId + ", dropping its answers " + e.getMessage());
+        }
+        retire(studentExamId, attempt);
+    }
+
+    /* Marks a flushed attempt as retired and removes it from the buffer. Must be called while holding the attempt lock.
+
+       @param studentExamId - The ID of the student exam.
+       @param attempt - The flushed attempt. */
+    private void retire(Long studentExamId, PendingAttempt attempt) {
+        attempt.answers.clear();
+        attempt.retired = true;
+        pending.remove(studentExamId, attempt);
+    }
+
+    /* Writes the staged answers of an attempt and updates the end time of the student exam. The number of
+       database round-trips is constant: existing answers and missing question references are each resolved
+       with one query, MCQ answers are graded with the cached answer key and all answers are written in one JDBC batch.
+       The running score is updated in the same transaction for the answers whose correctness changed.
+       The end time is updated first and only while the attempt is not submitted, so the write either commits
+       before markSubmitted or finds the attempt submitted and discards its answers.
+
+       @param studentExamId - The ID of the student exam.
+       @param attempt - The locked pending attempt.
+       @throws EntityNotFoundException - If the StudentExam or a question is not found. */
+    private void writeAttempt(Long studentExamId, PendingAttempt attempt) {
+
+        if (attempt.answers.isEmpty()) {
+            return;
+        }
+
+        if (studentExamRepository.updateEndTimeIfNotCompleted(studentExamId, attempt.lastSavedAt) == 0) {
+            if (!studentExamRepository.existsById(studentExamId)) {
+                throw new EntityNotFoundException("StudentExam not found");
+            }
+            System.err.println("Discarded " + attempt.answers.size() + " auto-saved answers of submitted student exam " + studentExamId);
+            return;
+        }
+
+        Map<Long, StudentAnswerDTO> mcqAnswers = new HashMap<>();
+        Map<Long, StudentAnswerDTO> codingAnswers = new HashMap<>();
+        for (StudentAnswerDTO answerDTO : attempt.answers.values()) {
+            if (answerDTO.getQuestionType().equalsIgnoreCase("mcq")) {
+                mcqAnswers.put(answerDTO.getQuestionId(), answerDTO);
+            } else {
+                codingAnswers.put(answerDTO.getQuestionId(), answerDTO);
+            }
+        }
+
+        Map<Long, Object[]> existingMcq = new HashMap<>();
+        Map<Long, Object[]> existingCoding = new HashMap<>();
+        for (Object[] row : studentAnswerRepository.findAnswerKeys(studentExamId, idsOrNone(mcqAnswers.keySet()), idsOrNone(codingAnswers.keySet()))) {
+            if (row[1] != null) {
+                existingMcq.put((Long) row[1], row);
+            } else {
+                existingCoding.put((Long) row[2], row);
+            }
+        }
+
+        requireQuestions(mcqAnswers.keySet(), existingMcq.keySet(), mcqQuestionRepository::findExistingIds, "MCQ Question not found");
+        requireQuestions(codingAnswers.keySet(), existingCoding.keySet(), codingQuestionRepository::findExistingIds, "Coding Question not found");
+
+        McqAnswerKey answerKey = mcqAnswers.isEmpty() ? null : mcqAnswerKeyCache.get(attempt.examId);
+
+        List<StudentAnswer> answers = new ArrayList<>(attempt.answers.size());
+        Map<Long, Boolean> mcqChanges = new HashMap<>();
+
+        for (StudentAnswerDTO answerDTO : mcqAnswers.values()) {
+            Object[] existing = existingMcq.get(answerDTO.getQuestionId());
+            StudentAnswer studentAnswer = toStudentAnswer(existing, answerDTO);
+            studentAnswer.setMcqQuestion(mcqQuestionRepository.getReferenceById(answerDTO.getQuestionId()));
+            studentAnswer.setCorrect(answerKey.isCorrect(answerDTO.getQuestionId(), answerDTO.getAnswer()));
+            answers.add(studentAnswer);
+
+            boolean wasCorrect = existing != null && (Boolean) existing[3];
+            if (wasCorrect != studentAnswer.isCorrect()) {
+                mcqChanges.put(answerDTO.getQuestionId(), studentAnswer.isCorrect());
+            }
+        }
+
+        for (StudentAnswerDTO answerDTO : codingAnswers.values()) {
+            Object[] existing = existingCoding.get(answerDTO.getQuestionId());
+            StudentAnswer studentAnswer = toStudentAnswer(existing, answerDTO);
+            studentAnswer.setCodingQuestion(codingQuestionRepository.getReferenceById(answerDTO.getQuestionId()));
+
+            // coding answers are only graded by submitCode, so an auto-save keeps the existing verdict
+            studentAnswer.setCorrect(existing != null && (Boolean) existing[3]);
+            answers.add(studentAnswer);
+        }
+
+        studentAnswerJdbcRepository.upsertAll(studentExamId, answers);
+        scoreService.applyCorrectnessChanges(studentExamId, attempt.examId, mcqChanges, Map.of());
+    }
+
+    /* Builds the StudentAnswer row to write for an answer DTO, reusing the id of the existing answer if there is one.
+
+       @param existing - The existing answer row or null.
+       @param answerDTO - The DTO containing answer data.
+       @return A detached StudentAnswer carrying the values to write. */
+    private StudentAnswer toStudentAnswer(Object[] existing, StudentAnswerDTO answerDTO) {
+        StudentAnswer studentAnswer = new StudentAnswer();
+        if (existing != null) {
+            studentAnswer.setId((Long) existing[0]);
+        }
+        studentAnswer.setAnswer(answerDTO.getAnswer());
+        studentAnswer.setLanguage(answerDTO.getLanguage());
+        return studentAnswer;
+    }
+
+    /* Checks with one IN query that the questions of the answers which are not saved yet exist.
+
+       @param questionIds - The question ids of the staged answers.
+       @param answeredIds - The question ids which already have a saved answer.
+       @param findExistingIds - The repository query returning the existing ids.
+       @param message - The message of the exception.
+       @throws EntityNotFoundException - If a question is not found. */
+    private void requireQuestions(Set<Long> questionIds, Set<Long> answeredIds, Function<Collection<Long>, List<Long>> findExistingIds, String message) {
+
+        Set<Long> missing = new HashSet<>(questionIds);
+        missing.removeAll(answeredIds);
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        if (findExistingIds.apply(missing).size() != missing.size()) {
+            throw new EntityNotFoundException(message);
+        }
+    }
+
+    /* Returns the ids or a list which matches no row, because an empty IN list is not valid SQL.
+
+       @param ids - The ids to query.
+       @return The ids or a list with a single id which never exists. */
+    private Collection<Long> idsOrNone(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of(-1L) : ids;
+    }
+
+    /* Pending answers of one attempt. The lock guards every field, retired is set once the attempt is
+       flushed and removed from the buffer so late stagers create a new entry instead, failures counts the
+       failed flushes in a row. */
+    private static class PendingAttempt {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, StudentAnswerDTO> answers = new LinkedHashMap<>();
+        private long examId;
+        private LocalDateTime lastSavedAt;
+        private boolean retired;
+        private int failures;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/* The CodeExecutor interface runs student code for the run-code and submit-code endpoints.
+
+ * Implementations:
+   - Judge0CodeExecutor: Sends the code to the Judge0 API, used when code-executor.type is judge0 or not set.
+   - LocalCodeExecutor: Runs the code in a local process with resource limits, used when code-executor.type is local.
+
+ * Every run has a blocking and a non-blocking form. The non-blocking forms are used by the run-code and
+   submit-code endpoints, so no request thread waits while code compiles and runs. A batch can also be streamed,
+   which reports each run as soon as it finishes and stops the remaining runs when the subscriber cancels.
+
+ * The result of a run has the shape of a Judge0 submission, so callers and the frontend read stdout, stderr,
+   compile_output and status the same way whichever implementation is active. */
+public interface CodeExecutor {
+
+    /* Checks whether the executor can run a language.
+
+       @param language - The language name sent by the client (cpp, java, javascript, python, c).
+       @return true if the language is supported. */
+    boolean supports(String language);
+
+    /* Runs source code with the given input and waits for the result.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, it must be supported.
+       @param stdin - The input for the program.
+       @return The result with the Judge0 fields stdout, stderr, compile_output, status, time and memory.
+       @throws RuntimeException - If the code could not be executed. */
+    Map<String, Object> execute(String sourceCode, String language, String stdin);
+
+    /* Runs source code once for each input and waits for all results. Implementations override this to send
+       all inputs in one request or to compile only once, the default runs the inputs one after the other.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, it must be supported.
+       @param stdins - The inputs, one run per input.
+       @return The result of each run, in the order of the inputs.
+       @throws RuntimeException - If the code could not be executed. */
+    default List<Map<String, Object>> executeBatch(String sourceCode, String language, List<String> stdins) {
+        List<Map<String, Object>> results = new ArrayList<>(stdins.size());
+        for (String stdin : stdins) {
+            results.add(execute(sourceCode, language, stdin));
+        }
+        return results;
+    }
+
+    /* Runs source code without blocking the caller. The default runs execute on the bounded elastic scheduler,
+       implementations override this to avoid holding a thread while the code runs.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, it must be supported.
+       @param stdin - The input for the program.
+       @return A Mono with the result of the run. */
+    default Mono<Map<String, Object>> executeAsync(String sourceCode, String language, String stdin) {
+        return Mono.fromCallable(() -> execute(sourceCode, language, stdin)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /* Runs source code once for each input without blocking the caller.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, it must be supported.
+       @param stdins - The inputs, one run per input.
+       @return A Mono with the result of each run, in the order of the inputs. */
+    default Mono<List<Map<String, Object>>> executeBatchAsync(String sourceCode, String language, List<String> stdins) {
+        return Mono.fromCallable(() -> executeBatch(sourceCode, language, stdins)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /* Runs source code once for each input and emits the result of each run as soon as it and every run before
+       it finished. Cancelling the Flux stops the runs which did not start where the implementation can. The default
+       waits for the whole batch, implementations override this to report the runs one by one.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, it must be supported.
+       @param stdins - The inputs, one run per input.
+       @return A Flux with the result of each run, in the order of the inputs. */
+    default Flux<Map<String, Object>> executeStream(String sourceCode, String language, List<String> stdins) {
+        return executeBatchAsync(sourceCode, language, stdins).flatMapIterable(results -> results);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.GradedAttempt;
+import com.example.backend.Dto.GradingProgress;
+import com.example.backend.Entity.Exam;
+import com.example.backend.Repository.*;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/* The ExamGradingService class grades every student exam of an exam which was not submitted by the student,
+   so that each student gets an ExamResult when the exam is completed.
+
+ * Working:
+   - The not completed student exams are read in pages ordered by id, together with their correct answers.
+   - The marks of a page are computed in parallel on a bounded fork-join pool.
+   - Each page is written in one transaction: the student exams are marked completed with one JDBC batch and
+     the ExamResult rows of the ones which were still open are inserted with a second JDBC batch.
+   - The progress and throughput of each job can be read by admins while it runs, and for
+     grading.progress-retention-ms after it finished. */
+@Service
+public class ExamGradingService {
+
+    // Injects an instance of ExamRepository for database operations
+    @Autowired
+    private ExamRepository examRepository;
+
+    // Injects an instance of StudentExamRepository for database operations
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    // Injects an instance of StudentAnswerRepository for database operations
+    @Autowired
+    private StudentAnswerRepository studentAnswerRepository;
+
+    // Injects an instance of ScoringPlanCache to look up the marks of each question
+    @Autowired
+    private ScoringPlanCache scoringPlanCache;
+
+    // Injects an instance of ExamResultJdbcRepository to write results in JDBC batches
+    @Autowired
+    private ExamResultJdbcRepository examResultJdbcRepository;
+
+    // Injects an instance of AutoSaveBuffer to write staged answers before grading
+    @Autowired
+    private AutoSaveBuffer autoSaveBuffer;
+
+    // Injects an instance of McqAnswerKeyCache to drop the key rebuilt by the last flush
+    @Autowired
+    private McqAnswerKeyCache mcqAnswerKeyCache;
+
+    // Injects the transaction manager used to write each page in one transaction
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Reads the number of student exams graded per page
+    @Value("${grading.page-size:500}")
+    private int pageSize;
+
+    // Reads how long the progress of a finished job is kept
+    @Value("${grading.progress-retention-ms:86400000}")
+    private long progressRetentionMs;
+
+    // Progress of the grading jobs, keyed by exam id
+    private final Map<Long, GradingProgress> jobs = new ConcurrentHashMap<>();
+
+    // Runs the grading jobs, one thread per exam being graded
+    private final ExecutorService jobExecutor;
+
+    // Computes the marks of a page in parallel
+    private final ForkJoinPool gradingPool;
+
+    // Create constructor with the configured number of concurrent jobs and grading threads
+    public ExamGradingService(@Value("${grading.max-concurrent-exams:2}") int maxConcurrentExams,
+                              @Value("${grading.parallelism:4}") int parallelism) {
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentExams);
+        this.gradingPool = new ForkJoinPool(parallelism);
+    }
+
+    /* Starts grading all not completed student exams of an exam in the background. If the exam is already being
+       graded the running job is returned.
+
+       @param examId - The ID of the exam to grade.
+       @return The progress of the grading job.
+       @throws EntityNotFoundException - If the exam is not found. */
+    public GradingProgress gradeExam(long examId) {
+
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new EntityNotFoundException("Exam not found"));
+        int passingMarks = exam.getPassingMarks();
+        pruneFinished();
+
+        GradingProgress[] started = new GradingProgress[1];
+        GradingProgress progress = jobs.compute(examId, (id, running) -> {
+            if (running != null && running.getStatus() == GradingProgress.Status.RUNNING) {
+                return running;
+            }
+            started[0] = new GradingProgress(id);
+            return started[0];
+        });
+
+        if (started[0] != null) {
+            jobExecutor.execute(() -> run(examId, passingMarks, progress));
+        }
+
+        return progress;
+    }
+
+    /* Returns the progress of the last grading job of an exam.
+
+       @param examId - The ID of the exam.
+       @return The progress or null if the exam was never graded or its job finished before the retention period. */
+    public GradingProgress getProgress(long examId) {
+        pruneFinished();
+        return jobs.get(examId);
+    }
+
+    /* Drops the progress of the jobs which finished more than grading.progress-retention-ms ago, so the map only
+       holds the running jobs and the recent ones. */
+    private void pruneFinished() {
+        LocalDateTime finishedBefore = LocalDateTime.now().minus(Duration.ofMillis(progressRetentionMs));
+        jobs.values().removeIf(progress -> progress.getStatus() != GradingProgress.Status.RUNNING
+                && progress.getFinishedAt() != null && progress.getFinishedAt().isBefore(finishedBefore));
+    }
+
+    /* Stops the grading threads when the application shuts down. */
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        gradingPool.shutdownNow();
+    }
+
+    /* Grades the exam page by page and records the progress, then drops the scoring plan of the exam.
+
+       @param examId - The ID of the exam.
+       @param passingMarks - The passing marks of the exam.
+       @param progress - The progress of this job. */
+    private void run(long examId, int passingMarks, GradingProgress progress) {
+        try {
+            autoSaveBuffer.flushAll();
+            mcqAnswerKeyCache.evict(examId);
+
+            progress.setTotal(Math.max(1, studentExamRepository.countUnfinishedByExamId(examId)));
+            ScoringPlan plan = scoringPlanCache.get(examId);
+
+            long afterId = 0;
+            while (true) {
+                List<Object[]> page = studentExamRepository.findUnfinishedAttempts(examId, afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterId = (Long) page.get(page.size() - 1)[0];
+
+                Map<Long, List<Object[]>> answers = studentAnswerRepository.findCorrectAnswerKeys(
+                                page.stream().map(row -> (Long) row[0]).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.groupingBy(row -> (Long) row[0]));
+
+                List<GradedAttempt> graded = gradingPool.submit(() -> page.parallelStream()
+                        .map(row -> {
+                            int marks = 0;
+                            for (Object[] answer : answers.getOrDefault((Long) row[0], List.of())) {
+                                marks += plan.marks((Long) answer[1], (Long) answer[2]);
+                            }
+                            return new GradedAttempt((Long) row[0], (Long) row[1], marks, marks >= passingMarks);
+                        })
+                        .collect(Collectors.toList())).get();
+
+                writePage(examId, graded, progress);
+            }
+
+            progress.complete();
+        } catch (Exception e) {
+            System.err.println("Grading of exam " + examId + " failed " + e.getMessage());
+            progress.fail(e.getMessage());
+        } finally {
+            // the exam is completed, so its plan is not needed once its attempts are graded
+            scoringPlanCache.evict(examId);
+        }
+    }
+
+    /* Writes a graded page in one transaction. Student exams which were submitted by the student in the meantime
+       already have a result, so no second result is inserted for them.
+
+       @param examId - The ID of the exam.
+       @param graded - The graded attempts of the page.
+       @param progress - The progress of this job. */
+    private void writePage(long examId, List<GradedAttempt> graded, GradingProgress progress) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int[] counts = examResultJdbcRepository.completeAll(graded);
+
+            List<GradedAttempt> completed = new ArrayList<>(graded.size());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    completed.add(graded.get(i));
+                }
+            }
+
+            examResultJdbcRepository.insertAll(examId, completed);
+            progress.addGraded(completed.size());
+            progress.addSkipped(graded.size() - completed.size());
+        });
+    }
+}
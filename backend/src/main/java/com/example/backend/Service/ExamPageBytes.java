@@ -0,0 +1,35 @@
+package com.example.backend.Service;
+
+/* The ExamPageBytes class is one page of questions of an exam serialized to JSON once and shared by every
+   student of the exam.
+
+ * Fields:
+   - body: The UTF-8 JSON of the page, the same list of ExamQuestionDTOs without answers as the paged endpoints.
+   - etag: A strong ETag, the quoted SHA-256 of the body, so a client which has the page gets 304 Not Modified.
+   - paper: The ExamPaper the page was cut from, a page of an older paper is stale.
+
+ * The body must not be modified, it is written to every response as it is. */
+public final class ExamPageBytes {
+
+    private final byte[] body;
+    private final String etag;
+    private final ExamPaper paper;
+
+    public ExamPageBytes(byte[] body, String etag, ExamPaper paper) {
+        this.body = body;
+        this.etag = etag;
+        this.paper = paper;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public ExamPaper getPaper() {
+        return paper;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/* The ExamPageCache class holds the serialized question pages of the running exams, so serving a page to a
+   student copies bytes instead of mapping and serializing the questions again.
+
+ * Lifecycle:
+   - A page is keyed by exam, question type, page number and page size, and serialized on first use from the
+     ExamPaper of the exam.
+   - A page remembers the paper it was cut from. When the ExamPaperCache drops or rebuilds the paper of an
+     exam, because the exam or one of its questions changed, the page no longer matches the current paper and
+     is serialized again on next use, so it needs no invalidation of its own.
+   - The cache holds at most exam-page-cache.max-entries pages and drops the least recently used one first. */
+@Service
+public class ExamPageCache {
+
+    public static final String MCQ = "mcq";
+    public static final String CODING = "code";
+
+    // Identifies one page of one question type of an exam
+    private record Key(long examId, String type, long offset, int size) {
+    }
+
+    // Injects an instance of ExamPaperCache to read the current paper of an exam
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    // Injects the ObjectMapper of the application, so a page is serialized like a response body
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Pages in least recently used order, guarded by this
+    private final LruMap<Key, ExamPageBytes> pages;
+
+    // Create constructor with the configured maximum number of cached pages
+    public ExamPageCache(@Value("${exam-page-cache.max-entries:2000}") int maxEntries) {
+        this.pages = new LruMap<>(maxEntries);
+    }
+
+    /* Returns a serialized page, serializing it if it is not cached or was cut from an older paper.
+
+       @param examId - The ID of the exam.
+       @param type - MCQ or CODING.
+       @param pageable - The page number and size.
+       @return The serialized page. */
+    public ExamPageBytes get(long examId, String type, Pageable pageable) {
+        ExamPaper paper = examPaperCache.get(examId);
+        Key key = new Key(examId, type, pageable.getOffset(), pageable.getPageSize());
+
+        ExamPageBytes page;
+        synchronized (this) {
+            page = pages.get(key);
+        }
+        if (page != null && page.getPaper() == paper) {
+            return page;
+        }
+
+        List<?> questions = MCQ.equals(type) ? paper.getMcqPage(pageable) : paper.getCodingPage(pageable);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(questions);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Exam page could not be serialized", e);
+        }
+        page = new ExamPageBytes(body, "\"" + Sha256.hex(body) + "\"", paper);
+
+        synchronized (this) {
+            pages.put(key, page);
+        }
+        return page;
+    }
+}
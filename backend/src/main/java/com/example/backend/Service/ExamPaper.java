@@ -0,0 +1,144 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.*;
+import com.example.backend.Entity.CodingQuestion;
+import com.example.backend.Entity.CodingTestCase;
+import com.example.backend.Entity.ExamQuestion;
+import com.example.backend.Entity.McqOption;
+import com.example.backend.Entity.McqQuestion;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/* The ExamPaper class is the immutable paper of one exam, the questions every student of the exam sees, mapped
+   once to their DTOs so a question page is a sublist of the paper instead of queries and mapping per student.
+
+ * Contents:
+   - mcqQuestions and codingQuestions: The questions of each type ordered by ExamQuestion id, which is the order
+     of the pages. Their answer and language are never set, the answers of a student are put on copies.
+   - The options and sample test cases of each question are ordered by id, so a paper built again from the same
+     data serializes to the same bytes.
+   - mcqExamQuestionIds and codingExamQuestionIds: The ExamQuestion id of each question keyed by question id, to
+     find the papers containing a changed question and to key the saved answers of a student by ExamQuestion id.
+
+ * The DTOs are shared by every request, so they must not be modified once the paper is built. Their option and
+   test case sets are unmodifiable. */
+public final class ExamPaper {
+
+    private final long examId;
+    private final List<ExamQuestionDTO> mcqQuestions;
+    private final List<ExamQuestionDTO> codingQuestions;
+    private final LongLongHashMap mcqExamQuestionIds;
+    private final LongLongHashMap codingExamQuestionIds;
+
+    /* Maps the questions of an exam, their questions, options and sample test cases must be loadable.
+
+       @param examId - The ID of the exam.
+       @param examQuestions - The questions of the exam, each type ordered by id. */
+    public ExamPaper(long examId, List<ExamQuestion> examQuestions) {
+        List<ExamQuestionDTO> mcqs = new ArrayList<>();
+        List<ExamQuestionDTO> codes = new ArrayList<>();
+
+        for (ExamQuestion examQuestion : examQuestions) {
+            ExamQuestionDTO examQuestionDTO = new ExamQuestionDTO();
+            examQuestionDTO.setMarks(examQuestion.getMarks());
+            examQuestionDTO.setId(examQuestion.getId());
+
+            if (examQuestion.getMcqQuestion() != null) {
+                examQuestionDTO.setMcqQuestion(mcqQuestion(examQuestion.getMcqQuestion()));
+                mcqs.add(examQuestionDTO);
+            } else {
+                examQuestionDTO.setCodingQuestion(codingQuestion(examQuestion.getCodingQuestion()));
+                codes.add(examQuestionDTO);
+            }
+        }
+
+        this.examId = examId;
+        this.mcqQuestions = Collections.unmodifiableList(mcqs);
+        this.codingQuestions = Collections.unmodifiableList(codes);
+        this.mcqExamQuestionIds = new LongLongHashMap(mcqs.size());
+        mcqs.forEach(question -> mcqExamQuestionIds.put(question.getMcqQuestion().getId(), question.getId()));
+        this.codingExamQuestionIds = new LongLongHashMap(codes.size());
+        codes.forEach(question -> codingExamQuestionIds.put(question.getCodingQuestion().getId(), question.getId()));
+    }
+
+    public long getExamId() {
+        return examId;
+    }
+
+    /* Returns one page of the MCQ questions, empty past the last page. */
+    public List<ExamQuestionDTO> getMcqPage(Pageable pageable) {
+        return page(mcqQuestions, pageable);
+    }
+
+    /* Returns one page of the coding questions, empty past the last page. */
+    public List<ExamQuestionDTO> getCodingPage(Pageable pageable) {
+        return page(codingQuestions, pageable);
+    }
+
+    public List<ExamQuestionDTO> getMcqQuestions() {
+        return mcqQuestions;
+    }
+
+    public List<ExamQuestionDTO> getCodingQuestions() {
+        return codingQuestions;
+    }
+
+    /* Checks whether the paper contains an MCQ question. */
+    public boolean containsMcqQuestion(long questionId) {
+        return mcqExamQuestionIds.containsKey(questionId);
+    }
+
+    /* Checks whether the paper contains a coding question. */
+    public boolean containsCodingQuestion(long questionId) {
+        return codingExamQuestionIds.containsKey(questionId);
+    }
+
+    /* Returns the ExamQuestion id of an MCQ question of the paper, 0 if the paper does not contain it. */
+    public long getMcqExamQuestionId(long questionId) {
+        return mcqExamQuestionIds.get(questionId, 0);
+    }
+
+    /* Returns the ExamQuestion id of a coding question of the paper, 0 if the paper does not contain it. */
+    public long getCodingExamQuestionId(long questionId) {
+        return codingExamQuestionIds.get(questionId, 0);
+    }
+
+    private static List<ExamQuestionDTO> page(List<ExamQuestionDTO> questions, Pageable pageable) {
+        long from = pageable.getOffset();
+        if (from >= questions.size()) {
+            return List.of();
+        }
+        return questions.subList((int) from, (int) Math.min(questions.size(), from + pageable.getPageSize()));
+    }
+
+    private static McqQuestionDTO mcqQuestion(McqQuestion question) {
+        McqQuestionDTO mcqDto = new McqQuestionDTO();
+        mcqDto.setId(question.getId());
+        mcqDto.setQuestionText(question.getQuestionText());
+        mcqDto.setCategory(question.getCategory());
+        Set<McqOptionDTO> options = question.getOptions().stream()
+                .sorted(Comparator.comparing(McqOption::getId))
+                .map(option -> new McqOptionDTO(option.getId(), option.getOptionText()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        mcqDto.setOptions(Collections.unmodifiableSet(options));
+        return mcqDto;
+    }
+
+    private static CodingQuestionDTO codingQuestion(CodingQuestion question) {
+        CodingQuestionDTO codeDto = new CodingQuestionDTO();
+        codeDto.setCategory(question.getCategory());
+        codeDto.setId(question.getId());
+        codeDto.setQuestionText(question.getQuestionText());
+        codeDto.setFunctionSignature(question.getFunctionSignature());
+
+        // Only the sample test cases are sent, the hidden ones are used for grading on the server
+        Set<CodingTestCaseDTO> testcases = question.getSampleTestCases().stream()
+                .sorted(Comparator.comparing(CodingTestCase::getId))
+                .map(testcase -> new CodingTestCaseDTO(testcase.getId(), testcase.getInputData(), testcase.getExpectedOutput()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        codeDto.setTestCases(Collections.unmodifiableSet(testcases));
+        return codeDto;
+    }
+}
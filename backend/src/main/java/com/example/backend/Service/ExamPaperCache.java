@@ -0,0 +1,89 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.ExamQuestion;
+import com.example.backend.Repository.ExamQuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* The ExamPaperCache class holds the ExamPaper of the running exams, shared by every student of an exam.
+
+ * Lifecycle:
+   - The paper of an exam is built when the exam moves to STARTED, and built on first use if it is missing,
+     for example after a restart. It is built in its own read-only transaction with two fetch-join queries, one
+     per question type, so no question, option or test case is loaded on its own.
+   - The cache holds at most exam-paper-cache.max-exams papers and drops the least recently used one first.
+   - The paper of an exam is dropped when the exam is updated, completed or deleted.
+   - The papers containing a question are dropped when that question is updated or deleted, and rebuilt on
+     next use. */
+@Service
+public class ExamPaperCache {
+
+    // Injects an instance of ExamQuestionRepository for database operations
+    @Autowired
+    private ExamQuestionRepository examQuestionRepository;
+
+    // Injects the transaction manager to build papers in their own transaction
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Papers keyed by exam id in least recently used order
+    private final GenerationalCache<Long, ExamPaper> papers;
+
+    // Create constructor with the configured maximum number of cached papers
+    public ExamPaperCache(@Value("${exam-paper-cache.max-exams:100}") int maxExams) {
+        this.papers = GenerationalCache.lru(maxExams);
+    }
+
+    /* Returns the paper of an exam, building it if it is not cached.
+
+       @param examId - The ID of the exam.
+       @return The paper of the exam. */
+    public ExamPaper get(long examId) {
+        ExamPaper paper = papers.get(examId);
+        return paper != null ? paper : build(examId);
+    }
+
+    /* Builds the paper of an exam and caches it.
+
+       @param examId - The ID of the exam.
+       @return The built paper. */
+    public ExamPaper build(long examId) {
+        long buildGeneration = papers.generation();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        ExamPaper paper = transactionTemplate.execute(status -> {
+            List<ExamQuestion> examQuestions = new ArrayList<>(examQuestionRepository.findMcqQuestionsWithOptionsByExamId(examId));
+            examQuestions.addAll(examQuestionRepository.findCodingQuestionsWithSamplesByExamId(examId));
+            return new ExamPaper(examId, examQuestions);
+        });
+        papers.put(examId, paper, buildGeneration);
+        return paper;
+    }
+
+    /* Drops the papers which contain an MCQ question.
+
+       @param questionId - The ID of the updated or deleted MCQ question. */
+    public void invalidateMcqQuestion(long questionId) {
+        papers.removeIf((examId, paper) -> paper.containsMcqQuestion(questionId));
+    }
+
+    /* Drops the papers which contain a coding question.
+
+       @param questionId - The ID of the updated or deleted coding question. */
+    public void invalidateCodingQuestion(long questionId) {
+        papers.removeIf((examId, paper) -> paper.containsCodingQuestion(questionId));
+    }
+
+    /* Drops the paper of an exam.
+
+       @param examId - The ID of the exam. */
+    public void evict(long examId) {
+        papers.remove(examId);
+    }
+}
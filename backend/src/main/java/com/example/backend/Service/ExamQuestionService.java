@@ -1,41 +1,33 @@
 package com.example.backend.Service;
 
 import com.example.backend.Dto.*;
-import com.example.backend.Entity.Exam;
-import com.example.backend.Entity.ExamQuestion;
-import com.example.backend.Entity.StudentAnswer;
-import com.example.backend.Entity.StudentExam;
-import com.example.backend.Repository.ExamQuestionRepository;
-import com.example.backend.Repository.ExamRepository;
-import com.example.backend.Repository.StudentExamRepository;
+import com.example.backend.Repository.StudentAnswerRepository;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class ExamQuestionService {
 
-    // Injects an instance of ExamQuestionRepository for database operations
+    // Injects an instance of ExamPaperCache to read question pages from the shared exam paper
     @Autowired
-    private ExamQuestionRepository examQuestionRepository;
+    private ExamPaperCache examPaperCache;
 
-    // Injects an instance of ExamRepository for database operations
+    // Injects an instance of ExamPageCache to serve pages serialized once for every student
     @Autowired
-    private ExamRepository examRepository;
+    private ExamPageCache examPageCache;
 
-    // Injects an instance of StudentExamRepository for database operations
+    // Injects an instance of ExamSessionResolver to read the student, the exam and the attempt of a request at once
     @Autowired
-    private StudentExamRepository studentExamRepository;
+    private ExamSessionResolver examSessionResolver;
+
+    // Injects an instance of StudentAnswerRepository to read the saved answers of a page
+    @Autowired
+    private StudentAnswerRepository studentAnswerRepository;
 
     /* Retrieves MCQs for a specific exam.
 
@@ -46,160 +38,188 @@ public class ExamQuestionService {
        @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
     public List<ExamQuestionDTO> getMcqQuestions(Long examId, Pageable pageable, String email) throws BadRequestException {
 
-        boolean user = examRepository.existsByStudentEmail(email);
-        if(!user) {
-            throw new BadRequestException("User not started exam");
-        }
+        ExamSession session = startedAttempt(examId, email);
 
-        Exam exam = examRepository.getReferenceById(examId);
+        List<ExamQuestionDTO> questions = withoutAnswers(examPaperCache.get(examId).getMcqPage(pageable));
+        overlay(questions, pageAnswers(session.getStudentExamId(), questions, false));
 
-        if((exam.getStatus() != Exam.ExamStatus.STARTED && exam.getStatus() != Exam.ExamStatus.RESUMED) || !exam.isEnable() || !exam.getScheduleDate().equals(LocalDate.now())) {
-            throw new IllegalArgumentException("Invalid data for exam");
-        }
+        return questions;
+    }
 
-        StudentExam studentExam = studentExamRepository.findByStudentEmailAndExamId(email, examId).get();
+    /* Retrieves coding questions for a specific exam.
 
-        String duration = exam.getDuration();
-        int durationint = Integer.parseInt(duration);
+       @param examId - The ID of the exam from which to retrieve coding questions.
+       @param pageable - Pagination information for the retrieved questions.
+       @param email - The email of the student.
+       @return A list of ExamQuestionDTOs representing the coding questions.
+       @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
+    public List<ExamQuestionDTO> getCodingQuestions(Long examId, Pageable pageable, String email) throws BadRequestException{
 
-        LocalDateTime starttime = studentExam.getStartTime();
-        LocalDateTime endtime = studentExam.getEndTime();
+        ExamSession session = startedAttempt(examId, email);
 
-        if (durationint < Duration.between(starttime, endtime).toMinutes() && studentExam.isCompleted()) {
-            throw new IllegalStateException("Auto-save failed because of Exam time is over.");
-        }
+        List<ExamQuestionDTO> questions = withoutAnswers(examPaperCache.get(examId).getCodingPage(pageable));
+        overlay(questions, pageAnswers(session.getStudentExamId(), questions, true));
 
-        Page<ExamQuestion> codingQuestions = examQuestionRepository.findMcqQuestionsByExamId(examId, pageable);
+        return questions;
+    }
 
-        List<ExamQuestion> codingQuestionsList = codingQuestions.getContent();
+    /* Retrieves one page of the MCQs of an exam serialized once for every student, without answers.
 
-        List<ExamQuestionDTO> questions = mapToExamQuestionDTO(codingQuestionsList);
+       @param examId - The ID of the exam from which to retrieve questions.
+       @param pageable - Pagination information for the retrieved questions.
+       @param email - The email of the student.
+       @return The JSON bytes of the page and their ETag.
+       @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
+    public ExamPageBytes getMcqPageBytes(Long examId, Pageable pageable, String email) throws BadRequestException {
+        startedAttempt(examId, email);
+        return examPageCache.get(examId, ExamPageCache.MCQ, pageable);
+    }
 
-        Set<StudentAnswer> answers = studentExam.getAnswers();
+    /* Retrieves one page of the coding questions of an exam serialized once for every student, without answers.
 
-        for(StudentAnswer answer : answers) {
+       @param examId - The ID of the exam from which to retrieve coding questions.
+       @param pageable - Pagination information for the retrieved questions.
+       @param email - The email of the student.
+       @return The JSON bytes of the page and their ETag.
+       @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
+    public ExamPageBytes getCodingPageBytes(Long examId, Pageable pageable, String email) throws BadRequestException {
+        startedAttempt(examId, email);
+        return examPageCache.get(examId, ExamPageCache.CODING, pageable);
+    }
 
-            if(answer.getMcqQuestion() != null) {
+    /* Retrieves the saved answers of a student for one page of MCQs, to merge with the shared page.
 
-                for(ExamQuestionDTO examQuestionDTO : questions) {
+       @param examId - The ID of the exam.
+       @param pageable - Pagination information of the page.
+       @param email - The email of the student.
+       @return The answers of the answered questions of the page, keyed by the exam question id.
+       @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
+    public List<QuestionAnswerDTO> getMcqAnswers(Long examId, Pageable pageable, String email) throws BadRequestException {
 
-                    if (examQuestionDTO.getMcqQuestion().getId() == answer.getMcqQuestion().getId()) {
-                        examQuestionDTO.setAnswer(answer.getAnswer());
-                        break;
-                    }
-                }
-            }
-        }
+        ExamSession session = startedAttempt(examId, email);
+        List<ExamQuestionDTO> page = examPaperCache.get(examId).getMcqPage(pageable);
 
-        return questions;
+        return answered(pageAnswers(session.getStudentExamId(), page, false));
     }
 
-    /* Retrieves coding questions for a specific exam.
+    /* Retrieves the saved answers of a student for one page of coding questions, to merge with the shared page.
 
-       @param examId - The ID of the exam from which to retrieve coding questions.
-       @param pageable - Pagination information for the retrieved questions.
+       @param examId - The ID of the exam.
+       @param pageable - Pagination information of the page.
        @param email - The email of the student.
-       @return A list of ExamQuestionDTOs representing the coding questions.
+       @return The answers and languages of the answered questions of the page, keyed by the exam question id.
        @throws BadRequestException - If the user has not started the exam or if the exam is not in a valid state. */
-    public List<ExamQuestionDTO> getCodingQuestions(Long examId, Pageable pageable, String email) throws BadRequestException{
+    public List<QuestionAnswerDTO> getCodingAnswers(Long examId, Pageable pageable, String email) throws BadRequestException {
 
-        boolean user = examRepository.existsByStudentEmail(email);
-        if(!user) {
+        ExamSession session = startedAttempt(examId, email);
+        List<ExamQuestionDTO> page = examPaperCache.get(examId).getCodingPage(pageable);
+
+        return answered(pageAnswers(session.getStudentExamId(), page, true));
+    }
+
+    /* Checks that a student started an exam which is running and whose time is not over.
+
+       @param examId - The ID of the exam.
+       @param email - The email of the student.
+       @return The session of the student in the exam.
+       @throws BadRequestException - If the user has not started the exam.
+       @throws IllegalArgumentException - If the exam is not running today.
+       @throws IllegalStateException - If the attempt is completed and its time is over. */
+    private ExamSession startedAttempt(Long examId, String email) throws BadRequestException {
+
+        ExamSession session = examSessionResolver.resolve(email, examId);
+        if (!session.hasAttempt()) {
             throw new BadRequestException("User not started exam");
         }
 
-        Exam exam = examRepository.getReferenceById(examId);
-
-        if((exam.getStatus() != Exam.ExamStatus.STARTED && exam.getStatus() != Exam.ExamStatus.RESUMED) || !exam.isEnable() || !exam.getScheduleDate().equals(LocalDate.now())) {
+        if (!session.isRunningToday()) {
             throw new IllegalArgumentException("Invalid data for exam");
         }
 
-        StudentExam studentExam = studentExamRepository.findByStudentEmailAndExamId(email, examId).get();
-
-        String duration = exam.getDuration();
-        int durationint = Integer.parseInt(duration);
-
-        LocalDateTime starttime = studentExam.getStartTime();
-        LocalDateTime endtime = studentExam.getEndTime();
-
-        if (durationint < Duration.between(starttime, endtime).toMinutes() && studentExam.isCompleted()) {
+        if (session.isTimeOver() && session.isCompleted()) {
             throw new IllegalStateException("Auto-save failed because of Exam time is over.");
         }
 
-        Page<ExamQuestion> codingQuestions = examQuestionRepository.findCodingQuestionsByExamId(examId, pageable);
-
-        List<ExamQuestion> codingQuestionsList = codingQuestions.getContent();
+        return session;
+    }
 
-        List<ExamQuestionDTO> questions = mapToExamQuestionDTO(codingQuestionsList);
+    /* Reads the saved answers of an attempt for the questions of one page only. The question ids of the page are
+       indexed by their position in a primitive map, so each answer row is placed in constant time and the work is
+       bounded by the size of the page, not by the number of answers of the attempt.
 
-        Set<StudentAnswer> answers = studentExam.getAnswers();
+       @param studentExamId - The ID of the attempt.
+       @param page - A page of MCQs or of coding questions.
+       @param coding - Whether the page holds coding questions.
+       @return The answers indexed like the page, null where the question is not answered. */
+    private QuestionAnswerDTO[] pageAnswers(long studentExamId, List<ExamQuestionDTO> page, boolean coding) {
 
-        for(StudentAnswer answer : answers) {
+        QuestionAnswerDTO[] answers = new QuestionAnswerDTO[page.size()];
+        if (page.isEmpty()) {
+            return answers;
+        }
 
-            if(answer.getCodingQuestion() != null) {
+        LongLongHashMap positions = new LongLongHashMap(page.size());
+        List<Long> questionIds = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            ExamQuestionDTO question = page.get(i);
+            long questionId = coding ? question.getCodingQuestion().getId() : question.getMcqQuestion().getId();
+            positions.put(questionId, i);
+            questionIds.add(questionId);
+        }
 
-                for(ExamQuestionDTO examQuestionDTO : questions) {
+        List<Object[]> rows = coding
+                ? studentAnswerRepository.findCodingAnswers(studentExamId, questionIds)
+                : studentAnswerRepository.findMcqAnswers(studentExamId, questionIds);
 
-                    if (examQuestionDTO.getCodingQuestion().getId() == answer.getCodingQuestion().getId()) {
-                        examQuestionDTO.setAnswer(answer.getAnswer());
-                        examQuestionDTO.setLanguage(answer.getLanguage());
-                        break;
-                    }
-                }
+        for (Object[] row : rows) {
+            int position = (int) positions.get((Long) row[0], -1);
+            if (position >= 0) {
+                answers[position] = new QuestionAnswerDTO(page.get(position).getId(), (String) row[1], coding ? (String) row[2] : null);
             }
         }
 
-        return questions;
+        return answers;
     }
 
-    /* Maps a list of ExamQuestion entities to their corresponding ExamQuestionDTO.
-
-       @param examQuestions - A list of ExamQuestion entities to be mapped.
-       @return A list of mapped ExamQuestionDTOs. */
-    private List<ExamQuestionDTO> mapToExamQuestionDTO(List<ExamQuestion> examQuestions) {
-
-        List<ExamQuestionDTO> examQuestionsList = new ArrayList<>();
-
-        for(ExamQuestion examQuestion : examQuestions) {
-
-            ExamQuestionDTO examQuestionDTO = new ExamQuestionDTO();
-
-            examQuestionDTO.setMarks(examQuestion.getMarks());
-            examQuestionDTO.setId(examQuestion.getId());
-
-            if (examQuestion.getMcqQuestion() != null) {
-                McqQuestionDTO mcqDto = new McqQuestionDTO();
-                mcqDto.setId(examQuestion.getMcqQuestion().getId());
-                mcqDto.setQuestionText(examQuestion.getMcqQuestion().getQuestionText());
-                mcqDto.setCategory(examQuestion.getMcqQuestion().getCategory());
-
-
-                Set<McqOptionDTO> options = examQuestion.getMcqQuestion().getOptions().stream()
-                        .map(option -> new McqOptionDTO(option.getId(), option.getOptionText()))
-                        .collect(Collectors.toSet());
-
-                mcqDto.setOptions(options);
+    /* Sets the answers read by pageAnswers on the copied questions of the page. */
+    private void overlay(List<ExamQuestionDTO> questions, QuestionAnswerDTO[] answers) {
+        for (int i = 0; i < answers.length; i++) {
+            if (answers[i] != null) {
+                questions.get(i).setAnswer(answers[i].getAnswer());
+                questions.get(i).setLanguage(answers[i].getLanguage());
+            }
+        }
+    }
 
-                examQuestionDTO.setMcqQuestion(mcqDto);
-            } else {
-                CodingQuestionDTO codeDto = new CodingQuestionDTO();
-                codeDto.setCategory(examQuestion.getCodingQuestion().getCategory());
-                codeDto.setId(examQuestion.getCodingQuestion().getId());
-                codeDto.setQuestionText(examQuestion.getCodingQuestion().getQuestionText());
-                codeDto.setFunctionSignature(examQuestion.getCodingQuestion().getFunctionSignature());
+    /* Keeps the answered questions of the answers read by pageAnswers, in page order. */
+    private List<QuestionAnswerDTO> answered(QuestionAnswerDTO[] answers) {
+        List<QuestionAnswerDTO> pageAnswers = new ArrayList<>(answers.length);
+        for (QuestionAnswerDTO answer : answers) {
+            if (answer != null) {
+                pageAnswers.add(answer);
+            }
+        }
+        return pageAnswers;
+    }
 
-                Set<CodingTestCaseDTO> testcases = examQuestion.getCodingQuestion().getTestCases().stream()
-                        .map(testcase -> new CodingTestCaseDTO(testcase.getId(), testcase.getInputData(), testcase.getExpectedOutput()))
-                        .collect(Collectors.toSet());
+    /* Copies a page of the shared exam paper so the answers of a student can be set on it. The question, options
+       and test cases stay shared with the paper.
 
-                codeDto.setTestCases(testcases);
+       @param page - A page of the exam paper.
+       @return A list of new ExamQuestionDTOs without answers. */
+    private List<ExamQuestionDTO> withoutAnswers(List<ExamQuestionDTO> page) {
 
-                examQuestionDTO.setCodingQuestion(codeDto);
-            }
+        List<ExamQuestionDTO> examQuestionsList = new ArrayList<>(page.size());
 
+        for (ExamQuestionDTO question : page) {
+            ExamQuestionDTO examQuestionDTO = new ExamQuestionDTO();
+            examQuestionDTO.setId(question.getId());
+            examQuestionDTO.setMarks(question.getMarks());
+            examQuestionDTO.setMcqQuestion(question.getMcqQuestion());
+            examQuestionDTO.setCodingQuestion(question.getCodingQuestion());
             examQuestionsList.add(examQuestionDTO);
         }
 
         return examQuestionsList;
     }
-}
\ No newline at end of file
+}
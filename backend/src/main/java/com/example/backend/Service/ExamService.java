@@ -1,12 +1,14 @@
 package com.example.backend.Service;
 
 import com.example.backend.Dto.ExamCreateRequest;
+import com.example.backend.Dto.KeysetPage;
 import com.example.backend.Entity.*;
 import com.example.backend.Repository.CodingQuestionRepository;
 import com.example.backend.Repository.ExamRepository;
 import com.example.backend.Repository.McqQuestionRepository;
 import com.example.backend.Repository.UniversityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -30,6 +32,26 @@ public class ExamService {
     @Autowired
     private UniversityRepository universityRepository;
 
+    // Injects an instance of McqAnswerKeyCache to build the answer key when an exam starts
+    @Autowired
+    private McqAnswerKeyCache mcqAnswerKeyCache;
+
+    // Injects an instance of ExamPaperCache to build the paper when an exam starts and drop it when it changes
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    // Injects an instance of ExamSessionResolver to drop the cached sessions of changed exams
+    @Autowired
+    private ExamSessionResolver examSessionResolver;
+
+    // Injects an instance of ScoringPlanCache to drop the scoring plan of an updated exam
+    @Autowired
+    private ScoringPlanCache scoringPlanCache;
+
+    // Injects an instance of ExamGradingService to grade the open attempts of a completed exam
+    @Autowired
+    private ExamGradingService examGradingService;
+
     /* Creates a new exam based on the provided ExamCreateRequest. This method handles the creation of the exam,
        including setting up exam details, generating questions, and associating universities. The newly created
        exam is then saved to the repository.
@@ -58,7 +80,10 @@ public class ExamService {
         exam.setBranch(examCreateRequest.getBranch());
         exam.setSemester(examCreateRequest.getSemester());
 
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        onStatusChange(savedExam, null);
+
+        return savedExam;
     }
 
     /* Retrieves a set of universities based on the provided university names. This method searches for
@@ -91,10 +116,13 @@ public class ExamService {
        throws Exception - If there are not enough questions available for the given categories and difficulty levels. */
     private Set<ExamQuestion> createQuestions(ExamCreateRequest examCreateRequest, Exam exam) throws Exception {
         Set<ExamQuestion> examQuestions = new HashSet<>();
+        QuestionMarks questionMarks = QuestionMarks.of(examCreateRequest.getDifficultyLevel());
+
         for(Map<String, Object> questiontype : examCreateRequest.getMcqQuestions()) {
             examQuestions.addAll(getMcqExamQuestion((String)questiontype.get("category"),
                     (int)questiontype.get("noOfQuestion"),
                     examCreateRequest.getDifficultyLevel(),
+                    questionMarks.mcqMarks,
                     exam));
         }
 
@@ -102,6 +130,7 @@ public class ExamService {
             examQuestions.addAll(getCodingExamQuesiont((String)questiontype.get("category"),
                     (int)questiontype.get("noOfQuestion"),
                     examCreateRequest.getDifficultyLevel(),
+                    questionMarks.codingMarks,
                     exam));
         }
 
@@ -115,10 +144,11 @@ public class ExamService {
        param category - The category of coding questions to be fetched.
        param noOfQuestion - The number of coding questions to be included in the exam.
        param difficultyLevel - The difficulty level of the questions (Easy, Medium, Hard).
+       param marks - The marks of each selected question.
        param exam - The exam to which the generated questions will be added.
        return - A set of ExamQuestion entities containing the selected coding questions.
        throws IllegalArgumentException - If there are not enough coding questions for the specified category and difficulty level. */
-    private Set<ExamQuestion> getCodingExamQuesiont(String category, int noOfQuestion, String difficultyLevel, Exam exam) {
+    private Set<ExamQuestion> getCodingExamQuesiont(String category, int noOfQuestion, String difficultyLevel, int marks, Exam exam) {
         List<CodingQuestion> filteredCodingQuestions = codingQuestionRepository.findByCategoryAndDifficultyLevel(category, difficultyLevel);
 
         if (filteredCodingQuestions.size() < noOfQuestion) {
@@ -134,13 +164,7 @@ public class ExamService {
             ExamQuestion examQuestion = new ExamQuestion();
             examQuestion.setExam(exam);
             examQuestion.setCodingQuestion(codingQuestion);
-            if(difficultyLevel.equalsIgnoreCase("Easy")) {
-                examQuestion.setMarks(20);
-            } else if (difficultyLevel.equalsIgnoreCase("Medium")) {
-                examQuestion.setMarks(30);
-            } else {
-                examQuestion.setMarks(40);
-            }
+            examQuestion.setMarks(marks);
             examQuestions.add(examQuestion);
         }
 
@@ -154,10 +178,11 @@ public class ExamService {
        param category - The category of MCQ questions to be fetched.
        param noOfQuestion - The number of MCQ questions to be included in the exam.
        param difficultyLevel - The difficulty level of the questions (Easy, Medium, Hard).
+       param marks - The marks of each selected question.
        param exam - The exam to which the generated questions will be added.
        return - A set of ExamQuestion entities containing the selected MCQ questions.
        throws IllegalArgumentException - If there are not enough MCQ questions for the specified category and difficulty level. */
-    private Set<ExamQuestion> getMcqExamQuestion(String category, int noOfQuestion, String difficultyLevel, Exam exam) {
+    private Set<ExamQuestion> getMcqExamQuestion(String category, int noOfQuestion, String difficultyLevel, int marks, Exam exam) {
         List<McqQuestion> filteredMcqQuestions = mcqQuestionRepository.findByCategoryAndDifficultyLevel(category, difficultyLevel);
 
         if (filteredMcqQuestions.size() < noOfQuestion) {
@@ -173,15 +198,7 @@ public class ExamService {
             ExamQuestion examQuestion = new ExamQuestion();
             examQuestion.setExam(exam);
             examQuestion.setMcqQuestion(mcqQuestion);
-
-            if(difficultyLevel.equalsIgnoreCase("Easy")) {
-                examQuestion.setMarks(1);
-            } else if (difficultyLevel.equalsIgnoreCase("Medium")) {
-                examQuestion.setMarks(2);
-            } else {
-                examQuestion.setMarks(3);
-            }
-
+            examQuestion.setMarks(marks);
             examQuestions.add(examQuestion);
         }
 
@@ -198,6 +215,7 @@ public class ExamService {
     public Exam updateExam(long id, ExamCreateRequest examCreateRequest) throws Exception {
 
         Exam exam = examRepository.getReferenceById(id);
+        Exam.ExamStatus previousStatus = exam.getStatus();
 
         exam.setEnable(examCreateRequest.isEnable());
         exam.setStatus(examCreateRequest.getStatus());
@@ -210,7 +228,13 @@ public class ExamService {
         Set<University> universities = getUniversities(examCreateRequest.getUniversities());
         exam.setUniversities(universities);
 
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        scoringPlanCache.evict(id);
+        examPaperCache.evict(id);
+        examSessionResolver.evictExam(id);
+        onStatusChange(savedExam, previousStatus);
+
+        return savedExam;
     }
 
     /* Deletes an exam based on its ID. This method removes the exam from the repository.
@@ -218,12 +242,66 @@ public class ExamService {
        param id - The ID of the exam to be deleted. */
     public void deleteExam(long id) {
         examRepository.deleteById(id);
+        mcqAnswerKeyCache.evict(id);
+        scoringPlanCache.evict(id);
+        examPaperCache.evict(id);
+        examSessionResolver.evictExam(id);
+    }
+
+    /* Keeps the per-exam caches in step with the exam status. The MCQ answer key and the exam paper are built
+       once when the exam moves to STARTED and dropped when the exam is completed, with the scoring plan. Completing an exam also starts grading the
+       attempts which were not submitted, that job drops the scoring plan it compiled again once it finished.
+
+       param exam - The saved exam.
+       param previousStatus - The status of the exam before the change, null for a new exam. */
+    private void onStatusChange(Exam exam, Exam.ExamStatus previousStatus) {
+        if (exam.getStatus() == Exam.ExamStatus.STARTED && previousStatus != Exam.ExamStatus.STARTED) {
+            mcqAnswerKeyCache.build(exam.getId());
+            examPaperCache.build(exam.getId());
+        } else if (exam.getStatus() == Exam.ExamStatus.COMPLETED) {
+            mcqAnswerKeyCache.evict(exam.getId());
+            examPaperCache.evict(exam.getId());
+            scoringPlanCache.evict(exam.getId());
+            if (previousStatus != Exam.ExamStatus.COMPLETED) {
+                examGradingService.gradeExam(exam.getId());
+            }
+        }
+    }
+
+    /* Retrieves one page of exams in id order from the repository.
+
+       @param after - The continuation token of the previous page, or null for the first page.
+       @param size - The number of exams of the page.
+       @return - The page of Exam entities.
+       @throws IllegalArgumentException if the token is invalid. */
+    public KeysetPage<Exam> getExams(String after, int size) {
+        int limit = KeysetPage.limit(size);
+        return KeysetPage.of(examRepository.findAfter(KeysetPage.after(after), Limit.of(limit + 1)), limit, Exam::getId);
     }
 
-    /* Retrieves a list of all exams from the repository.
+    /* The marks a generated question gets for the difficulty level of the exam. The difficulty level is resolved
+       once per exam, and the marks are stored on each ExamQuestion from which the ScoringPlan is compiled. */
+    private enum QuestionMarks {
+        EASY(1, 20),
+        MEDIUM(2, 30),
+        HARD(3, 40);
 
-       return - A list of all Exam entities. */
-    public List<Exam> getExams() {
-        return examRepository.findAll();
+        private final int mcqMarks;
+        private final int codingMarks;
+
+        QuestionMarks(int mcqMarks, int codingMarks) {
+            this.mcqMarks = mcqMarks;
+            this.codingMarks = codingMarks;
+        }
+
+        /* Resolves the difficulty level of an exam, any level other than Easy or Medium is scored as Hard. */
+        private static QuestionMarks of(String difficultyLevel) {
+            if ("Easy".equalsIgnoreCase(difficultyLevel)) {
+                return EASY;
+            } else if ("Medium".equalsIgnoreCase(difficultyLevel)) {
+                return MEDIUM;
+            }
+            return HARD;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.Exam;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/* The ExamSession class is the immutable context of one student in one exam, resolved once by the
+   ExamSessionResolver from a single projection row instead of loading the user, the exam and the attempt apart.
+
+ * Contents:
+   - The user id, branch and semester of the student.
+   - The status, enable flag, schedule date, branch, semester and parsed duration of the exam.
+   - The id, start time, end time and completion of the attempt, studentExamId is null before the exam is started.
+
+ * Time:
+   - As everywhere in the exam flow, the time used by an attempt runs from its start time to its end time, the end
+     time being moved by every save. getRemainingSeconds and isTimeOver are computed from these times, so the
+     deadline of the attempt is the time left when the session was resolved. */
+public final class ExamSession {
+
+    private final long userId;
+    private final String email;
+    private final String userBranch;
+    private final int userSemester;
+    private final long examId;
+    private final String examName;
+    private final Exam.ExamStatus status;
+    private final boolean enable;
+    private final LocalDate scheduleDate;
+    private final String examBranch;
+    private final int examSemester;
+    private final String duration;
+    private final int durationMinutes;
+    private final Long studentExamId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final boolean completed;
+
+    /* Maps a row of StudentExamRepository.findSessionRows.
+
+       @param email - The email of the student.
+       @param row - The projection row of the student, the exam and the attempt. */
+    ExamSession(String email, Object[] row) {
+        this.userId = (Long) row[0];
+        this.email = email;
+        this.userBranch = (String) row[1];
+        this.userSemester = (Integer) row[2];
+        this.examId = (Long) row[3];
+        this.examName = (String) row[4];
+        this.status = (Exam.ExamStatus) row[5];
+        this.enable = (Boolean) row[6];
+        this.scheduleDate = (LocalDate) row[7];
+        this.examBranch = (String) row[8];
+        this.examSemester = (Integer) row[9];
+        this.duration = (String) row[10];
+        this.durationMinutes = Integer.parseInt(duration);
+        this.studentExamId = (Long) row[11];
+        this.startTime = (LocalDateTime) row[12];
+        this.endTime = (LocalDateTime) row[13];
+        this.completed = row[14] != null && (Boolean) row[14];
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUserBranch() {
+        return userBranch;
+    }
+
+    public int getUserSemester() {
+        return userSemester;
+    }
+
+    public long getExamId() {
+        return examId;
+    }
+
+    public String getExamName() {
+        return examName;
+    }
+
+    public Exam.ExamStatus getStatus() {
+        return status;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public LocalDate getScheduleDate() {
+        return scheduleDate;
+    }
+
+    public String getExamBranch() {
+        return examBranch;
+    }
+
+    public int getExamSemester() {
+        return examSemester;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public Long getStudentExamId() {
+        return studentExamId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /* Checks whether the student has started the exam. */
+    public boolean hasAttempt() {
+        return studentExamId != null;
+    }
+
+    /* Checks whether the exam is running today, the condition to read its questions. */
+    public boolean isRunningToday() {
+        return (status == Exam.ExamStatus.STARTED || status == Exam.ExamStatus.RESUMED) && enable
+                && LocalDate.now().equals(scheduleDate);
+    }
+
+    /* Checks whether the attempt used more than the duration of the exam, in whole minutes. */
+    public boolean isTimeOver() {
+        return hasAttempt() && durationMinutes < Duration.between(startTime, endTime).toMinutes();
+    }
+
+    /* Returns the seconds left to the attempt, the full duration before the exam is started. */
+    public long getRemainingSeconds() {
+        long usedSeconds = hasAttempt() ? Duration.between(startTime, endTime).toSeconds() : 0;
+        return Math.max(0, durationMinutes * 60L - usedSeconds);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.backend.Service;
+
+import com.example.backend.Repository.StudentExamRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+
+/* The ExamSessionResolver class resolves the ExamSession of a student in an exam for the student endpoints, so
+   the user, the exam and the attempt are read with one projection query instead of separate lookups per method.
+
+ * Lifecycle:
+   - A session is memoized in the attributes of the current request, so the methods serving one request share it.
+   - A session is cached per (email, exam id) for exam-session-cache.ttl-ms, so the auto-saves and page requests
+     a student sends in a burst reuse it. The cache holds at most exam-session-cache.max-entries sessions and
+     drops the least recently used one first.
+   - The session of a student is dropped when the student starts or submits the exam, and the sessions of an
+     exam are dropped when the exam is updated or deleted. A submit only knows the id of the attempt, so the key
+     of each cached attempt is indexed by its id and the submit drops that one key. Other changes, like the end time moved by a save,
+     are seen once the session expires. */
+@Service
+public class ExamSessionResolver {
+
+    private static final String REQUEST_ATTRIBUTE = ExamSessionResolver.class.getName() + ".";
+
+    // Identifies the session of one student in one exam
+    private record Key(String email, long examId) {
+    }
+
+    // A cached session and the time it was resolved at, in System.nanoTime
+    private record Entry(ExamSession session, long resolvedAt) {
+    }
+
+    // Injects an instance of StudentExamRepository for database operations
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    // Sessions in least recently used order
+    private final GenerationalCache<Key, Entry> sessions;
+
+    // The keys of the cached sessions which have an attempt, by StudentExam id, guarded by itself
+    private final LruMap<Long, Key> attemptKeys;
+
+    // How long a session is reused, in nanoseconds
+    private final long ttlNanos;
+
+    // Create constructor with the configured time to live and maximum number of cached sessions
+    public ExamSessionResolver(@Value("${exam-session-cache.ttl-ms:2000}") long ttlMs,
+                               @Value("${exam-session-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.sessions = GenerationalCache.lru(maxEntries);
+        this.attemptKeys = new LruMap<>(maxEntries);
+    }
+
+    /* Returns the session of a student in an exam, from the current request, the cache or the database.
+
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @return The session of the student in the exam.
+       @throws EntityNotFoundException - If the user or the exam is not found. */
+    public ExamSession resolve(String email, long examId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String attribute = REQUEST_ATTRIBUTE + examId + ":" + email;
+        if (request != null && request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST) instanceof ExamSession session) {
+            return session;
+        }
+
+        ExamSession session = cachedOrLoad(email, examId);
+        if (request != null) {
+            request.setAttribute(attribute, session, RequestAttributes.SCOPE_REQUEST);
+        }
+        return session;
+    }
+
+    /* Drops the session of a student in an exam, and from the current request, after its attempt changed.
+
+       @param email - The email of the student.
+       @param examId - The ID of the exam. */
+    public void evict(String email, long examId) {
+        sessions.remove(new Key(email, examId));
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE + examId + ":" + email, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /* Drops the session of the attempt with the given id, after it was submitted.
+
+       @param studentExamId - The ID of the attempt. */
+    public void evictAttempt(long studentExamId) {
+        Key key;
+        synchronized (attemptKeys) {
+            key = attemptKeys.remove(studentExamId);
+        }
+        if (key != null) {
+            evict(key.email(), key.examId());
+        }
+    }
+
+    /* Drops the sessions of an exam, after the exam was updated or deleted.
+
+       @param examId - The ID of the exam. */
+    public void evictExam(long examId) {
+        sessions.removeIf((key, entry) -> key.examId() == examId);
+    }
+
+    private ExamSession cachedOrLoad(String email, long examId) {
+        Key key = new Key(email, examId);
+        long loadGeneration = sessions.generation();
+        Entry entry = sessions.get(key);
+        if (entry != null && System.nanoTime() - entry.resolvedAt() < ttlNanos) {
+            return entry.session();
+        }
+
+        List<Object[]> rows = studentExamRepository.findSessionRows(email, examId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("User or exam not found");
+        }
+        ExamSession session = new ExamSession(email, rows.get(0));
+
+        sessions.put(key, new Entry(session, System.nanoTime()), loadGeneration);
+        if (session.hasAttempt()) {
+            synchronized (attemptKeys) {
+                attemptKeys.put(session.getStudentExamId(), key);
+            }
+        }
+        return session;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.ExecutionLaneStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/* The ExecutionScheduler class decides when each code run may call the CodeExecutor, so practice runs can not
+   take the Judge0 capacity needed by graded submissions during an exam.
+
+ * Working:
+   - Every run belongs to a lane: GRADED for /submit-code and PRACTICE for /run-code.
+   - At most code-execution.max-concurrency runs execute at once over both lanes, and each lane has its own
+     concurrency cap. When a slot frees up a waiting graded run always starts before a waiting practice run.
+   - Each lane has a bounded queue and a limit on the runs one student may have queued or running. A run over
+     either limit is rejected at once with a RejectedException instead of waiting.
+   - A run cancelled while it waits leaves the queue, and a run cancelled while it executes frees its slot.
+   - The queue depth, rejections and the time runs waited before they started are kept per lane for admins, and
+     registered as the code.execution.* meters tagged with the lane. */
+@Service
+public class ExecutionScheduler {
+
+    public enum Lane {
+        GRADED,
+        PRACTICE
+    }
+
+    /* Signals that a run was not accepted because the queue of its lane is full or the student already has
+       the maximum number of runs in flight. The controllers answer it with 429 Too Many Requests. */
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    // The limits, queue and counters of one lane, guarded by the scheduler lock
+    private static class LaneState {
+        private final Lane lane;
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final int perStudentLimit;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private final Map<String, Integer> inFlight = new HashMap<>();
+        private int running;
+        private long submitted;
+        private long rejected;
+        private long completed;
+        private long started;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+        private Timer waitTimer;
+
+        private LaneState(Lane lane, int maxConcurrency, int queueCapacity, int perStudentLimit) {
+            this.lane = lane;
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = queueCapacity;
+            this.perStudentLimit = perStudentLimit;
+        }
+    }
+
+    // A run waiting for a slot, start is called once outside the lock when it gets one
+    private static class Pending {
+        private final LaneState lane;
+        private final String student;
+        private final long enqueuedAt = System.nanoTime();
+        private Runnable start;
+
+        private Pending(LaneState lane, String student) {
+            this.lane = lane;
+            this.student = student;
+        }
+    }
+
+    private final int maxConcurrency;
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private int running;
+
+    // Create constructor with the configured limits of each lane
+    public ExecutionScheduler(MeterRegistry meterRegistry,
+                              @Value("${code-execution.max-concurrency:16}") int maxConcurrency,
+                              @Value("${code-execution.graded.max-concurrency:16}") int gradedConcurrency,
+                              @Value("${code-execution.graded.queue-capacity:500}") int gradedQueueCapacity,
+                              @Value("${code-execution.graded.per-student-limit:2}") int gradedPerStudentLimit,
+                              @Value("${code-execution.practice.max-concurrency:8}") int practiceConcurrency,
+                              @Value("${code-execution.practice.queue-capacity:100}") int practiceQueueCapacity,
+                              @Value("${code-execution.practice.per-student-limit:1}") int practicePerStudentLimit) {
+        this.maxConcurrency = maxConcurrency;
+        lanes.put(Lane.GRADED, new LaneState(Lane.GRADED, gradedConcurrency, gradedQueueCapacity, gradedPerStudentLimit));
+        lanes.put(Lane.PRACTICE, new LaneState(Lane.PRACTICE, practiceConcurrency, practiceQueueCapacity, practicePerStudentLimit));
+        lanes.values().forEach(state -> registerMeters(meterRegistry, state));
+    }
+
+    /* Runs a task in a lane once a slot is free. The task is only created when the run starts, so nothing is sent
+       to the CodeExecutor while the run waits.
+
+       @param lane - The lane of the run.
+       @param student - The key of the student, usually the email, used for the per-student limit.
+       @param task - Creates the Mono of the code run.
+       @return A Mono with the result of the task, it waits in the queue of the lane when subscribed.
+       @throws RejectedException - If the queue of the lane is full or the student has too many runs in flight,
+               signalled by the Mono. */
+    public <T> Mono<T> submit(Lane lane, String student, Supplier<Mono<T>> task) {
+        return stream(lane, student, () -> task.get().flux()).singleOrEmpty();
+    }
+
+    /* Runs a streaming task in a lane once a slot is free, like submit. The slot is held until the Flux of the
+       task terminates or the subscriber cancels it.
+
+       @param lane - The lane of the run.
+       @param student - The key of the student, usually the email, used for the per-student limit.
+       @param task - Creates the Flux of the code run.
+       @return A Flux with the elements of the task, it waits in the queue of the lane when subscribed.
+       @throws RejectedException - If the queue of the lane is full or the student has too many runs in flight,
+               signalled by the Flux. */
+    public <T> Flux<T> stream(Lane lane, String student, Supplier<Flux<T>> task) {
+        return Flux.create(sink -> {
+            Pending pending = new Pending(lanes.get(lane), student != null ? student : "");
+            AtomicReference<Disposable> execution = new AtomicReference<>();
+
+            pending.start = () -> {
+                execution.set(Flux.defer(task)
+                        .doFinally(signal -> release(pending))
+                        .subscribe(sink::next, sink::error, sink::complete));
+                // A cancel which arrived after the run left the queue but before it was subscribed
+                if (sink.isCancelled()) {
+                    execution.get().dispose();
+                }
+            };
+
+            sink.onCancel(() -> {
+                if (!cancelWaiting(pending)) {
+                    Disposable disposable = execution.get();
+                    if (disposable != null) {
+                        disposable.dispose();
+                    }
+                }
+            });
+
+            String rejection = enqueue(pending);
+            if (rejection != null) {
+                sink.error(new RejectedException(rejection));
+                return;
+            }
+            startAll(dispatch());
+        });
+    }
+
+    /* Retrieves the limits, queue depth, counters and wait times of each lane.
+
+       @return The stats of the GRADED and PRACTICE lanes. */
+    public synchronized List<ExecutionLaneStats> getStats() {
+        List<ExecutionLaneStats> stats = new ArrayList<>(lanes.size());
+        for (LaneState state : lanes.values()) {
+            double averageWaitMs = state.started == 0 ? 0 : state.totalWaitNanos / 1_000_000.0 / state.started;
+            stats.add(new ExecutionLaneStats(state.lane.name(), state.maxConcurrency, state.queueCapacity, state.perStudentLimit,
+                    state.running, state.queue.size(), state.submitted, state.rejected, state.completed,
+                    averageWaitMs, state.maxWaitNanos / 1_000_000.0));
+        }
+        return stats;
+    }
+
+    /* Adds a run to the queue of its lane.
+
+       @param pending - The run to add.
+       @return The reason the run was rejected, or null if it was queued. */
+    private synchronized String enqueue(Pending pending) {
+        LaneState state = pending.lane;
+
+        int inFlight = state.inFlight.getOrDefault(pending.student, 0);
+        if (inFlight >= state.perStudentLimit) {
+            state.rejected++;
+            return "You already have " + inFlight + " code run(s) in progress, please wait for them to finish";
+        }
+        if (state.queue.size() >= state.queueCapacity) {
+            state.rejected++;
+            return "Code execution is busy, please try again in a moment";
+        }
+
+        state.inFlight.put(pending.student, inFlight + 1);
+        state.queue.addLast(pending);
+        state.submitted++;
+        return null;
+    }
+
+    /* Removes a cancelled run from the queue of its lane if it has not started yet.
+
+       @param pending - The cancelled run.
+       @return true if the run was still waiting. */
+    private synchronized boolean cancelWaiting(Pending pending) {
+        LaneState state = pending.lane;
+        if (!state.queue.remove(pending)) {
+            return false;
+        }
+        decrementInFlight(state, pending.student);
+        state.completed++;
+        return true;
+    }
+
+    /* Frees the slot of a finished run and starts the runs which can take it. */
+    private void release(Pending pending) {
+        synchronized (this) {
+            LaneState state = pending.lane;
+            running--;
+            state.running--;
+            state.completed++;
+            decrementInFlight(state, pending.student);
+        }
+        startAll(dispatch());
+    }
+
+    /* Takes the runs which can start now off the queues, graded runs first.
+
+       @return The runs to start, they are started outside the lock. */
+    private synchronized List<Pending> dispatch() {
+        List<Pending> ready = new ArrayList<>();
+        while (running < maxConcurrency) {
+            Pending next = poll(lanes.get(Lane.GRADED));
+            if (next == null) {
+                next = poll(lanes.get(Lane.PRACTICE));
+            }
+            if (next == null) {
+                break;
+            }
+
+            long waitNanos = System.nanoTime() - next.enqueuedAt;
+            LaneState state = next.lane;
+            state.running++;
+            state.started++;
+            state.totalWaitNanos += waitNanos;
+            state.maxWaitNanos = Math.max(state.maxWaitNanos, waitNanos);
+            state.waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            running++;
+            ready.add(next);
+        }
+        return ready;
+    }
+
+    /* Takes the next run of a lane if the lane is under its concurrency cap. */
+    private Pending poll(LaneState state) {
+        if (state.running >= state.maxConcurrency) {
+            return null;
+        }
+        return state.queue.pollFirst();
+    }
+
+    /* Registers the meters of a lane. The gauges and counters read the lane under the scheduler lock. */
+    private void registerMeters(MeterRegistry meterRegistry, LaneState state) {
+        String lane = state.lane.name();
+        Gauge.builder("code.execution.running", this, scheduler -> scheduler.read(() -> state.running))
+                .description("Code runs of the lane executing now")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("code.execution.queued", this, scheduler -> scheduler.read(() -> state.queue.size()))
+                .description("Code runs of the lane waiting for a slot")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        FunctionCounter.builder("code.execution.submitted", this, scheduler -> scheduler.read(() -> state.submitted))
+                .description("Code runs accepted by the lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        FunctionCounter.builder("code.execution.rejected", this, scheduler -> scheduler.read(() -> state.rejected))
+                .description("Code runs rejected because the queue was full or the student had too many runs in flight")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        FunctionCounter.builder("code.execution.completed", this, scheduler -> scheduler.read(() -> state.completed))
+                .description("Code runs of the lane which finished, failed or were cancelled")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        state.waitTimer = Timer.builder("code.execution.wait")
+                .description("Time a code run waited in the queue of the lane before it started")
+                .tag("lane", lane)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private synchronized double read(Supplier<Number> value) {
+        return value.get().doubleValue();
+    }
+
+    private void decrementInFlight(LaneState state, String student) {
+        state.inFlight.computeIfPresent(student, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void startAll(List<Pending> ready) {
+        for (Pending pending : ready) {
+            pending.start.run();
+        }
+    }
+}
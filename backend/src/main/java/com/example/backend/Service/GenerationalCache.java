@@ -0,0 +1,92 @@
+package com.example.backend.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/* The GenerationalCache class is the store of the caches whose entries are built outside any lock from data
+   read from the database, like the exam papers, answer keys, scoring plans, test case bundles, verdicts and
+   exam sessions.
+
+ * Generation:
+   - Every removal increments the generation of the cache and stamps the keys it may have dropped with it. A cache
+     reads generation() before it loads the data of an entry and passes it to put, which drops the entry if a
+     removal stamped its key in between. Without it an entry built from data read before an update could be cached
+     after the update dropped the old entry, and be served until its next invalidation.
+   - removeIf may drop any key, so it stamps them all. remove(key) only stamps the keys which share a stripe with
+     the removed key, so evicting one entry does not drop the loads of the other entries in flight.
+   - Removals and puts hold the lock of the cache, so a put never lands between the increment and the removal.
+
+ * Stores:
+   - unbounded(): A ConcurrentHashMap, reads take no lock. For caches holding one entry per exam or question.
+   - lru(maxEntries): An LruMap which drops the least recently used entry first, reads take the lock because
+     they reorder the entries.
+
+ * Methods:
+   - get(K key): Returns the cached value or null.
+   - generation(): Returns the generation to pass to put, read before the data of the entry is loaded.
+   - put(K key, V value, long loadGeneration): Caches the value if nothing was removed since loadGeneration.
+   - remove(K key), removeIf(BiPredicate filter): Drop entries and increment the generation.
+   - size(): Returns the number of cached entries. */
+final class GenerationalCache<K, V> {
+
+    private static final int STRIPES = 64;
+
+    private final Map<K, V> entries;
+    private final boolean lockedReads;
+    private long generation;
+
+    // The generation of the last removeIf, and of the last remove of a key of each stripe
+    private long removedAllAt;
+    private final long[] removedAt = new long[STRIPES];
+
+    private GenerationalCache(Map<K, V> entries, boolean lockedReads) {
+        this.entries = entries;
+        this.lockedReads = lockedReads;
+    }
+
+    static <K, V> GenerationalCache<K, V> unbounded() {
+        return new GenerationalCache<>(new ConcurrentHashMap<>(), false);
+    }
+
+    static <K, V> GenerationalCache<K, V> lru(int maxEntries) {
+        return new GenerationalCache<>(new LruMap<>(maxEntries), true);
+    }
+
+    V get(K key) {
+        if (!lockedReads) {
+            return entries.get(key);
+        }
+        synchronized (this) {
+            return entries.get(key);
+        }
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized void put(K key, V value, long loadGeneration) {
+        if (removedAllAt <= loadGeneration && removedAt[stripe(key)] <= loadGeneration) {
+            entries.put(key, value);
+        }
+    }
+
+    synchronized void remove(K key) {
+        removedAt[stripe(key)] = ++generation;
+        entries.remove(key);
+    }
+
+    synchronized void removeIf(BiPredicate<? super K, ? super V> filter) {
+        removedAllAt = ++generation;
+        entries.entrySet().removeIf(entry -> filter.test(entry.getKey(), entry.getValue()));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static int stripe(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.GradedAttempt;
+import com.example.backend.Repository.ExamResultJdbcRepository;
+import com.example.backend.Repository.GradingJobJdbcRepository;
+import com.example.backend.Repository.GradingJobRepository;
+import com.example.backend.Repository.StudentExamRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* The GradingWorker class drains the grading_jobs queue filled by submitExam and writes the ExamResult of each
+   submitted student exam.
+
+ * Working:
+   - The queue is polled on the configured interval. A poll starts one worker, and a worker which claims a full
+     batch starts another one, up to the configured number of workers, so idle nodes issue one query per poll.
+   - Each batch is written in one transaction: the jobs are marked DONE with one JDBC batch and the results of
+     the jobs still claimed by this worker are inserted with a second one.
+   - A failed batch is put back to PENDING, and a job is marked FAILED after the configured number of attempts.
+   - Jobs claimed by a worker which died are released after the claim timeout. */
+@Service
+public class GradingWorker {
+
+    // Injects an instance of GradingJobJdbcRepository to claim and complete jobs
+    @Autowired
+    private GradingJobJdbcRepository gradingJobJdbcRepository;
+
+    // Injects an instance of GradingJobRepository for database operations
+    @Autowired
+    private GradingJobRepository gradingJobRepository;
+
+    // Injects an instance of StudentExamRepository for database operations
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    // Injects an instance of ExamResultJdbcRepository to write results in JDBC batches
+    @Autowired
+    private ExamResultJdbcRepository examResultJdbcRepository;
+
+    // Injects the transaction manager used to write each batch in one transaction
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Reads the number of jobs claimed at once
+    @Value("${grading.queue.batch-size:100}")
+    private int batchSize;
+
+    // Reads the number of failures after which a job is marked FAILED
+    @Value("${grading.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    // Reads the time after which a claimed job is given to another worker
+    @Value("${grading.queue.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    // Identifies this node in the claimed_by column
+    private final String workerId;
+
+    // Runs the workers of this node
+    private final ExecutorService workers;
+
+    // The maximum number of workers of this node
+    private final int workerCount;
+
+    // The number of workers currently draining the queue
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    // Create constructor with the configured number of workers
+    public GradingWorker(@Value("${grading.queue.workers:4}") int workerCount) {
+        this.workerCount = workerCount;
+        this.workers = Executors.newFixedThreadPool(workerCount);
+
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        this.workerId = host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /* Starts a worker if the queue may have pending jobs and not all workers are busy. */
+    @Scheduled(fixedDelayString = "${grading.queue.poll-interval-ms:500}")
+    public void poll() {
+        startWorker();
+    }
+
+    /* Releases the jobs claimed by workers which did not finish them in time. A timed out claim counts as a failed
+       attempt, so a job which keeps crashing or hanging its worker ends FAILED instead of being claimed forever. */
+    @Scheduled(fixedDelayString = "${grading.queue.claim-timeout-ms:300000}")
+    public void releaseStaleJobs() {
+        int released = gradingJobRepository.releaseStale(LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMs)), maxAttempts);
+        if (released > 0) {
+            System.err.println("Released " + released + " stale grading jobs");
+        }
+    }
+
+    /* Stops the workers when the application shuts down, claimed jobs are released by another node. */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /* Starts one more worker unless the maximum number of workers is already running. */
+    private void startWorker() {
+        if (activeWorkers.incrementAndGet() > workerCount) {
+            activeWorkers.decrementAndGet();
+            return;
+        }
+        try {
+            workers.execute(this::drain);
+        } catch (Exception e) {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /* Claims and grades batches until the queue is empty. */
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<long[]> jobs = gradingJobJdbcRepository.claim(workerId, batchSize);
+                if (jobs.isEmpty()) {
+                    return;
+                }
+                if (jobs.size() == batchSize) {
+                    startWorker();
+                }
+                grade(jobs);
+            }
+        } catch (Exception e) {
+            System.err.println("Grading worker stopped " + e.getMessage());
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /* Writes the results of a claimed batch in one transaction, or releases the batch if it fails.
+
+       @param jobs - The claimed jobs as rows of [job id, student exam id]. */
+    private void grade(List<long[]> jobs) {
+        List<Long> jobIds = new ArrayList<>(jobs.size());
+        List<Long> studentExamIds = new ArrayList<>(jobs.size());
+        for (long[] job : jobs) {
+            jobIds.add(job[0]);
+            studentExamIds.add(job[1]);
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Map<Long, Object[]> rows = new HashMap<>();
+                for (Object[] row : studentExamRepository.findGradingRows(studentExamIds)) {
+                    rows.put((Long) row[0], row);
+                }
+
+                int[] counts = gradingJobJdbcRepository.completeAll(workerId, jobIds);
+
+                Map<Long, List<GradedAttempt>> resultsByExam = new HashMap<>();
+                for (int i = 0; i < counts.length; i++) {
+                    Object[] row = rows.get(studentExamIds.get(i));
+                    if (counts[i] == 0 || row == null) {
+                        continue;
+                    }
+                    int marks = (int) row[3];
+                    resultsByExam.computeIfAbsent((Long) row[2], id -> new ArrayList<>())
+                            .add(new GradedAttempt((Long) row[0], (Long) row[1], marks, marks >= (int) row[4]));
+                }
+
+                resultsByExam.forEach(examResultJdbcRepository::insertAll);
+            });
+        } catch (Exception e) {
+            System.err.println("Grading of " + jobIds.size() + " submitted exams failed " + e.getMessage());
+            gradingJobJdbcRepository.failAll(workerId, jobIds, maxAttempts, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.backend.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/* The Judge0Client class sends the requests of the Judge0CodeExecutor and keeps a slow or failing Judge0 from
+   holding the code runs of every student.
+
+ * Working:
+   - Every request has a timeout. A submission sent with wait=true runs the code before Judge0 answers, so it has
+     the longer judge0.submit-timeout-ms, the other requests have judge0.request-timeout-ms.
+   - A circuit breaker counts the outcome of the last judge0.breaker.window-size requests. When at least
+     judge0.breaker.minimum-calls of them finished and the share of failures reaches
+     judge0.breaker.failure-rate-threshold percent, it opens: for judge0.breaker.open-duration-ms every request
+     fails at once with an UnavailableException instead of waiting for its timeout. Then it lets
+     judge0.breaker.half-open-calls trial requests through, it closes if they all succeed and opens again if
+     one fails.
+   - Only errors of the service count as failures: timeouts, connection errors, 5xx and 429 responses. A 4xx
+     response is an error of the request, it is reported but does not open the breaker.
+   - Polling a batch only reads it, so it can be sent twice. When judge0.hedge.enabled is set and a poll did not
+     answer after judge0.hedge.delay-ms, a second one is sent and the first answer is used.
+   - The latency of every request is recorded in the judge0.request timer with a percentile histogram, tagged
+     with the operation, the language of the code and the outcome: success, client_error, server_error,
+     timeout or rejected. The breaker state is the judge0.breaker.state gauge, 0 closed, 1 open, 2 half open. */
+@Service
+@ConditionalOnProperty(name = "code-executor.type", havingValue = "judge0", matchIfMissing = true)
+public class Judge0Client {
+
+    /* Signals that a request was not sent because the circuit breaker is open. The controllers answer it with
+       503 Service Unavailable. */
+    public static class UnavailableException extends RuntimeException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    // Signals a response with an unsuccessful status, failure tells whether it counts against the breaker
+    private static class ResponseException extends RuntimeException {
+        private final boolean failure;
+
+        private ResponseException(String message, boolean failure) {
+            super(message);
+            this.failure = failure;
+        }
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // Data fields of this class
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final String apiHost;
+    private final String apiKey;
+    private final Duration submitTimeout;
+    private final Duration requestTimeout;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeDelay;
+
+    // Breaker configuration
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    // Breaker state, guarded by this. The window is a ring of the last outcomes, true for a failure.
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    // Create constructor with the configured endpoint, timeouts, breaker and hedging settings
+    public Judge0Client(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry,
+                        @Value("${judge0.base-url:https://judge0-ce.p.rapidapi.com}") String baseUrl,
+                        @Value("${judge0.api-host:judge0-ce.p.rapidapi.com}") String apiHost,
+                        @Value("${judge0.api.key}") String apiKey,
+                        @Value("${judge0.submit-timeout-ms:20000}") long submitTimeoutMs,
+                        @Value("${judge0.request-timeout-ms:5000}") long requestTimeoutMs,
+                        @Value("${judge0.breaker.window-size:20}") int windowSize,
+                        @Value("${judge0.breaker.minimum-calls:10}") int minimumCalls,
+                        @Value("${judge0.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                        @Value("${judge0.breaker.open-duration-ms:30000}") long openDurationMs,
+                        @Value("${judge0.breaker.half-open-calls:3}") int halfOpenCalls,
+                        @Value("${judge0.hedge.enabled:true}") boolean hedgeEnabled,
+                        @Value("${judge0.hedge.delay-ms:1000}") long hedgeDelayMs) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.meterRegistry = meterRegistry;
+        this.apiHost = apiHost;
+        this.apiKey = apiKey;
+        this.submitTimeout = Duration.ofMillis(submitTimeoutMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelay = Duration.ofMillis(hedgeDelayMs);
+        this.window = new boolean[windowSize];
+
+        meterRegistry.gauge("judge0.breaker.state", this, client -> client.getState().ordinal());
+    }
+
+    /* Sends one submission with wait=true, Judge0 answers when the code finished.
+
+       @param language - The language name, used as a metric tag.
+       @param body - The submission.
+       @return A Mono with the response body. */
+    public Mono<String> submit(String language, Map<String, Object> body) {
+        return call("submit", language, submitTimeout, false,
+                () -> webClient.post().uri("/submissions?base64_encoded=false&wait=true&field=*").bodyValue(body));
+    }
+
+    /* Creates a batch of submissions.
+
+       @param language - The language name, used as a metric tag.
+       @param body - The batch with its submissions.
+       @return A Mono with the response body, the tokens of the submissions. */
+    public Mono<String> createBatch(String language, Map<String, Object> body) {
+        return call("create_batch", language, requestTimeout, false,
+                () -> webClient.post().uri("/submissions/batch?base64_encoded=false").bodyValue(body));
+    }
+
+    /* Fetches the submissions of a batch, hedged when enabled.
+
+       @param language - The language name, used as a metric tag.
+       @param tokens - The comma separated tokens of the submissions.
+       @return A Mono with the response body. */
+    public Mono<String> pollBatch(String language, String tokens) {
+        return call("poll_batch", language, requestTimeout, hedgeEnabled,
+                () -> webClient.get().uri("/submissions/batch?tokens=" + tokens
+                        + "&base64_encoded=false&fields=token,stdout,stderr,compile_output,status,time,memory"));
+    }
+
+    /* Returns the state of the circuit breaker, an open breaker whose open duration passed is half open. */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /* Sends a request through the circuit breaker with a timeout and records its latency.
+
+       @param operation - The name of the operation, used as a metric tag.
+       @param language - The language name, used as a metric tag.
+       @param timeout - The time after which an attempt fails.
+       @param hedged - Whether a second attempt is sent when the first did not answer after the hedge delay.
+       @param request - Builds the request, called once per attempt.
+       @return A Mono with the response body. */
+    private Mono<String> call(String operation, String language, Duration timeout, boolean hedged,
+                              Supplier<WebClient.RequestHeadersSpec<?>> request) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                record(operation, language, "rejected", 0);
+                return Mono.error(new UnavailableException("Code execution service is unavailable, please try again later"));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            Mono<String> attempt = Mono.defer(() -> exchange(request.get()).timeout(timeout));
+            Mono<String> exchange = hedged
+                    ? Mono.firstWithValue(attempt, Mono.delay(hedgeDelay).then(attempt))
+                    : attempt;
+
+            return exchange
+                    .onErrorMap(NoSuchElementException.class, e -> e.getCause() != null
+                            ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e)
+                    .doOnSuccess(body -> {
+                        if (done.compareAndSet(false, true)) {
+                            onResult(false);
+                            record(operation, language, "success", System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (done.compareAndSet(false, true)) {
+                            boolean failure = isFailure(e);
+                            onResult(failure);
+                            record(operation, language, outcome(e), System.nanoTime() - start);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (done.compareAndSet(false, true)) {
+                            onCancel();
+                        }
+                    })
+                    .onErrorMap(TimeoutException.class,
+                            e -> new RuntimeException("Code execution service did not respond in time", e));
+        });
+    }
+
+    /* Sends a request with the RapidAPI headers.
+
+       @param request - The request to send.
+       @return A Mono with the response body, or a ResponseException if the response status is not successful. */
+    private Mono<String> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request
+                .headers(httpHeaders -> {
+                    httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+                    httpHeaders.set("X-RapidAPI-Host", apiHost);
+                    httpHeaders.set("X-RapidAPI-Key", apiKey);
+                })
+                .exchangeToMono(clientResponse -> {
+                    if (clientResponse.statusCode().is2xxSuccessful()) {
+                        return clientResponse.bodyToMono(String.class).defaultIfEmpty("");
+                    }
+                    boolean failure = clientResponse.statusCode().is5xxServerError() || clientResponse.statusCode().value() == 429;
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(String.valueOf(clientResponse.statusCode().value()))
+                            .flatMap(errorBody -> Mono.error(new ResponseException("API call failed " + errorBody, failure)));
+                });
+    }
+
+    // Checks whether an error is an error of the service which counts against the breaker
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof ResponseException responseException) {
+            return responseException.failure;
+        }
+        return e instanceof TimeoutException || e instanceof IOException || e.getCause() instanceof IOException
+                || e instanceof WebClientRequestException;
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof ResponseException responseException && !responseException.failure) {
+            return "client_error";
+        }
+        return "server_error";
+    }
+
+    private void record(String operation, String language, String outcome, long nanos) {
+        Timer.builder("judge0.request")
+                .description("Latency of the requests sent to Judge0")
+                .tag("operation", operation)
+                .tag("language", language != null ? language : "unknown")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /* Checks whether a request may be sent: always when closed, never while open, and as one of the trial
+       requests when half open. */
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenStarted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenStarted++;
+        }
+        return true;
+    }
+
+    // Counts the outcome of a finished request and moves the breaker to its next state
+    private synchronized void onResult(boolean failure) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % windowSize;
+
+        if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    // Gives back the slot of a trial request which was cancelled before it finished
+    private synchronized void onCancel() {
+        if (state == State.HALF_OPEN && halfOpenStarted > halfOpenSucceeded) {
+            halfOpenStarted--;
+        }
+    }
+
+    private void open() {
+        System.err.println("Judge0 circuit breaker opened for " + openDurationMs + " ms");
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openDurationMs;
+        resetWindow();
+    }
+
+    private void close() {
+        System.err.println("Judge0 circuit breaker closed");
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
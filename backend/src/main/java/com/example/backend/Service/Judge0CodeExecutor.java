@@ -0,0 +1,239 @@
+package com.example.backend.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/* The Judge0CodeExecutor class runs student code on the Judge0 API hosted on RapidAPI.
+   It is the default CodeExecutor, used when code-executor.type is judge0 or not set.
+
+ * Working:
+   - A single run is sent with wait=true and the result is in the response.
+   - A batch of runs is created with one request to /submissions/batch, then the tokens are polled together with
+     an exponential backoff until every submission is finished. Judge0 limits the size of a batch, so larger
+     batches are sent in chunks of judge0.max-batch-size.
+   - Each poll emits the submissions which finished in input order and polls only the tokens still running, so a
+     streamed batch reports its runs as they finish. A chunk is only created once the previous chunk finished,
+     so cancelling a stream saves the chunks which were not sent.
+   - The exchanges are composed on the WebClient without blocking, the waits between polls are timers, so a
+     running submission holds no thread. The blocking methods subscribe to the same pipelines and wait.
+   - The requests are sent by the Judge0Client, which adds the timeouts, the circuit breaker, hedged polls and
+     the latency metrics. */
+@Service
+@ConditionalOnProperty(name = "code-executor.type", havingValue = "judge0", matchIfMissing = true)
+public class Judge0CodeExecutor implements CodeExecutor {
+
+    // Data fields of this class
+    private final Judge0Client judge0Client;
+    private final ObjectMapper objectMapper;
+    Map<String, Integer> languagemap = new HashMap<>();
+
+    // Reads the maximum number of submissions Judge0 accepts in one batch
+    @Value("${judge0.max-batch-size:20}")
+    private int maxBatchSize;
+
+    // Reads the first delay between polls of a batch, it doubles after every poll
+    @Value("${judge0.poll-initial-delay-ms:250}")
+    private long pollInitialDelayMs;
+
+    // Reads the maximum delay between polls of a batch
+    @Value("${judge0.poll-max-delay-ms:2000}")
+    private long pollMaxDelayMs;
+
+    // Reads the time after which a batch which is not finished fails
+    @Value("${judge0.poll-timeout-ms:30000}")
+    private long pollTimeoutMs;
+
+    // Create constructor with arguments judge0Client and objectMapper
+    @Autowired
+    public Judge0CodeExecutor(Judge0Client judge0Client, ObjectMapper objectMapper) {
+        this.judge0Client = judge0Client;
+        this.objectMapper = objectMapper;
+
+        languagemap.put("cpp", 105);
+        languagemap.put("java", 91);
+        languagemap.put("javascript", 102);
+        languagemap.put("python", 71);
+        languagemap.put("c", 103);
+    }
+
+    @Override
+    public boolean supports(String language) {
+        return language != null && languagemap.containsKey(language);
+    }
+
+    /* Executes a given source code on the Judge0 API and waits for the result.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, mapped to the Judge0 language ID.
+       @param stdin - The input for the program.
+       @return The result of the code execution.
+       @throws RuntimeException - If the API call or response processing fails. */
+    @Override
+    public Map<String, Object> execute(String sourceCode, String language, String stdin) {
+        return executeAsync(sourceCode, language, stdin).block();
+    }
+
+    /* Executes a given source code once for each input with the Judge0 batch API and waits for all results.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, mapped to the Judge0 language ID.
+       @param stdins - The inputs, one submission per input.
+       @return The result of each submission, in the order of the inputs.
+       @throws RuntimeException - If the API call fails or the batch does not finish in time. */
+    @Override
+    public List<Map<String, Object>> executeBatch(String sourceCode, String language, List<String> stdins) {
+        return executeBatchAsync(sourceCode, language, stdins).block();
+    }
+
+    /* Executes a given source code on the Judge0 API without blocking.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, mapped to the Judge0 language ID.
+       @param stdin - The input for the program.
+       @return A Mono with the result of the code execution. */
+    @Override
+    public Mono<Map<String, Object>> executeAsync(String sourceCode, String language, String stdin) {
+        return judge0Client.submit(language, submission(sourceCode, language, stdin))
+                .map(response -> this.<Map<String, Object>>read(response, new TypeReference<>() {}))
+                .onErrorMap(this::toRuntimeException);
+    }
+
+    /* Executes a given source code once for each input with the Judge0 batch API without blocking.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, mapped to the Judge0 language ID.
+       @param stdins - The inputs, one submission per input.
+       @return A Mono with the result of each submission, in the order of the inputs. */
+    @Override
+    public Mono<List<Map<String, Object>>> executeBatchAsync(String sourceCode, String language, List<String> stdins) {
+        return executeStream(sourceCode, language, stdins).collectList();
+    }
+
+    /* Executes a given source code once for each input with the Judge0 batch API and emits each result as soon
+       as it and the results before it are finished.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name, mapped to the Judge0 language ID.
+       @param stdins - The inputs, one submission per input.
+       @return A Flux with the result of each submission, in the order of the inputs. */
+    @Override
+    public Flux<Map<String, Object>> executeStream(String sourceCode, String language, List<String> stdins) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < stdins.size(); from += maxBatchSize) {
+            chunks.add(stdins.subList(from, Math.min(stdins.size(), from + maxBatchSize)));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> executeChunk(sourceCode, language, chunk))
+                .onErrorMap(this::toRuntimeException);
+    }
+
+    /* Creates one batch of submissions and polls its tokens until every submission is finished.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdins - The inputs of this batch, at most maxBatchSize.
+       @return A Flux with the result of each submission, in the order of the inputs. */
+    private Flux<Map<String, Object>> executeChunk(String sourceCode, String language, List<String> stdins) {
+
+        List<Map<String, Object>> submissions = new ArrayList<>(stdins.size());
+        for (String stdin : stdins) {
+            submissions.add(submission(sourceCode, language, stdin));
+        }
+
+        return judge0Client.createBatch(language, Map.of("submissions", submissions))
+                .map(created -> {
+                    List<Map<String, Object>> tokens = read(created, new TypeReference<>() {});
+                    for (Map<String, Object> token : tokens) {
+                        if (token.get("token") == null) {
+                            throw new RuntimeException("API call failed " + token);
+                        }
+                    }
+                    return tokens.stream().map(token -> (String) token.get("token")).collect(Collectors.toList());
+                })
+                .flatMapMany(tokens -> poll(language, tokens, pollInitialDelayMs, System.currentTimeMillis() + pollTimeoutMs));
+    }
+
+    /* Waits for the delay, then fetches the submissions which are not finished yet, emits the finished ones at
+       the start of the list and polls the rest again with a doubled delay until every submission is finished or
+       the deadline passes.
+
+       @param language - The language name.
+       @param tokens - The tokens of the submissions which are not finished, in input order.
+       @param delay - The delay before this poll in milliseconds.
+       @param deadline - The time after which the batch fails.
+       @return A Flux with the finished submissions, in input order. */
+    private Flux<Map<String, Object>> poll(String language, List<String> tokens, long delay, long deadline) {
+        return Mono.delay(Duration.ofMillis(delay))
+                .then(judge0Client.pollBatch(language, String.join(",", tokens)))
+                .flatMapMany(polled -> {
+                    Map<String, List<Map<String, Object>>> body = read(polled, new TypeReference<>() {});
+                    List<Map<String, Object>> results = body.get("submissions");
+
+                    int finished = 0;
+                    while (finished < results.size() && isFinished(results.get(finished))) {
+                        finished++;
+                    }
+
+                    Flux<Map<String, Object>> ready = Flux.fromIterable(results.subList(0, finished));
+                    if (finished == results.size()) {
+                        return ready;
+                    }
+                    if (System.currentTimeMillis() > deadline) {
+                        return ready.concatWith(Mono.error(new RuntimeException("Code execution did not finish in time")));
+                    }
+                    return ready.concatWith(poll(language, tokens.subList(finished, tokens.size()), Math.min(delay * 2, pollMaxDelayMs), deadline));
+                });
+    }
+
+    /* Checks whether a Judge0 submission left the In Queue (1) and Processing (2) states. */
+    private boolean isFinished(Map<String, Object> result) {
+        Object status = result.get("status");
+        if (!(status instanceof Map<?, ?> statusMap) || !(statusMap.get("id") instanceof Number id)) {
+            return false;
+        }
+        return id.intValue() > 2;
+    }
+
+    /* Builds the body of one Judge0 submission. */
+    private Map<String, Object> submission(String sourceCode, String language, String stdin) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("source_code", sourceCode);
+        body.put("language_id", languagemap.get(language));
+        body.put("stdin", stdin);
+        return body;
+    }
+
+    /* Parses a JSON response body. */
+    private <T> T read(String response, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (Exception e) {
+            throw new RuntimeException("Error processing response " + e.getMessage(), e);
+        }
+    }
+
+    /* Logs a failed call and maps it to the RuntimeException reported to the student. */
+    private Throwable toRuntimeException(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            System.err.println("API call failed " + responseException.getResponseBodyAsString());
+            return new RuntimeException("API call failed " + responseException.getResponseBodyAsString());
+        }
+        System.err.println("Error processing response " + e.getMessage());
+        return e instanceof RuntimeException ? e : new RuntimeException("Error processing response " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.backend.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/* The LocalCodeExecutor class runs student code in local processes instead of calling the Judge0 API.
+   It is used when code-executor.type is local, for example to run and load-test code grading on our own machines.
+
+ * Working:
+   - Every run gets its own temporary directory holding the source, the compiled program, stdin, stdout and stderr,
+     and the directory is deleted after the run.
+   - Compiled languages are compiled first, a failed compilation is reported as a Judge0 compilation error.
+     A batch of inputs is compiled once and then run once per input, in the same directory and on the same worker.
+     A streamed batch emits each result when its run ends and skips the remaining inputs once it is cancelled.
+   - The program runs under a shell which sets rlimits for CPU time, virtual memory and output file size before
+     exec'ing it, and it is killed when the wall-clock limit is reached. A compiler runs under the same shell with
+     the compile time limit as its CPU time limit, as compiling takes far more CPU than the run limit allows. The JVM reserves more virtual memory than
+     it uses, so Java is limited with -Xmx instead of the virtual memory rlimit, and Node.js likewise with its heap size flag.
+   - Runs are executed by a fixed pool of workers with a bounded queue, a run is rejected when the queue is full.
+
+ * The limits only cap resources, they do not isolate the program from the machine, so this executor must run
+   on machines or containers dedicated to it. The compilers and runtimes (gcc, g++, javac, java, node, python3)
+   must be on the PATH. */
+@Service
+@ConditionalOnProperty(name = "code-executor.type", havingValue = "local")
+public class LocalCodeExecutor implements CodeExecutor {
+
+    // Judge0 status ids reported by this executor
+    private static final int STATUS_ACCEPTED = 3;
+    private static final int STATUS_TIME_LIMIT_EXCEEDED = 5;
+    private static final int STATUS_COMPILATION_ERROR = 6;
+    private static final int STATUS_RUNTIME_ERROR = 11;
+
+    // Exit codes of a process killed by SIGKILL or SIGXCPU, as reported by the shell
+    private static final int EXIT_SIGKILL = 128 + 9;
+    private static final int EXIT_SIGXCPU = 128 + 24;
+
+    /* How a language is compiled and run inside the run directory. */
+    private record Language(String sourceFile, List<String> compileCommand, List<String> runCommand, boolean limitVirtualMemory) {
+    }
+
+    // Languages keyed by the names used in the requests
+    private final Map<String, Language> languages = new HashMap<>();
+
+    // Runs the executions with a bounded queue
+    private final ThreadPoolExecutor workers;
+
+    // Reads the CPU time limit of a run
+    @Value("${code-executor.local.cpu-time-limit-seconds:2}")
+    private int cpuTimeLimitSeconds;
+
+    // Reads the wall-clock limit of a run, it also covers time spent waiting on input or sleeping
+    @Value("${code-executor.local.wall-time-limit-seconds:5}")
+    private int wallTimeLimitSeconds;
+
+    // Reads the wall-clock limit of a compilation, also used as its CPU time limit
+    @Value("${code-executor.local.compile-time-limit-seconds:15}")
+    private int compileTimeLimitSeconds;
+
+    // The memory limit of a run
+    private final int memoryLimitMb;
+
+    // Reads the maximum size of stdout and stderr
+    @Value("${code-executor.local.max-output-kb:1024}")
+    private int maxOutputKb;
+
+    // Create constructor with the configured number of workers and queue capacity
+    public LocalCodeExecutor(@Value("${code-executor.local.workers:4}") int workerCount,
+                             @Value("${code-executor.local.queue-capacity:64}") int queueCapacity,
+                             @Value("${code-executor.local.memory-limit-mb:256}") int memoryLimitMb) {
+        this.memoryLimitMb = memoryLimitMb;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+
+        languages.put("c", new Language("main.c",
+                List.of("gcc", "-O2", "-o", "main", "main.c", "-lm"), List.of("./main"), true));
+        languages.put("cpp", new Language("main.cpp",
+                List.of("g++", "-O2", "-o", "main", "main.cpp"), List.of("./main"), true));
+        languages.put("java", new Language("Main.java",
+                List.of("javac", "Main.java"), List.of("java", "-Xmx" + memoryLimitMb + "m", "-Xss64m", "-cp", ".", "Main"), false));
+        languages.put("python", new Language("main.py",
+                null, List.of("python3", "main.py"), true));
+        languages.put("javascript", new Language("main.js",
+                null, List.of("node", "--max-old-space-size=" + memoryLimitMb, "main.js"), false));
+    }
+
+    @Override
+    public boolean supports(String language) {
+        return language != null && languages.containsKey(language);
+    }
+
+    /* Runs source code in a local process on one of the workers and waits for the result.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdin - The input for the program.
+       @return The result with the Judge0 fields stdout, stderr, compile_output, status, time and memory.
+       @throws RuntimeException - If the queue is full or the run could not be started. */
+    @Override
+    public Map<String, Object> execute(String sourceCode, String language, String stdin) {
+        return executeBatch(sourceCode, language, List.of(stdin == null ? "" : stdin)).get(0);
+    }
+
+    /* Compiles source code once and runs it once for each input, on one of the workers, and waits for the results.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdins - The inputs, one run per input.
+       @return The result of each run, in the order of the inputs.
+       @throws RuntimeException - If the queue is full or the runs could not be started. */
+    @Override
+    public List<Map<String, Object>> executeBatch(String sourceCode, String language, List<String> stdins) {
+        return executeBatchAsync(sourceCode, language, stdins).block();
+    }
+
+    /* Runs source code on one of the workers without blocking the caller.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdin - The input for the program.
+       @return A Mono with the result of the run. */
+    @Override
+    public Mono<Map<String, Object>> executeAsync(String sourceCode, String language, String stdin) {
+        return executeBatchAsync(sourceCode, language, List.of(stdin == null ? "" : stdin)).map(results -> results.get(0));
+    }
+
+    /* Compiles source code once and runs it once for each input on one of the workers, the returned Mono
+       completes from the worker so no other thread waits for the run.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdins - The inputs, one run per input.
+       @return A Mono with the result of each run, in the order of the inputs. */
+    @Override
+    public Mono<List<Map<String, Object>>> executeBatchAsync(String sourceCode, String language, List<String> stdins) {
+        return Mono.defer(() -> {
+            Language lang = languages.get(language);
+            if (lang == null) {
+                return Mono.error(new IllegalArgumentException("Invalid language ID: " + language));
+            }
+
+            CompletableFuture<List<Map<String, Object>>> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        List<Map<String, Object>> results = new ArrayList<>(stdins.size());
+                        run(lang, sourceCode, stdins, results::add, new AtomicBoolean());
+                        return results;
+                    } catch (Exception e) {
+                        System.err.println("Error executing code " + e.getMessage());
+                        throw new CompletionException(new RuntimeException("Error executing code " + e.getMessage(), e));
+                    }
+                }, workers);
+            } catch (RejectedExecutionException e) {
+                return Mono.error(new RuntimeException("Code execution queue is full, try again later"));
+            }
+            return Mono.fromFuture(future);
+        });
+    }
+
+    /* Compiles source code once on one of the workers and runs it once for each input, emitting each result from
+       the worker when its run ends. Inputs which did not start when the Flux is cancelled are skipped.
+
+       @param sourceCode - The source code to execute.
+       @param language - The language name.
+       @param stdins - The inputs, one run per input.
+       @return A Flux with the result of each run, in the order of the inputs. */
+    @Override
+    public Flux<Map<String, Object>> executeStream(String sourceCode, String language, List<String> stdins) {
+        return Flux.create(sink -> {
+            Language lang = languages.get(language);
+            if (lang == null) {
+                sink.error(new IllegalArgumentException("Invalid language ID: " + language));
+                return;
+            }
+
+            AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onCancel(() -> cancelled.set(true));
+            try {
+                workers.execute(() -> {
+                    try {
+                        run(lang, sourceCode, stdins, sink::next, cancelled);
+                        sink.complete();
+                    } catch (Exception e) {
+                        System.err.println("Error executing code " + e.getMessage());
+                        sink.error(new RuntimeException("Error executing code " + e.getMessage(), e));
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sink.error(new RuntimeException("Code execution queue is full, try again later"));
+            }
+        });
+    }
+
+    /* Stops the workers when the application shuts down. */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /* Compiles the code once in a new temporary directory and runs it for each input.
+
+       @param lang - The language of the code.
+       @param sourceCode - The source code to execute.
+       @param stdins - The inputs for the program.
+       @param results - Receives the result of each run, in the order of the inputs.
+       @param cancelled - Set when the remaining inputs must not be run. */
+    private void run(Language lang, String sourceCode, List<String> stdins, Consumer<Map<String, Object>> results,
+                     AtomicBoolean cancelled) throws Exception {
+        Path dir = Files.createTempDirectory("code-run-");
+        try {
+            Files.writeString(dir.resolve(lang.sourceFile()), sourceCode, StandardCharsets.UTF_8);
+
+            if (lang.compileCommand() != null) {
+                ProcessResult compile = start(dir, lang.compileCommand(), false, compileTimeLimitSeconds, compileTimeLimitSeconds,
+                        "compile", new File("/dev/null"));
+                if (compile.timedOut || compile.exitCode != 0) {
+                    String message = compile.timedOut ? "Compilation time limit exceeded" : compile.stdout + compile.stderr;
+                    for (int i = 0; i < stdins.size() && !cancelled.get(); i++) {
+                        results.accept(result(null, null, message, STATUS_COMPILATION_ERROR, "Compilation Error", compile.seconds));
+                    }
+                    return;
+                }
+            }
+
+            for (int i = 0; i < stdins.size() && !cancelled.get(); i++) {
+                Path input = dir.resolve("stdin-" + i + ".txt");
+                Files.writeString(input, stdins.get(i) == null ? "" : stdins.get(i), StandardCharsets.UTF_8);
+
+                ProcessResult run = start(dir, lang.runCommand(), lang.limitVirtualMemory(), cpuTimeLimitSeconds, wallTimeLimitSeconds,
+                        "run-" + i, input.toFile());
+
+                if (run.timedOut || run.exitCode == EXIT_SIGXCPU || run.exitCode == EXIT_SIGKILL) {
+                    results.accept(result(emptyToNull(run.stdout), emptyToNull(run.stderr), null,
+                            STATUS_TIME_LIMIT_EXCEEDED, "Time Limit Exceeded", run.seconds));
+                } else if (run.exitCode != 0) {
+                    results.accept(result(emptyToNull(run.stdout), emptyToNull(run.stderr), null,
+                            STATUS_RUNTIME_ERROR, "Runtime Error (NZEC)", run.seconds));
+                } else {
+                    results.accept(result(emptyToNull(run.stdout), emptyToNull(run.stderr), null, STATUS_ACCEPTED, "Accepted", run.seconds));
+                }
+            }
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    /* The outcome of one process. */
+    private static class ProcessResult {
+        int exitCode;
+        boolean timedOut;
+        String stdout;
+        String stderr;
+        double seconds;
+    }
+
+    /* Starts a command under a shell which applies the rlimits, and waits for it up to the wall-clock limit.
+
+       @param dir - The run directory, used as working directory.
+       @param command - The command to execute.
+       @param limitVirtualMemory - Whether to apply the virtual memory rlimit.
+       @param cpuTimeSeconds - The CPU time rlimit.
+       @param wallTimeSeconds - The wall-clock limit.
+       @param name - The prefix of the output files.
+       @param input - The file sent to the standard input.
+       @return The outcome of the process. */
+    private ProcessResult start(Path dir, List<String> command, boolean limitVirtualMemory, int cpuTimeSeconds, int wallTimeSeconds,
+                                String name, File input) throws IOException, InterruptedException {
+        // ulimit -f counts 512 byte blocks in POSIX shells
+        String limits = "ulimit -t " + cpuTimeSeconds + "; ulimit -f " + (maxOutputKb * 2) + "; "
+                + (limitVirtualMemory ? "ulimit -v " + (memoryLimitMb * 1024) + "; " : "")
+                + "exec \"$@\"";
+
+        List<String> shellCommand = new ArrayList<>(List.of("/bin/sh", "-c", limits, "sh"));
+        shellCommand.addAll(command);
+
+        File stdout = dir.resolve(name + "-stdout.txt").toFile();
+        File stderr = dir.resolve(name + "-stderr.txt").toFile();
+
+        ProcessBuilder builder = new ProcessBuilder(shellCommand)
+                .directory(dir.toFile())
+                .redirectInput(input)
+                .redirectOutput(stdout)
+                .redirectError(stderr);
+        builder.environment().keySet().retainAll(Set.of("PATH", "LANG", "JAVA_HOME"));
+        builder.environment().put("HOME", dir.toString());
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+        ProcessResult result = new ProcessResult();
+        try {
+            if (!process.waitFor(wallTimeSeconds, TimeUnit.SECONDS)) {
+                result.timedOut = true;
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly().waitFor();
+            } else {
+                result.exitCode = process.exitValue();
+            }
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+
+        result.seconds = (System.nanoTime() - started) / 1e9;
+        result.stdout = readCapped(stdout.toPath());
+        result.stderr = readCapped(stderr.toPath());
+        return result;
+    }
+
+    /* Reads an output file, up to the maximum output size. */
+    private String readCapped(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return "";
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int length = Math.min(bytes.length, maxOutputKb * 1024);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /* Builds a result with the fields of a Judge0 submission. */
+    private Map<String, Object> result(String stdout, String stderr, String compileOutput, int statusId, String description, double seconds) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("id", statusId);
+        status.put("description", description);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("stdout", stdout);
+        result.put("stderr", stderr);
+        result.put("compile_output", compileOutput);
+        result.put("status", status);
+        result.put("time", String.format(Locale.ROOT, "%.3f", seconds));
+        result.put("memory", null);
+        return result;
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /* Deletes the run directory and everything in it. */
+    private void deleteRecursively(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + dir + " " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.Service;
+
+/* The LongLongHashMap class is a small open-addressing hash map from primitive long keys to primitive long values.
+   It is used by the per-exam caches on the grading path, where lookups must not box ids or allocate.
+
+ * Details:
+   - Keys must be positive, which holds for the database ids stored in it. 0 marks an empty slot.
+   - The table size is a power of two at least twice the expected size, collisions are resolved by linear probing.
+   - The map is filled once when the cache entry is built and is only read afterwards, so it is safe to share
+     between threads once it is published. */
+public final class LongLongHashMap {
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private int size;
+
+    /* Creates a map that can hold the expected number of entries without resizing.
+
+       @param expectedSize - The number of entries that will be put in the map. */
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /* Puts a value for the key, replacing an existing value.
+
+       @param key - A positive key.
+       @param value - The value to store.
+       @throws IllegalArgumentException - If the key is not positive.
+       @throws IllegalStateException - If the map is full. */
+    public void put(long key, long value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            if (size == keys.length - 1) {
+                throw new IllegalStateException("LongLongHashMap is full");
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /* Returns the value of the key.
+
+       @param key - The key to look up.
+       @param missingValue - The value returned when the key is not in the map.
+       @return The value of the key or missingValue. */
+    public long get(long key, long missingValue) {
+        if (key <= 0) {
+            return missingValue;
+        }
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : missingValue;
+    }
+
+    /* Checks whether the key is in the map.
+
+       @param key - The key to look up.
+       @return true if the key is in the map. */
+    public boolean containsKey(long key) {
+        return key > 0 && keys[slot(key)] == key;
+    }
+
+    /* Returns the number of entries in the map. */
+    public int size() {
+        return size;
+    }
+
+    /* Finds the slot holding the key, or the empty slot where it would be inserted. */
+    private int slot(long key) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* The LruMap class is a LinkedHashMap in access order which drops its least recently used entry once it holds
+   more than maxEntries entries. It is the bounded store of the in-memory caches and is not thread safe, the
+   caches guard it with their own lock. */
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maxEntries;
+
+    LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend.Service;
+
+import java.util.List;
+
+/* The McqAnswerKey class is the immutable answer key of the MCQ questions of one exam.
+   It maps each question id to the id and text of its correct option, so checking an answer on the save path
+   is a primitive map lookup and a case-insensitive compare, without loading options or allocating.
+
+ * Fields:
+   - slots: Maps a question id to the index of its correct option in the arrays below.
+   - correctOptionIds: The id of the correct option of each question.
+   - correctOptionTexts: The text of the correct option of each question, the student answer contains the option text. */
+public final class McqAnswerKey {
+
+    private final LongLongHashMap slots;
+    private final long[] correctOptionIds;
+    private final String[] correctOptionTexts;
+
+    /* Builds the key from rows of [question id, correct option id, correct option text].
+
+       @param rows - The correct options of the MCQ questions of an exam. */
+    public McqAnswerKey(List<Object[]> rows) {
+        this.slots = new LongLongHashMap(rows.size());
+        this.correctOptionIds = new long[rows.size()];
+        this.correctOptionTexts = new String[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            slots.put((Long) row[0], i);
+            correctOptionIds[i] = (Long) row[1];
+            correctOptionTexts[i] = (String) row[2];
+        }
+    }
+
+    /* Returns the id of the correct option of a question.
+
+       @param questionId - The ID of the MCQ question.
+       @return The id of the correct option, or -1 if the question is not part of the exam. */
+    public long correctOptionId(long questionId) {
+        long slot = slots.get(questionId, -1);
+        return slot < 0 ? -1 : correctOptionIds[(int) slot];
+    }
+
+    /* Checks whether an answer is the correct option of a question.
+
+       @param questionId - The ID of the MCQ question.
+       @param answer - The option text chosen by the student.
+       @return true if the answer matches the correct option, ignoring case. */
+    public boolean isCorrect(long questionId, String answer) {
+        long slot = slots.get(questionId, -1);
+        return slot >= 0 && answer != null && correctOptionTexts[(int) slot].equalsIgnoreCase(answer);
+    }
+
+    /* Checks whether the key contains a question.
+
+       @param questionId - The ID of the MCQ question.
+       @return true if the question is part of the key. */
+    public boolean contains(long questionId) {
+        return slots.containsKey(questionId);
+    }
+}
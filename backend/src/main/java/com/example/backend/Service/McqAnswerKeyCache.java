@@ -0,0 +1,57 @@
+package com.example.backend.Service;
+
+import com.example.backend.Repository.McqOptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/* The McqAnswerKeyCache class holds the McqAnswerKey of every running exam.
+
+ * Lifecycle:
+   - The key of an exam is built when the exam moves to STARTED, and built on first use if it is missing,
+     for example after a restart.
+   - The keys containing a question are dropped when that question is updated or deleted, and rebuilt on next use.
+   - The key of an exam is dropped when the exam is completed or deleted. */
+@Service
+public class McqAnswerKeyCache {
+
+    // Injects an instance of McqOptionRepository for database operations
+    @Autowired
+    private McqOptionRepository mcqOptionRepository;
+
+    // Answer keys of the running exams, keyed by exam id
+    private final GenerationalCache<Long, McqAnswerKey> keys = GenerationalCache.unbounded();
+
+    /* Returns the answer key of an exam, building it if it is not cached.
+
+       @param examId - The ID of the exam.
+       @return The answer key of the exam. */
+    public McqAnswerKey get(long examId) {
+        McqAnswerKey key = keys.get(examId);
+        return key != null ? key : build(examId);
+    }
+
+    /* Builds the answer key of an exam with one query and caches it.
+
+       @param examId - The ID of the exam.
+       @return The built answer key. */
+    public McqAnswerKey build(long examId) {
+        long buildGeneration = keys.generation();
+        McqAnswerKey key = new McqAnswerKey(mcqOptionRepository.findCorrectOptionsByExamId(examId));
+        keys.put(examId, key, buildGeneration);
+        return key;
+    }
+
+    /* Drops the answer keys which contain an MCQ question.
+
+       @param questionId - The ID of the updated or deleted MCQ question. */
+    public void invalidateQuestion(long questionId) {
+        keys.removeIf((examId, key) -> key.contains(questionId));
+    }
+
+    /* Drops the answer key of an exam.
+
+       @param examId - The ID of the exam. */
+    public void evict(long examId) {
+        keys.remove(examId);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.CodingQuestion.OutputCheck;
+import org.springframework.stereotype.Service;
+
+/* The OutputChecker class compares the output of a run with the expected output of a test case.
+
+ * Modes:
+   - EXACT: The output must be equal character by character, including spaces and line breaks.
+   - WHITESPACE: The output is compared token by token, tokens being separated by any whitespace, so extra or
+     missing spaces, blank lines and trailing line breaks do not matter.
+   - NUMERIC: Like WHITESPACE, and two tokens which are both numbers also match when their absolute or relative
+     difference is at most the tolerance of the question. A number is a plain decimal like -12, 3.5, .5 or 1e-9,
+     Java literal forms like 2d, 2f or hex floats are compared as text. NaN matches only NaN and an infinity only
+     the infinity of the same sign, written as nan, inf or infinity in any case.
+
+ * Working:
+   - Both texts are walked with cursors, tokens are compared in place with regionMatches, so no line or token
+     strings are built. Only a pair of differing tokens in NUMERIC mode is copied to be parsed.
+   - The result is the line of the expected output where the first difference is, 0 when the output matches.
+     Only the line is reported, so the expected output of a test case is never shown to the student. */
+@Service
+public class OutputChecker {
+
+    /* Returns the line of the expected output where the output first differs from it.
+
+       @param actual - The output of the run, null is compared as an empty output.
+       @param expected - The expected output.
+       @param mode - The comparison mode, EXACT if null.
+       @param tolerance - The absolute or relative difference accepted between numbers in NUMERIC mode.
+       @return 0 if the output matches, otherwise the 1-based line of the expected output of the first difference. */
+    public int firstMismatchLine(CharSequence actual, CharSequence expected, OutputCheck mode, double tolerance) {
+        CharSequence output = actual != null ? actual : "";
+        if (mode == null || mode == OutputCheck.EXACT) {
+            return exactMismatchLine(output, expected);
+        }
+        return tokenMismatchLine(output, expected, mode == OutputCheck.NUMERIC, tolerance);
+    }
+
+    private int exactMismatchLine(CharSequence actual, CharSequence expected) {
+        int line = 1;
+        int length = Math.min(actual.length(), expected.length());
+        for (int i = 0; i < length; i++) {
+            char c = expected.charAt(i);
+            if (actual.charAt(i) != c) {
+                return line;
+            }
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return actual.length() == expected.length() ? 0 : line;
+    }
+
+    private int tokenMismatchLine(CharSequence actual, CharSequence expected, boolean numeric, double tolerance) {
+        int a = 0;
+        int e = 0;
+        int line = 1;
+
+        while (true) {
+            while (a < actual.length() && Character.isWhitespace(actual.charAt(a))) {
+                a++;
+            }
+            while (e < expected.length() && Character.isWhitespace(expected.charAt(e))) {
+                if (expected.charAt(e) == '\n') {
+                    line++;
+                }
+                e++;
+            }
+
+            boolean actualEnded = a == actual.length();
+            boolean expectedEnded = e == expected.length();
+            if (actualEnded || expectedEnded) {
+                return actualEnded && expectedEnded ? 0 : line;
+            }
+
+            int actualEnd = tokenEnd(actual, a);
+            int expectedEnd = tokenEnd(expected, e);
+            if (!tokensMatch(actual, a, actualEnd, expected, e, expectedEnd, numeric, tolerance)) {
+                return line;
+            }
+            a = actualEnd;
+            e = expectedEnd;
+        }
+    }
+
+    private boolean tokensMatch(CharSequence actual, int actualStart, int actualEnd, CharSequence expected, int expectedStart,
+                                int expectedEnd, boolean numeric, double tolerance) {
+        int length = actualEnd - actualStart;
+        if (length == expectedEnd - expectedStart && regionMatches(actual, actualStart, expected, expectedStart, length)) {
+            return true;
+        }
+        if (!numeric) {
+            return false;
+        }
+
+        Double actualValue = number(actual, actualStart, actualEnd);
+        Double expectedValue = number(expected, expectedStart, expectedEnd);
+        if (actualValue == null || expectedValue == null) {
+            return false;
+        }
+        if (actualValue.isNaN() || expectedValue.isNaN()) {
+            return actualValue.isNaN() && expectedValue.isNaN();
+        }
+        if (actualValue.isInfinite() || expectedValue.isInfinite()) {
+            return actualValue.equals(expectedValue);
+        }
+        double difference = Math.abs(actualValue - expectedValue);
+        return difference <= tolerance || difference <= tolerance * Math.abs(expectedValue);
+    }
+
+    /* Returns the value of a token which is a plain decimal number, NaN or an infinity, or null if it is not a number. */
+    private Double number(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        String word = text.subSequence(i, end).toString();
+        if (word.equalsIgnoreCase("nan")) {
+            return Double.NaN;
+        }
+        if (word.equalsIgnoreCase("inf") || word.equalsIgnoreCase("infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        int digits = 0;
+        while (i < end && isAsciiDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isAsciiDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isAsciiDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return null;
+            }
+        }
+        return i == end ? Double.parseDouble(text.subSequence(start, end).toString()) : null;
+    }
+
+    private boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private boolean regionMatches(CharSequence actual, int actualStart, CharSequence expected, int expectedStart, int length) {
+        for (int i = 0; i < length; i++) {
+            if (actual.charAt(actualStart + i) != expected.charAt(expectedStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int tokenEnd(CharSequence text, int start) {
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+}
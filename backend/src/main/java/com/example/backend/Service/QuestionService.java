@@ -1,5 +1,6 @@
 package com.example.backend.Service;
 
+import com.example.backend.Dto.KeysetPage;
 import com.example.backend.Entity.CodingQuestion;
 import com.example.backend.Entity.CodingTestCase;
 import com.example.backend.Entity.McqOption;
@@ -8,6 +9,7 @@ import com.example.backend.Repository.CodingQuestionRepository;
 import com.example.backend.Repository.McqOptionRepository;
 import com.example.backend.Repository.McqQuestionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
@@ -29,6 +31,22 @@ public class QuestionService {
     @Autowired
     private McqOptionRepository mcqOptionRepository;
 
+    // Injects an instance of McqAnswerKeyCache to drop answer keys of changed questions
+    @Autowired
+    private McqAnswerKeyCache mcqAnswerKeyCache;
+
+    // Injects an instance of TestCaseBundleCache to drop packed test cases of changed questions
+    @Autowired
+    private TestCaseBundleCache testCaseBundleCache;
+
+    // Injects an instance of ExamPaperCache to drop exam papers containing changed questions
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    // Injects an instance of VerdictCache to drop cached code verdicts of changed questions
+    @Autowired
+    private VerdictCache verdictCache;
+
     /* Adds a new MCQ question to the database after validating the number of options.
        The number of options must be between 2 and 4.
 
@@ -63,18 +81,32 @@ public class QuestionService {
         return codingQuestionRepository.save(question);
     }
 
-    /* Retrieves all MCQ questions from the database.
-
-       @return A list of all MCQ questions stored in the database. */
-    public List<McqQuestion> getMcqQuestion() {
-        return mcqQuestionRepository.findAll();
+    /* Retrieves one page of MCQ questions in id order, the ids of the page are read first and the questions are then
+       fetched with their options, so a page costs two statements wherever it is in the question bank.
+
+       @param after - The continuation token of the previous page, or null for the first page.
+       @param size - The number of questions of the page.
+       @return The page of MCQ questions.
+       @throws IllegalArgumentException if the token is invalid. */
+    public KeysetPage<McqQuestion> getMcqQuestions(String after, int size) {
+        int limit = KeysetPage.limit(size);
+        List<Long> ids = mcqQuestionRepository.findIdsAfter(KeysetPage.after(after), Limit.of(limit + 1));
+        List<McqQuestion> questions = ids.isEmpty() ? List.of() : mcqQuestionRepository.findWithOptionsByIdIn(ids);
+        return KeysetPage.of(questions, limit, McqQuestion::getId);
     }
 
-    /* Retrieves all coding questions from the database.
-
-       @return A list of all coding questions stored in the database. */
-    public List<CodingQuestion> getCodingQuestion() {
-        return codingQuestionRepository.findAll();
+    /* Retrieves one page of coding questions in id order, the ids of the page are read first and the questions are then
+       fetched with their test cases, so a page costs two statements wherever it is in the question bank.
+
+       @param after - The continuation token of the previous page, or null for the first page.
+       @param size - The number of questions of the page.
+       @return The page of coding questions.
+       @throws IllegalArgumentException if the token is invalid. */
+    public KeysetPage<CodingQuestion> getCodingQuestions(String after, int size) {
+        int limit = KeysetPage.limit(size);
+        List<Long> ids = codingQuestionRepository.findIdsAfter(KeysetPage.after(after), Limit.of(limit + 1));
+        List<CodingQuestion> questions = ids.isEmpty() ? List.of() : codingQuestionRepository.findWithTestCasesByIdIn(ids);
+        return KeysetPage.of(questions, limit, CodingQuestion::getId);
     }
 
     /* Updates an existing MCQ question with new data, including options, question text,
@@ -100,7 +132,11 @@ public class QuestionService {
             mcqQuestion.setDifficultyLevel(updatedQuestion.getDifficultyLevel());
             mcqQuestion.setOptions(options);
 
-            return mcqQuestionRepository.save(mcqQuestion);
+            McqQuestion savedQuestion = mcqQuestionRepository.save(mcqQuestion);
+            mcqAnswerKeyCache.invalidateQuestion(id);
+            examPaperCache.invalidateMcqQuestion(id);
+
+            return savedQuestion;
         } else {
             throw new Exception("MCQ question not found or invalid options.");
         }
@@ -121,7 +157,11 @@ public class QuestionService {
             testCase.setCodingQuestion(updatedQuestion);
         }
 
-        return codingQuestionRepository.save(updatedQuestion);
+        CodingQuestion savedQuestion = codingQuestionRepository.save(updatedQuestion);
+        testCaseBundleCache.invalidateQuestion(id);
+        verdictCache.invalidateQuestion(id);
+        examPaperCache.invalidateCodingQuestion(id);
+        return savedQuestion;
 
     }
 
@@ -130,6 +170,8 @@ public class QuestionService {
        @param id - The ID of the MCQ question to delete. */
     public void deleteMcqQuestion(long id) {
         mcqQuestionRepository.deleteById(id);
+        mcqAnswerKeyCache.invalidateQuestion(id);
+        examPaperCache.invalidateMcqQuestion(id);
     }
 
     /* Deletes an existing coding question from the database by its ID.
@@ -137,5 +179,8 @@ public class QuestionService {
        @param id - The ID of the coding question to delete. */
     public void deleteCodingQuestion(long id) {
         codingQuestionRepository.deleteById(id);
+        testCaseBundleCache.invalidateQuestion(id);
+        verdictCache.invalidateQuestion(id);
+        examPaperCache.invalidateCodingQuestion(id);
     }
 }
\ No newline at end of file
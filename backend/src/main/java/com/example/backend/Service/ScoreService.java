@@ -0,0 +1,118 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.ScoreDrift;
+import com.example.backend.Entity.Exam;
+import com.example.backend.Repository.ExamRepository;
+import com.example.backend.Repository.StudentAnswerRepository;
+import com.example.backend.Repository.StudentExamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/* The ScoreService class keeps the running score of each StudentExam in step with its answers, so submitting an
+   exam reads the score instead of grading every answer again.
+
+ * Fields:
+   - scoringPlanCache: Looks up the marks of each question of an exam.
+   - studentAnswerRepository, studentExamRepository, examRepository: Read the correct answers and write the scores.
+
+ * Methods:
+   - applyCorrectnessChanges(long studentExamId, long examId, Map mcqChanges, Map codingChanges): Adds or removes the
+     marks of the answers whose correctness changed, in the transaction which writes the answers.
+   - reconcile(long examId): Recomputes the scores of an exam from its correct answers and corrects the ones which
+     drifted.
+   - reconcileRunningExams(): Reconciles the scores of all running exams on the score.reconcile-cron schedule. */
+@Service
+public class ScoreService {
+
+    // Injects an instance of ScoringPlanCache to look up the marks of each question
+    @Autowired
+    private ScoringPlanCache scoringPlanCache;
+
+    // Injects an instance of StudentAnswerRepository for database operations
+    @Autowired
+    private StudentAnswerRepository studentAnswerRepository;
+
+    // Injects an instance of StudentExamRepository for database operations
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    // Injects an instance of ExamRepository for database operations
+    @Autowired
+    private ExamRepository examRepository;
+
+    /* Updates the running score of a student exam for answers whose correctness changed. Must be called in the
+       transaction which writes the answers, so the score and the answers always change together.
+
+       @param studentExamId - The ID of the student exam.
+       @param examId - The ID of the exam, used to find the marks of each question.
+       @param mcqChanges - The MCQ question ids whose answer changed correctness, mapped to the new correctness.
+       @param codingChanges - The coding question ids whose answer changed correctness, mapped to the new correctness. */
+    public void applyCorrectnessChanges(long studentExamId, long examId, Map<Long, Boolean> mcqChanges, Map<Long, Boolean> codingChanges) {
+
+        if (mcqChanges.isEmpty() && codingChanges.isEmpty()) {
+            return;
+        }
+
+        ScoringPlan plan = scoringPlanCache.get(examId);
+        int delta = 0;
+        for (Map.Entry<Long, Boolean> change : mcqChanges.entrySet()) {
+            int marks = plan.mcqMarks(change.getKey());
+            delta += change.getValue() ? marks : -marks;
+        }
+        for (Map.Entry<Long, Boolean> change : codingChanges.entrySet()) {
+            int marks = plan.codingMarks(change.getKey());
+            delta += change.getValue() ? marks : -marks;
+        }
+
+        if (delta != 0) {
+            studentExamRepository.addScore(studentExamId, delta);
+        }
+    }
+
+    /* Recomputes the marks of every student exam of an exam from its correct answers and corrects the stored
+       running scores which drifted. The stored scores are read before the answers, and a score is only corrected
+       if it did not change since it was read. An answer write which lands after that read also changes the score
+       in its transaction, so its student exam is skipped instead of being set from answers read before the write.
+
+       @param examId - The ID of the exam.
+       @return The list of student exams whose score drifted. */
+    public List<ScoreDrift> reconcile(long examId) {
+
+        List<Object[]> storedScores = studentExamRepository.findScoresByExamId(examId);
+
+        ScoringPlan plan = scoringPlanCache.get(examId);
+        Map<Long, Integer> computedScores = new HashMap<>();
+        for (Object[] row : studentAnswerRepository.findCorrectAnswerKeysByExamId(examId)) {
+            computedScores.merge((Long) row[0], plan.marks((Long) row[1], (Long) row[2]), Integer::sum);
+        }
+
+        List<ScoreDrift> drifts = new ArrayList<>();
+
+        for (Object[] row : storedScores) {
+            int storedScore = (int) row[1];
+            int computedScore = computedScores.getOrDefault((Long) row[0], 0);
+
+            if (storedScore != computedScore) {
+                drifts.add(new ScoreDrift((Long) row[0], storedScore, computedScore));
+                studentExamRepository.updateScoreIfUnchanged((Long) row[0], storedScore, computedScore);
+            }
+        }
+
+        return drifts;
+    }
+
+    /* Reconciles the scores of all running exams on the configured schedule and reports any drift. */
+    @Scheduled(cron = "${score.reconcile-cron:0 */15 * * * *}")
+    public void reconcileRunningExams() {
+
+        for (Long examId : examRepository.findIdsByStatusIn(List.of(Exam.ExamStatus.STARTED, Exam.ExamStatus.PAUSED, Exam.ExamStatus.RESUMED))) {
+            List<ScoreDrift> drifts = reconcile(examId);
+            if (!drifts.isEmpty()) {
+                System.err.println("Score drift corrected for " + drifts.size() + " student exams of exam " + examId);
+            }
+        }
+    }
+}
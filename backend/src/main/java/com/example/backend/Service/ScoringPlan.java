@@ -0,0 +1,74 @@
+package com.example.backend.Service;
+
+import java.util.List;
+
+/* The ScoringPlan class is the immutable scoring plan of one exam, compiled once from the ExamQuestion marks.
+   Running scores, reconciliation and bulk grading all read the marks of a question from it, so scoring an
+   answer is a primitive map lookup and an array read, without queries or string comparisons.
+
+ * Fields:
+   - mcqSlots: Maps an MCQ question id to its slot in the marks array.
+   - codingSlots: Maps a coding question id to its slot in the marks array.
+   - marks: The marks of each question, indexed by slot.
+   - totalMarks: The sum of the marks of all questions of the exam. */
+public final class ScoringPlan {
+
+    private final LongLongHashMap mcqSlots;
+    private final LongLongHashMap codingSlots;
+    private final int[] marks;
+    private final int totalMarks;
+
+    /* Compiles the plan from rows of [mcq question id, coding question id, marks], one of the ids is null.
+
+       @param rows - The questions of an exam with their marks. */
+    public ScoringPlan(List<Object[]> rows) {
+        this.mcqSlots = new LongLongHashMap(rows.size());
+        this.codingSlots = new LongLongHashMap(rows.size());
+        this.marks = new int[rows.size()];
+
+        int total = 0;
+        for (int slot = 0; slot < rows.size(); slot++) {
+            Object[] row = rows.get(slot);
+            if (row[0] != null) {
+                mcqSlots.put((Long) row[0], slot);
+            } else {
+                codingSlots.put((Long) row[1], slot);
+            }
+            marks[slot] = (Integer) row[2];
+            total += marks[slot];
+        }
+        this.totalMarks = total;
+    }
+
+    /* Returns the marks of an MCQ question.
+
+       @param questionId - The ID of the MCQ question.
+       @return The marks of the question, or 0 if it is not part of the exam. */
+    public int mcqMarks(long questionId) {
+        long slot = mcqSlots.get(questionId, -1);
+        return slot < 0 ? 0 : marks[(int) slot];
+    }
+
+    /* Returns the marks of a coding question.
+
+       @param questionId - The ID of the coding question.
+       @return The marks of the question, or 0 if it is not part of the exam. */
+    public int codingMarks(long questionId) {
+        long slot = codingSlots.get(questionId, -1);
+        return slot < 0 ? 0 : marks[(int) slot];
+    }
+
+    /* Returns the marks of the question of an answer row, where one of the ids is null.
+
+       @param mcqQuestionId - The ID of the MCQ question or null.
+       @param codingQuestionId - The ID of the coding question or null.
+       @return The marks of the question, or 0 if it is not part of the exam. */
+    public int marks(Long mcqQuestionId, Long codingQuestionId) {
+        return mcqQuestionId != null ? mcqMarks(mcqQuestionId) : codingQuestionId != null ? codingMarks(codingQuestionId) : 0;
+    }
+
+    /* Returns the sum of the marks of all questions of the exam. */
+    public int getTotalMarks() {
+        return totalMarks;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.Service;
+
+import com.example.backend.Repository.ExamQuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/* The ScoringPlanCache class holds the compiled ScoringPlan of every exam that is being scored.
+
+ * Lifecycle:
+   - The plan of an exam is compiled on first use with one query.
+   - The plan of an exam is dropped when the exam is updated, completed or deleted, and compiled again on next use.
+   - The grading job of a completed exam drops the plan it compiled once it finished. */
+@Service
+public class ScoringPlanCache {
+
+    // Injects an instance of ExamQuestionRepository for database operations
+    @Autowired
+    private ExamQuestionRepository examQuestionRepository;
+
+    // Scoring plans keyed by exam id
+    private final GenerationalCache<Long, ScoringPlan> plans = GenerationalCache.unbounded();
+
+    /* Returns the scoring plan of an exam, compiling it if it is not cached.
+
+       @param examId - The ID of the exam.
+       @return The scoring plan of the exam. */
+    public ScoringPlan get(long examId) {
+        ScoringPlan plan = plans.get(examId);
+        if (plan != null) {
+            return plan;
+        }
+
+        long buildGeneration = plans.generation();
+        plan = new ScoringPlan(examQuestionRepository.findAllMarksByExamId(examId));
+        plans.put(examId, plan, buildGeneration);
+        return plan;
+    }
+
+    /* Drops the scoring plan of an exam.
+
+       @param examId - The ID of the exam. */
+    public void evict(long examId) {
+        plans.remove(examId);
+    }
+}
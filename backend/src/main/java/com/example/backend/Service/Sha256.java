@@ -0,0 +1,54 @@
+package com.example.backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/* The Sha256 class holds the SHA-256 helpers of the content-addressed caches, the VerdictCache keys, the
+   TestCaseBundle checksums and the ExamPageCache ETags.
+
+ * Methods:
+   - newDigest(): Returns a new SHA-256 digest.
+   - update(MessageDigest digest, String value): Hashes one field. The length is hashed before the value so
+     that two fields can never run into each other, and null is hashed apart from the empty string.
+   - hex(MessageDigest digest): Completes the digest and returns it hex encoded.
+   - hex(byte[] content): Returns the hex encoded digest of the content. */
+final class Sha256 {
+
+    private Sha256() {
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            updateLength(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateLength(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static String hex(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    private static void updateLength(MessageDigest digest, int length) {
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+    }
+}
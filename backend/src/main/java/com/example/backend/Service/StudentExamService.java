@@ -1,22 +1,28 @@
 package com.example.backend.Service;
 
 import com.example.backend.Dto.AutoSaveRequest;
+import com.example.backend.Dto.CodeSubmissionEvent;
+import com.example.backend.Dto.CodeSubmissionResult;
+import com.example.backend.Dto.ExamBootstrap;
+import com.example.backend.Dto.QuestionAnswerDTO;
 import com.example.backend.Dto.StudentAnswerDTO;
 import com.example.backend.Dto.StudentExamDisplay;
+import com.example.backend.Dto.SubmissionStatus;
+import com.example.backend.Dto.TestCaseVerdict;
 import com.example.backend.Entity.*;
 import com.example.backend.Repository.*;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 
 import java.time.Duration;
@@ -44,6 +50,10 @@ public class StudentExamService {
     @Autowired
     private ExamResultRepository examResultRepository;
 
+    // Injects an instance of GradingJobRepository to queue submitted exams for grading
+    @Autowired
+    private GradingJobRepository gradingJobRepository;
+
     // Injects an instance of StudentAnswerRepository for database operations
     @Autowired
     private StudentAnswerRepository studentAnswerRepository;
@@ -52,31 +62,57 @@ public class StudentExamService {
     @Autowired
     private CodingQuestionRepository codingQuestionRepository;
 
-    // Injects an instance of McqQuestionRepository for database operations
+    // Injects an instance of AutoSaveBuffer to stage auto-saved answers in memory
     @Autowired
-    private McqQuestionRepository mcqQuestionRepository;
+    private AutoSaveBuffer autoSaveBuffer;
 
-    // Data fields of this class
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-    Map<String, Integer> languagemap = new HashMap<>();
+    // Injects an instance of ScoreService to keep the running score in step with the answers
+    @Autowired
+    private ScoreService scoreService;
 
-    // Reads the judge0.api.key from environment variables
-    @Value("${judge0.api.key}")
-    private String apiKey;
+    // Injects the transaction manager used to save a submitted answer and its score together
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    // Create constructor with arguments webClientBuilder and objectMapper
+    // Injects the CodeExecutor selected by code-executor.type to run student code
     @Autowired
-    public StudentExamService(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
-        this.webClient = webClientBuilder.baseUrl("https://judge0-ce.p.rapidapi.com").build();
-        this.objectMapper = objectMapper;
-
-        languagemap.put("cpp", 105);
-        languagemap.put("java", 91);
-        languagemap.put("javascript", 102);
-        languagemap.put("python", 71);
-        languagemap.put("c", 103);
-    }
+    private CodeExecutor codeExecutor;
+
+    // Injects an instance of ExecutionScheduler to queue code runs in the graded and practice lanes
+    @Autowired
+    private ExecutionScheduler executionScheduler;
+
+    // Injects an instance of TestCaseBundleCache to reuse the packed test cases of each coding question
+    @Autowired
+    private TestCaseBundleCache testCaseBundleCache;
+
+    // Injects an instance of OutputChecker to compare outputs in the mode of each question
+    @Autowired
+    private OutputChecker outputChecker;
+
+    // Injects an instance of VerdictCache to answer resubmissions of the same code without running it
+    @Autowired
+    private VerdictCache verdictCache;
+
+    // Injects an instance of ExamSessionResolver to read the student, the exam and the attempt of a request at once
+    @Autowired
+    private ExamSessionResolver examSessionResolver;
+
+    // Injects an instance of ExamPaperCache to send the questions of an exam from the shared exam paper
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    // Injects the bounded scheduler on which the code endpoints run their database work
+    @Autowired
+    private Scheduler databaseScheduler;
+
+    // Reads whether submitted code runs each test case separately (batch) or all test cases as one program (combined)
+    @Value("${code-executor.test-case-mode:batch}")
+    private String testCaseMode;
+
+    // Reads whether a streamed submission stops at the first failing test case when the request does not say
+    @Value("${code-executor.stream-fail-fast:true}")
+    private boolean streamFailFast;
 
     /* Finds all eligible exams for a student based on their university, branch, and semester.
 
@@ -135,315 +171,678 @@ public class StudentExamService {
        @throws IllegalArgumentException - If the exam or user data is invalid. */
     public StudentExam createExam(String email, long examId) {
 
-        User user = userService.findUserByEmail(email);
-        if (user == null) {
-            throw new EntityNotFoundException("User not found with this email");
+        ExamSession session = examSessionResolver.resolve(email, examId);
+        checkCanStart(session);
+
+        if (session.hasAttempt()) {
+            return studentExamRepository.findById(session.getStudentExamId())
+                    .orElseThrow(() -> new EntityNotFoundException("Student Exam not found"));
+        }
+
+        return startAttempt(session);
+    }
+
+    /* Starts or resumes an exam for a student and returns everything needed to open it, so opening an exam is one
+       request instead of starting it, fetching the first pages and syncing the answers apart. The questions come from
+       the shared exam paper, the saved answers are read in one query after the pending auto-saves of the attempt are
+       written. An attempt whose time is over but which was not submitted is returned with no time left, so the
+       client submits it at once.
+
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @param pageSize - The number of questions of the first page of each section.
+       @return The attempt, the time left, the first pages and the saved answers.
+       @throws EntityNotFoundException - If the user or exam is not found.
+       @throws IllegalArgumentException - If the exam can not be started by the student.
+       @throws IllegalStateException - If the attempt was submitted. */
+    public ExamBootstrap bootstrapExam(String email, long examId, int pageSize) {
+
+        ExamSession session = examSessionResolver.resolve(email, examId);
+        checkCanStart(session);
+        if (!session.hasAttempt()) {
+            startAttempt(session);
+            session = examSessionResolver.resolve(email, examId);
         }
 
-        Exam exam = examRepository.getReferenceById(examId);
-        if (exam == null) {
-            throw new EntityNotFoundException("Exam not found with this examId");
+        if (session.isCompleted()) {
+            throw new IllegalStateException("Exam is already submitted.");
+        }
+
+        ExamPaper paper = examPaperCache.get(examId);
+        Pageable firstPage = PageRequest.of(0, Math.max(1, pageSize));
+
+        autoSaveBuffer.flush(session.getStudentExamId());
+        List<QuestionAnswerDTO> answers = new ArrayList<>();
+        for (Object[] row : studentAnswerRepository.findAnswersByStudentExamId(session.getStudentExamId())) {
+            long examQuestionId = row[0] != null
+                    ? paper.getMcqExamQuestionId((Long) row[0])
+                    : paper.getCodingExamQuestionId(row[1] != null ? (Long) row[1] : 0);
+            if (examQuestionId != 0) {
+                answers.add(new QuestionAnswerDTO(examQuestionId, (String) row[2], (String) row[3]));
+            }
         }
 
-        if (exam.getSemester() == 0 || user.getSemester() == 0 || exam.getBranch() == null || user.getBranch() == null) {
+        ExamBootstrap bootstrap = new ExamBootstrap();
+        bootstrap.setStudentExamId(session.getStudentExamId());
+        bootstrap.setExamId(examId);
+        bootstrap.setExamName(session.getExamName());
+        bootstrap.setDuration(session.getDuration());
+        bootstrap.setStartTime(session.getStartTime());
+        bootstrap.setEndTime(session.getEndTime());
+        bootstrap.setRemainingSeconds(session.getRemainingSeconds());
+        bootstrap.setMcqQuestions(paper.getMcqPage(firstPage));
+        bootstrap.setCodingQuestions(paper.getCodingPage(firstPage));
+        bootstrap.setMcqCount(paper.getMcqQuestions().size());
+        bootstrap.setCodingCount(paper.getCodingQuestions().size());
+        bootstrap.setAnswers(answers);
+        return bootstrap;
+    }
+
+    /* Checks that a student can start or resume an exam.
+
+       @param session - The session of the student in the exam.
+       @throws IllegalArgumentException - If the exam or user data is invalid or the exam is not open today. */
+    private void checkCanStart(ExamSession session) {
+
+        if (session.getExamSemester() == 0 || session.getUserSemester() == 0 || session.getExamBranch() == null || session.getUserBranch() == null) {
             throw new IllegalArgumentException("Invalid data for exam or user branch/semester");
         }
 
-        if(exam.getSemester() != user.getSemester() && !exam.getBranch().equals(user.getBranch())) {
+        if(session.getExamSemester() != session.getUserSemester() && !session.getExamBranch().equals(session.getUserBranch())) {
             throw new IllegalArgumentException("Not fulfill creation criteria");
         }
 
-        if(!exam.isEnable() || (exam.getStatus() != Exam.ExamStatus.STARTED && exam.getStatus() != Exam.ExamStatus.PAUSED) || !exam.getScheduleDate().equals(LocalDate.now())) {
+        if(!session.isEnable() || (session.getStatus() != Exam.ExamStatus.STARTED && session.getStatus() != Exam.ExamStatus.PAUSED) || !LocalDate.now().equals(session.getScheduleDate())) {
             throw new IllegalArgumentException("Not fulfill creation criteria");
         }
+    }
 
-        Optional<StudentExam> existingExam = studentExamRepository.findByStudentEmailAndExamId(email, examId);
+    /* Creates the attempt of a student who has not started the exam yet, and drops the cached session without it.
 
-        if (existingExam.isPresent()) {
-            return existingExam.get();
-        }
+       @param session - The session of the student in the exam.
+       @return The created StudentExam record. */
+    private StudentExam startAttempt(ExamSession session) {
 
         StudentExam studentExam = new StudentExam();
-        studentExam.setStudent(user);
-        studentExam.setExam(exam);
+        studentExam.setStudent(userService.findById(session.getUserId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with this email")));
+        studentExam.setExam(examRepository.getReferenceById(session.getExamId()));
         studentExam.setCompleted(false);
         studentExam.setStartTime(LocalDateTime.now());
         studentExam.setEndTime(LocalDateTime.now());
 
-        return studentExamRepository.save(studentExam);
+        StudentExam savedExam = studentExamRepository.save(studentExam);
+        examSessionResolver.evict(session.getEmail(), session.getExamId());
+        return savedExam;
     }
 
-    /* Submit a student's exam and set as completed and updates the end time.
+    /* Submit a student's exam and set as completed and updates the end time. The ExamResult is not written here,
+       a grading job is queued in the same transaction and the GradingWorker writes the result from the running
+       score. Submitting an exam which was already submitted returns its current status.
 
        @param id - The ID of the student exam.
-       @return A success message indicating the exam was submitted.
-       @throws EntityNotFoundException - If the StudentExam is not found. */
-    public String submitExam(long id) {
+       @param email - The email of the logged in student, who must own the student exam.
+       @return The status of the submission, PENDING until the result is written.
+       @throws EntityNotFoundException - If the StudentExam is not found or is not the student's. */
+    public SubmissionStatus submitExam(long id, String email) {
 
-        StudentExam studentExam = studentExamRepository.getReferenceById(id);
-        if(studentExam == null) {
-            throw new EntityNotFoundException("Student Exam not found");
+        requireOwner(id, email);
+        autoSaveBuffer.flush(id);
+
+        boolean submitted = new TransactionTemplate(transactionManager).execute(status -> {
+            if (studentExamRepository.markSubmitted(id, LocalDateTime.now()) == 0) {
+                return false;
+            }
+
+            GradingJob gradingJob = new GradingJob();
+            gradingJob.setStudentExam(studentExamRepository.getReferenceById(id));
+            gradingJob.setStatus(GradingJob.Status.PENDING);
+            gradingJob.setCreatedAt(LocalDateTime.now());
+            gradingJobRepository.save(gradingJob);
+            return true;
+        });
+
+        examSessionResolver.evictAttempt(id);
+        if (!submitted) {
+            return submissionStatus(id);
         }
-        studentExam.setCompleted(true);
-        studentExam.setEndTime(LocalDateTime.now());
-        studentExamRepository.save(studentExam);
+        return new SubmissionStatus(id, GradingJob.Status.PENDING, null, null);
+    }
 
-        ExamResult examResult = new ExamResult();
-        examResult.setExam(studentExam.getExam());
-        examResult.setStudent(studentExam.getStudent());
+    /* Retrieves the status of a submitted student exam of the logged in student, with the marks once the result is written.
 
-        int marks = 0;
-        for(StudentAnswer answer : studentExam.getAnswers()) {
+       @param id - The ID of the student exam.
+       @param email - The email of the logged in student, who must own the student exam.
+       @return The status of the submission.
+       @throws EntityNotFoundException - If the StudentExam is not found, is not the student's or was not submitted. */
+    public SubmissionStatus getSubmissionStatus(long id, String email) {
+        requireOwner(id, email);
+        return submissionStatus(id);
+    }
+
+    /* Checks that a student exam belongs to a student. The attempt of another student is reported as not found, so
+       the ids of other attempts can not be probed.
 
-            if(answer.getMcqQuestion() != null && answer.isCorrect()) {
+       @param id - The ID of the student exam.
+       @param email - The email of the student.
+       @throws EntityNotFoundException - If the StudentExam is not found or is not the student's. */
+    private void requireOwner(long id, String email) {
+        if (email == null || !studentExamRepository.existsByIdAndStudentEmail(id, email)) {
+            throw new EntityNotFoundException("Student Exam not found");
+        }
+    }
 
-                if(answer.getMcqQuestion().getDifficultyLevel().equalsIgnoreCase("Easy")) {
-                    marks += 1;
-                } else if (answer.getMcqQuestion().getDifficultyLevel().equalsIgnoreCase("Medium")) {
-                    marks += 2;
-                } else {
-                    marks += 3;
-                }
+    /* Retrieves the status of a submitted student exam, with the marks once the result is written. Student exams
+       graded in bulk when the exam was completed have no grading job and are reported DONE once their result exists.
 
+       @param id - The ID of the student exam.
+       @return The status of the submission.
+       @throws EntityNotFoundException - If the StudentExam is not found or was not submitted. */
+    private SubmissionStatus submissionStatus(long id) {
 
-            } else if (answer.getCodingQuestion() != null && answer.isCorrect()){
+        GradingJob.Status status = gradingJobRepository.findByStudentExamId(id)
+                .map(GradingJob::getStatus)
+                .orElse(null);
 
-                if(answer.getCodingQuestion().getDifficultyLevel().equalsIgnoreCase("Easy")) {
-                    marks += 20;
-                } else if (answer.getCodingQuestion().getDifficultyLevel().equalsIgnoreCase("Medium")) {
-                    marks += 30;
-                } else {
-                    marks += 40;
-                }
-            }
+        if (status != null && status != GradingJob.Status.DONE) {
+            return new SubmissionStatus(id, status, null, null);
         }
 
-        if(marks >= studentExam.getExam().getPassingMarks()) {
-            examResult.setPassed(true);
-        }
-        examResult.setMarksObtained(marks);
+        StudentExam studentExam = studentExamRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Student Exam not found"));
+
+        Optional<ExamResult> examResult = examResultRepository.findByExamIdAndUserId(
+                studentExam.getExam().getId(), studentExam.getStudent().getUserId());
 
-        examResultRepository.save(examResult);
+        if (examResult.isEmpty()) {
+            if (status == null) {
+                throw new EntityNotFoundException("Student Exam not submitted");
+            }
+            return new SubmissionStatus(id, GradingJob.Status.PENDING, null, null);
+        }
 
-        return "Successfully exam submited";
+        return new SubmissionStatus(id, GradingJob.Status.DONE, examResult.get().getMarksObtained(), examResult.get().isPassed());
     }
 
-    /* Saves student answers for a specific exam.
+    /* Stages student answers for a specific exam in the auto-save buffer, which writes them to the database in the background.
 
+   @param email - The email of the student.
    @param examId - The ID of the exam.
    @param autoSaveRequest - The auto-save request containing answers to save.
-   @throws RuntimeException - If the StudentExam or Exam is not found.
-   @throws IllegalStateException - If the exam time is over. */
-    public void autoSaveAnswers(long examId, AutoSaveRequest autoSaveRequest) {
-
-        StudentExam studentExam = studentExamRepository.findById(autoSaveRequest.getStudentExamId())
-                .orElseThrow(() -> new RuntimeException("StudentExam not found"));
-
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new RuntimeException("Exam not found"));
-
-        String duration = exam.getDuration();
-        int durationint = Integer.parseInt(duration);
+   @throws EntityNotFoundException - If the StudentExam of the student in the exam is not the one of the request.
+   @throws IllegalStateException - If the exam is already submitted or its time is over.
+   @throws IllegalArgumentException - If an answer has an invalid question type. */
+    public void autoSaveAnswers(String email, long examId, AutoSaveRequest autoSaveRequest) {
+
+        ExamSession session = examSessionResolver.resolve(email, examId);
+        if (!session.hasAttempt() || !session.getStudentExamId().equals(autoSaveRequest.getStudentExamId())) {
+            throw new EntityNotFoundException("StudentExam not found");
+        }
 
-        LocalDateTime starttime = studentExam.getStartTime();
-        LocalDateTime endtime = studentExam.getEndTime();
+        if (session.isCompleted()) {
+            throw new IllegalStateException("Auto-save failed because the Exam is already submitted.");
+        }
 
-        if (durationint < Duration.between(starttime, endtime).toMinutes()) {
+        if (session.isTimeOver()) {
             throw new IllegalStateException("Auto-save failed because of Exam time is over.");
         }
 
         for (StudentAnswerDTO answerDTO : autoSaveRequest.getAnswers()) {
-            StudentAnswer studentAnswer = getOrCreateStudentAnswer(studentExam, answerDTO);
-            studentAnswer.setAnswer(answerDTO.getAnswer());
-            studentAnswer.setLanguage(answerDTO.getLanguage());
+            if (answerDTO.getQuestionType() == null || (!answerDTO.getQuestionType().equalsIgnoreCase("mcq") && !answerDTO.getQuestionType().equalsIgnoreCase("coding"))) {
+                throw new IllegalArgumentException("Invalid question type: " + answerDTO.getQuestionType());
+            }
+        }
 
-            if (answerDTO.getQuestionType().equalsIgnoreCase("mcq")) {
+        autoSaveBuffer.stage(session.getStudentExamId(), examId, autoSaveRequest.getAnswers());
+    }
 
-                List<McqOption> answer = (studentAnswer.getMcqQuestion().getOptions().stream().filter(ans -> ans.getisCorrect())).collect(Collectors.toList());
-                if(answer.get(0).getOptionText().equalsIgnoreCase(answerDTO.getAnswer())) {
-                    studentAnswer.setCorrect(true);
-                } else {
-                    studentAnswer.setCorrect(false);
-                }
+    /* Executes a given source code on the configured CodeExecutor and retrieves the result. The run waits in the
+       practice lane of the ExecutionScheduler, so it never delays a graded submission.
 
-            }
+       @param sourceCode - The source code to execute.
+       @param language - The name of the programming language.
+       @param stdin - The input for the program.
+       @param student - The email of the student running the code.
+       @return A Mono with the result of the code execution, it completes without holding a thread while the code runs.
+       @throws IllegalArgumentException - If the source code or language ID is invalid, signalled by the Mono.
+       @throws ExecutionScheduler.RejectedException - If the practice lane is full or the student already has a run
+               in flight, signalled by the Mono.
+       @throws RuntimeException - If the code could not be executed, signalled by the Mono. */
+    public Mono<Map<String, Object>> runCode(String sourceCode, String language, String stdin, String student) {
+        if (sourceCode == null || sourceCode.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Source code cannot be null or empty"));
+        }
 
-            studentAnswerRepository.save(studentAnswer);
+        if (!codeExecutor.supports(language)) {
+            return Mono.error(new IllegalArgumentException("Invalid language ID: " + language));
         }
 
-        studentExam.setEndTime(LocalDateTime.now());
-        studentExamRepository.save(studentExam);
+        return executionScheduler.submit(ExecutionScheduler.Lane.PRACTICE, student,
+                () -> codeExecutor.executeAsync(sourceCode, language, stdin));
     }
 
-    /* Retrieves or creates a StudentAnswer record for the provided question and student exam.
+    /* Executes a given answer code on the configured CodeExecutor and submit that if output is correct.
 
-       @param studentExam - The student exam to associate the answer with.
-       @param answerDTO - The DTO containing answer data.
-       @return The retrieved or newly created StudentAnswer. */
-    private StudentAnswer getOrCreateStudentAnswer(StudentExam studentExam, StudentAnswerDTO answerDTO) {
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @return A Mono with the string message based code output.
+       @throws IllegalArgumentException - If the student code or language is invalid, signalled by the Mono.
+       @throws ExecutionScheduler.RejectedException - If the graded lane is full, signalled by the Mono.
+       @throws EntityNotFoundException - If the Exam or CodingQuestion is not found, signalled by the Mono. */
+    public Mono<String> submitCode(String email, long examId, StudentAnswerDTO studentAnswerDTO) {
+        return gradeCode(email, examId, studentAnswerDTO).map(CodeSubmissionResult::getMessage);
+    }
 
-        if (answerDTO.getQuestionType().equalsIgnoreCase("mcq")) {
-            return studentAnswerRepository.findByStudentExamAndMcqQuestionId(studentExam, answerDTO.getQuestionId())
-                    .orElseGet(() -> {
-                        StudentAnswer newAnswer = new StudentAnswer();
-                        newAnswer.setStudentExam(studentExam);
-                        McqQuestion mcqQuestion = mcqQuestionRepository.findById(answerDTO.getQuestionId())
-                                .orElseThrow(() -> new RuntimeException("MCQ Question not found"));
-                        newAnswer.setMcqQuestion(mcqQuestion);
-                        return newAnswer;
-                    });
-        } else if (answerDTO.getQuestionType().equalsIgnoreCase("coding")) {
-            return studentAnswerRepository.findByStudentExamAndCodingQuestionId(studentExam, answerDTO.getQuestionId())
-                    .orElseGet(() -> {
-                        StudentAnswer newAnswer = new StudentAnswer();
-                        newAnswer.setStudentExam(studentExam);
-                        CodingQuestion codingQuestion = codingQuestionRepository.findById(answerDTO.getQuestionId())
-                                .orElseThrow(() -> new RuntimeException("Coding Question not found"));
-                        newAnswer.setCodingQuestion(codingQuestion);
-                        return newAnswer;
-                    });
-        } else {
-            throw new IllegalArgumentException("Invalid question type: " + answerDTO.getQuestionType());
-        }
+    /* Executes a given answer code against the test cases of the question and saves it as correct if every
+       test case passes. In batch mode each test case is a separate run, so the result has a verdict, run time
+       and memory for each test case. In combined mode all test cases run as one program and the result only
+       tells whether the whole output matched.
+
+       The question is loaded and the answer saved on the bounded database scheduler, and the code runs on the
+       non-blocking CodeExecutor in between, so no thread is held while the code runs. The run waits in the graded
+       lane of the ExecutionScheduler, which is served before practice runs. If the same code was already graded
+       against the same test cases the cached result is used and the code is not run again.
 
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @return A Mono with the result of the submission with the verdict of each test case.
+       @throws IllegalArgumentException - If the student code or language is invalid, signalled by the Mono.
+       @throws ExecutionScheduler.RejectedException - If the graded lane is full or the student has too many
+               submissions in flight, signalled by the Mono.
+       @throws EntityNotFoundException - If the Exam or CodingQuestion is not found, signalled by the Mono. */
+    public Mono<CodeSubmissionResult> gradeCode(String email, long examId, StudentAnswerDTO studentAnswerDTO) {
+        return Mono.fromCallable(() -> loadCodeSubmission(email, examId, studentAnswerDTO))
+                .subscribeOn(databaseScheduler)
+                .flatMap(submission -> runOrReuse(email, studentAnswerDTO, submission)
+                        .publishOn(databaseScheduler)
+                        .map(result -> {
+                            if (result.isCorrect()) {
+                                saveCorrectCode(submission, examId, studentAnswerDTO);
+                            }
+                            return result;
+                        }));
     }
 
-    /* Executes a given source code on the Judge0 API and retrieves the result.
+    /* Executes a given answer code against the test cases of the question like gradeCode, and streams the
+       progress: a compile event once the first test case finished, then the verdict of each test case as soon as
+       it finished, and the result last. With failFast the remaining test cases are not run once one fails, and
+       the result only covers the test cases which ran. In combined mode only the result is sent.
 
-       @param sourceCode - The source code to execute.
-       @param languageId - The ID of the programming language.
-       @param stdin - The input for the program.
-       @return The result of the code execution.
-       @throws IllegalArgumentException - If the source code or language ID is invalid.
-       @throws RuntimeException - If the API call or response processing fails. */
-    public Object runCode(String sourceCode, String language, String stdin) {
-        if (sourceCode == null || sourceCode.trim().isEmpty()) {
-            throw new IllegalArgumentException("Source code cannot be null or empty");
-        }
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param failFast - Whether to stop at the first failing test case, code-executor.stream-fail-fast if null.
+       @return A Flux with the events of the submission.
+       @throws IllegalArgumentException - If the student code or language is invalid, signalled by the Flux.
+       @throws ExecutionScheduler.RejectedException - If the graded lane is full or the student has too many
+               submissions in flight, signalled by the Flux.
+       @throws EntityNotFoundException - If the Exam or CodingQuestion is not found, signalled by the Flux. */
+    public Flux<CodeSubmissionEvent> streamCode(String email, long examId, StudentAnswerDTO studentAnswerDTO, Boolean failFast) {
+        boolean stopAtFailure = failFast != null ? failFast : streamFailFast;
+
+        return Mono.fromCallable(() -> loadCodeSubmission(email, examId, studentAnswerDTO))
+                .subscribeOn(databaseScheduler)
+                .flatMapMany(submission -> {
+                    CodeSubmissionResult cached = verdictCache.get(submission.verdictKey());
+                    if (cached != null) {
+                        return replayEvents(cached).concatWith(finishStream(submission, examId, studentAnswerDTO, cached));
+                    }
+                    if ("combined".equalsIgnoreCase(testCaseMode)) {
+                        return runGraded(email, studentAnswerDTO, submission)
+                                .flatMapMany(result -> finishStream(submission, examId, studentAnswerDTO, result));
+                    }
+                    return streamBatch(email, examId, studentAnswerDTO, submission, stopAtFailure);
+                });
+    }
 
-        if (languagemap.get(language) == null) {
-            throw new IllegalArgumentException("Invalid language ID: " + language);
+    /* Runs the test cases of a submission in the graded lane and turns each finished run into events.
+
+       @param email - The email of the student.
+       @param examId - The ID of the exam.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param submission - The loaded submission.
+       @param stopAtFailure - Whether to cancel the remaining runs after the first failing test case.
+       @return A Flux with the compile, verdict and result events. */
+    private Flux<CodeSubmissionEvent> streamBatch(String email, long examId, StudentAnswerDTO studentAnswerDTO,
+                                                  CodeSubmission submission, boolean stopAtFailure) {
+        TestCaseBundle testCases = submission.testCases();
+        List<CaseOutcome> outcomes = new ArrayList<>(testCases.size());
+
+        return executionScheduler.stream(ExecutionScheduler.Lane.GRADED, email,
+                        () -> codeExecutor.executeStream(studentAnswerDTO.getAnswer(), studentAnswerDTO.getLanguage(), testCases.getBatchInputs()))
+                .index()
+                .map(indexed -> caseOutcome(indexed.getT2(), testCases, indexed.getT1().intValue()))
+                .takeUntil(outcome -> stopAtFailure && !outcome.verdict().isPassed())
+                .concatMap(outcome -> {
+                    outcomes.add(outcome);
+                    CodeSubmissionEvent verdict = new CodeSubmissionEvent("verdict", outcome.verdict());
+                    return outcomes.size() == 1
+                            ? Flux.just(compileEvent(outcome.compilationError(), outcome.compileOutput()), verdict)
+                            : Flux.just(verdict);
+                })
+                .concatWith(Flux.defer(() -> {
+                    CodeSubmissionResult result = summarize(outcomes, testCases.size());
+                    if (outcomes.size() == testCases.size()) {
+                        verdictCache.put(submission.verdictKey(), submission.codingQuestion().getId(), result, submission.verdictGeneration());
+                    }
+                    return finishStream(submission, examId, studentAnswerDTO, result);
+                }));
+    }
+
+    /* Replays the compile and verdict events of a cached result. */
+    private Flux<CodeSubmissionEvent> replayEvents(CodeSubmissionResult result) {
+        if (result.getVerdicts() == null || result.getVerdicts().isEmpty()) {
+            return Flux.empty();
         }
+        boolean compilationError = "Compilation Error".equals(result.getVerdicts().get(0).getStatus());
+        return Flux.concat(Flux.just(compileEvent(compilationError, null)),
+                Flux.fromIterable(result.getVerdicts()).map(verdict -> new CodeSubmissionEvent("verdict", verdict)));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("X-RapidAPI-Host", "judge0-ce.p.rapidapi.com");
-        headers.set("X-RapidAPI-Key", apiKey);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("source_code", sourceCode);
-        body.put("language_id", languagemap.get(language));
-        body.put("stdin", stdin);
-
-        try {
-
-            String response = webClient.post()
-                    .uri("/submissions?base64_encoded=false&wait=true&field=*")
-                    .headers(httpHeaders -> httpHeaders.putAll(headers))
-                    .bodyValue(body)
-                    .exchangeToMono(clientResponse -> {
-                        if (clientResponse.statusCode().is2xxSuccessful()) {
-                            return clientResponse.bodyToMono(String.class);
-                        } else {
-                            return clientResponse.bodyToMono(String.class)
-                                    .flatMap(errorBody -> Mono.error(new RuntimeException("API call failed " + errorBody)));
-                        }
-                    })
-                    .block();
-
-            return objectMapper.readValue(response, new TypeReference<Map<String, Object>>() {});
-        } catch (WebClientResponseException e) {
-            System.err.println("API call failed " + e.getResponseBodyAsString());
-            throw new RuntimeException("API call failed " + e.getResponseBodyAsString());
-        } catch (Exception e) {
-            System.err.println("Error processing response " + e.getMessage());
-            throw new RuntimeException("Error processing response " + e.getMessage(), e);
+    /* Saves the answer if it is correct, on the database scheduler, and emits the result event. */
+    private Flux<CodeSubmissionEvent> finishStream(CodeSubmission submission, long examId, StudentAnswerDTO studentAnswerDTO,
+                                                   CodeSubmissionResult result) {
+        return Mono.fromCallable(() -> {
+                    if (result.isCorrect()) {
+                        saveCorrectCode(submission, examId, studentAnswerDTO);
+                    }
+                    return new CodeSubmissionEvent("result", result);
+                })
+                .subscribeOn(databaseScheduler)
+                .flux();
+    }
+
+    /* Builds the compile event sent before the first verdict. */
+    private CodeSubmissionEvent compileEvent(boolean compilationError, String compileOutput) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("status", compilationError ? "Compilation Error" : "Compiled");
+        data.put("compileOutput", compileOutput);
+        return new CodeSubmissionEvent("compile", data);
+    }
+
+    /* The student exam id, coding question and packed test cases of a code submission, with its VerdictCache key
+       and the cache generation read before the test cases were loaded. */
+    private record CodeSubmission(long studentExamId, CodingQuestion codingQuestion, TestCaseBundle testCases,
+                                  String verdictKey, long verdictGeneration) {
+    }
+
+    /* Returns the cached result of a submission, or runs it in the graded lane and caches the result.
+
+       @param email - The email of the student.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param submission - The loaded submission.
+       @return A Mono with the result of the submission. */
+    private Mono<CodeSubmissionResult> runOrReuse(String email, StudentAnswerDTO studentAnswerDTO, CodeSubmission submission) {
+        CodeSubmissionResult cached = verdictCache.get(submission.verdictKey());
+        if (cached != null) {
+            return Mono.just(cached);
         }
+        return runGraded(email, studentAnswerDTO, submission);
     }
 
-    /* Executes a given answer code on the Judge0 API and retrieves the result and submit that if output is correct.
+    /* Runs a submission in the graded lane and caches the result.
+
+       @param email - The email of the student.
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param submission - The loaded submission.
+       @return A Mono with the result of the submission. */
+    private Mono<CodeSubmissionResult> runGraded(String email, StudentAnswerDTO studentAnswerDTO, CodeSubmission submission) {
+        return executionScheduler.submit(ExecutionScheduler.Lane.GRADED, email,
+                        () -> "combined".equalsIgnoreCase(testCaseMode)
+                                ? runCombined(studentAnswerDTO, submission.testCases())
+                                : runBatch(studentAnswerDTO, submission.testCases()))
+                .doOnNext(result -> verdictCache.put(submission.verdictKey(), submission.codingQuestion().getId(),
+                        result, submission.verdictGeneration()));
+    }
+
+    /* Validates a code submission and loads what is needed to run it, in one read-only transaction.
 
        @param email - The email of the student.
        @param examId - The ID of the exam.
        @param studentAnswerDTO - A DTO containing the answers of code.
-       @return string message based code output.
+       @return The student exam, coding question and its packed test cases.
        @throws IllegalArgumentException - If the student code or language is invalid.
+       @throws IllegalStateException - If the exam time is over.
        @throws EntityNotFoundException - If the Exam or CodingQuestion is not found. */
-    public String submitCode(String email, long examId, StudentAnswerDTO studentAnswerDTO) {
+    private CodeSubmission loadCodeSubmission(String email, long examId, StudentAnswerDTO studentAnswerDTO) {
 
         if (studentAnswerDTO.getAnswer() == null || studentAnswerDTO.getAnswer().trim().isEmpty()) {
             throw new IllegalArgumentException("Source code cannot be null or empty");
         }
 
-        if ((studentAnswerDTO.getLanguage() == null) || studentAnswerDTO.getLanguage().trim().isEmpty() || (languagemap.get(studentAnswerDTO.getLanguage()) == null)) {
+        if ((studentAnswerDTO.getLanguage() == null) || studentAnswerDTO.getLanguage().trim().isEmpty() || !codeExecutor.supports(studentAnswerDTO.getLanguage())) {
             throw new IllegalArgumentException("Invalid language " + studentAnswerDTO.getLanguage());
         }
 
-        StudentExam studentExam = studentExamRepository.findByStudentEmailAndExamId(email, examId).orElseThrow(
-                () -> new EntityNotFoundException("studentExam not found")
-        );
+        long verdictGeneration = verdictCache.generation();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
 
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new EntityNotFoundException("Exam not found"));
+        return transactionTemplate.execute(status -> {
+            ExamSession session = examSessionResolver.resolve(email, examId);
+            if (!session.hasAttempt()) {
+                throw new EntityNotFoundException("studentExam not found");
+            }
 
-        int durationint = Integer.parseInt(exam.getDuration());
-        LocalDateTime starttime = studentExam.getStartTime();
-        LocalDateTime endtime = studentExam.getEndTime();
+            if (session.isTimeOver() && session.isCompleted()) {
+                throw new IllegalStateException("Code submission failed because of Exam time is over.");
+            }
 
-        if (durationint < Duration.between(starttime, endtime).toMinutes() && studentExam.isCompleted()) {
-            throw new IllegalStateException("Code submission failed because of Exam time is over.");
-        }
+            CodingQuestion codingQuestion = codingQuestionRepository.findById(studentAnswerDTO.getQuestionId()).orElseThrow(
+                    () -> new EntityNotFoundException("Coding Question not found")
+            );
 
-        CodingQuestion codingQuestion = codingQuestionRepository.findById(studentAnswerDTO.getQuestionId()).orElseThrow(
-                () -> new EntityNotFoundException("Coding Question not found")
-        );
+            TestCaseBundle testCases = testCaseBundleCache.get(codingQuestion);
 
-        Set<CodingTestCase> codingTestCases = codingQuestion.getTestCases();
+            String verdictKey = verdictCache.key(codingQuestion.getId(), studentAnswerDTO.getLanguage(),
+                    studentAnswerDTO.getAnswer(), testCaseMode, testCases.getChecksum());
 
-        String stdin = codingTestCases.size() + "\n";
-        for (CodingTestCase codingTestCase : codingTestCases) {
-            stdin += codingTestCase.getInputData() + "\n";
-        }
+            return new CodeSubmission(session.getStudentExamId(), codingQuestion, testCases, verdictKey, verdictGeneration);
+        });
+    }
 
-        Map<String, Object> response = (Map<String, Object>) runCode(studentAnswerDTO.getAnswer(), studentAnswerDTO.getLanguage(), stdin);
+    /* Saves a code answer which passed every test case as correct and adds its marks to the running score.
 
-        if (response.get("stderr") != null || response.get("error") != null) {
-            return "Your code gives an error.";
-        }
+       @param submission - The student exam and coding question of the answer.
+       @param examId - The ID of the exam.
+       @param studentAnswerDTO - A DTO containing the answers of code. */
+    private void saveCorrectCode(CodeSubmission submission, long examId, StudentAnswerDTO studentAnswerDTO) {
+        CodingQuestion codingQuestion = submission.codingQuestion();
 
-        String output = "";
-        for (CodingTestCase codingTestCase : codingTestCases) {
-            output += codingTestCase.getExpectedOutput();
-            if (!codingTestCase.getExpectedOutput().equals("")) {
-                output += " ";
-            }
-            output += "\n";
-        }
+        autoSaveBuffer.flush(submission.studentExamId());
 
-        if (response.get("stdout") != null && response.get("stdout").equals(output)) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            StudentExam studentExam = studentExamRepository.getReferenceById(submission.studentExamId());
             StudentAnswer answer = studentAnswerRepository.findByStudentExamAndCodingQuestionId(studentExam, studentAnswerDTO.getQuestionId())
                     .orElseGet(() -> {
                         StudentAnswer newAnswer = new StudentAnswer();
                         newAnswer.setStudentExam(studentExam);
-                        CodingQuestion codingQuestion1 = codingQuestionRepository.findById(studentAnswerDTO.getQuestionId())
-                                .orElseThrow(() -> new RuntimeException("Coding Question not found"));
-                        newAnswer.setCodingQuestion(codingQuestion1);
+                        newAnswer.setCodingQuestion(codingQuestion);
                         return newAnswer;
                     });
 
+            boolean wasCorrect = answer.isCorrect();
             answer.setCorrect(true);
             answer.setStudentExam(studentExam);
             answer.setAnswer(studentAnswerDTO.getAnswer());
             answer.setLanguage(studentAnswerDTO.getLanguage());
 
             studentAnswerRepository.save(answer);
-            studentExam.setEndTime(LocalDateTime.now());
-            studentExamRepository.save(studentExam);
+            if (!wasCorrect) {
+                scoreService.applyCorrectnessChanges(studentExam.getId(), examId, Map.of(), Map.of(codingQuestion.getId(), true));
+            }
+            studentExamRepository.updateEndTime(studentExam.getId(), LocalDateTime.now());
+        });
+    }
+
+    /* Runs all test cases as one program. The input starts with the number of test cases followed by the input
+       of each test case, and the output must be the expected output of each test case on its own line.
+
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param testCases - The packed test cases of the question.
+       @return A Mono with the result of the submission, without per test case verdicts. */
+    private Mono<CodeSubmissionResult> runCombined(StudentAnswerDTO studentAnswerDTO, TestCaseBundle testCases) {
+        return codeExecutor.executeAsync(studentAnswerDTO.getAnswer(), studentAnswerDTO.getLanguage(), testCases.getCombinedInput())
+                .map(response -> combinedResult(response, testCases));
+    }
+
+    /* Compares the output of a combined run with the expected output of all test cases.
+
+       @param response - The result of the run.
+       @param testCases - The packed test cases of the question.
+       @return The result of the submission, without per test case verdicts. */
+    private CodeSubmissionResult combinedResult(Map<String, Object> response, TestCaseBundle testCases) {
+
+        int total = testCases.size();
+        if (response.get("stderr") != null || response.get("error") != null) {
+            return new CodeSubmissionResult(false, 0, total, "Your code gives an error.", List.of());
+        }
 
-            return "Your code is correct and submitted successfully";
-        } else {
-            return "Output does not match the expected output. Your output: " + response.get("stdout");
+        int mismatchLine = outputChecker.firstMismatchLine(stdout(response), testCases.getCombinedExpectedOutput(),
+                testCases.getOutputCheck(), testCases.getNumericTolerance());
+        if (mismatchLine == 0) {
+            return new CodeSubmissionResult(true, total, total, "Your code is correct and submitted successfully", List.of());
         }
+
+        int index = testCases.getTestCaseIndexAtCombinedLine(mismatchLine);
+        int line = mismatchLine - testCases.getFirstCombinedLine(index) + 1;
+        CodeSubmissionResult result = new CodeSubmissionResult(false, 0, total,
+                "Output does not match the expected output at test case " + (index + 1) + ", line " + line + ". Your output: "
+                        + response.get("stdout"), List.of());
+        result.setFirstMismatchTestCaseId(testCases.getTestCaseId(index));
+        result.setFirstMismatchLine(line);
+        return result;
+    }
+
+    /* Runs each test case as a separate run of one batch. Every run gets the input of a single test case in the
+       same format as a combined run with one test case, so the same program works in both modes.
+
+       @param studentAnswerDTO - A DTO containing the answers of code.
+       @param testCases - The packed test cases of the question.
+       @return A Mono with the result of the submission with the verdict of each test case. */
+    private Mono<CodeSubmissionResult> runBatch(StudentAnswerDTO studentAnswerDTO, TestCaseBundle testCases) {
+        return codeExecutor.executeBatchAsync(studentAnswerDTO.getAnswer(), studentAnswerDTO.getLanguage(), testCases.getBatchInputs())
+                .map(responses -> batchResult(responses, testCases));
+    }
+
+    /* Builds the verdict of each test case from the results of a batch.
+
+       @param responses - The result of each run, in the order of the test cases.
+       @param testCases - The packed test cases of the question.
+       @return The result of the submission with the verdict of each test case. */
+    private CodeSubmissionResult batchResult(List<Map<String, Object>> responses, TestCaseBundle testCases) {
+
+        List<CaseOutcome> outcomes = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            outcomes.add(caseOutcome(responses.get(i), testCases, i));
+        }
+        return summarize(outcomes, testCases.size());
+    }
+
+    /* The verdict of one test case, whether the run failed with an error and the compilation outcome of the run. */
+    private record CaseOutcome(TestCaseVerdict verdict, boolean error, boolean compilationError, String compileOutput) {
+    }
+
+    /* Builds the verdict of one test case from the result of its run.
+
+       @param response - The result of the run.
+       @param testCases - The packed test cases of the question.
+       @param index - The index of the test case in the packed order.
+       @return The verdict and whether the run failed with an error. */
+    private CaseOutcome caseOutcome(Map<String, Object> response, TestCaseBundle testCases, int index) {
+
+        Object status = response.get("status");
+        Object statusId = status instanceof Map<?, ?> statusMap ? statusMap.get("id") : null;
+        String description = status instanceof Map<?, ?> statusMap ? String.valueOf(statusMap.get("description")) : null;
+
+        // Judge0 status 3 is Accepted and 4 is Wrong Answer, every other finished status is an error
+        boolean failed = response.get("stderr") != null || response.get("error") != null || response.get("compile_output") != null
+                || (statusId instanceof Number id && id.intValue() != 3 && id.intValue() != 4);
+        int mismatchLine = failed ? 0 : outputChecker.firstMismatchLine(stdout(response), testCases.getExpectedOutput(index),
+                testCases.getOutputCheck(), testCases.getNumericTolerance());
+        boolean matches = !failed && mismatchLine == 0;
+
+        Object memory = response.get("memory");
+
+        TestCaseVerdict verdict = new TestCaseVerdict(testCases.getTestCaseId(index), matches, matches || failed ? description : "Wrong Answer",
+                response.get("time") != null ? String.valueOf(response.get("time")) : null,
+                memory instanceof Number number ? number.intValue() : null);
+        if (mismatchLine > 0) {
+            verdict.setMismatchLine(mismatchLine);
+        }
+
+        // Judge0 status 6 is Compilation Error
+        boolean compilationError = statusId instanceof Number id && id.intValue() == 6;
+        Object compileOutput = response.get("compile_output");
+        return new CaseOutcome(verdict, failed, compilationError, compileOutput != null ? String.valueOf(compileOutput) : null);
+    }
+
+    /* Builds the result of a submission from the verdicts of the test cases which ran. Fewer outcomes than test
+       cases means the run stopped at the first failing test case, or the stream of verdicts ended early. When no
+       failing test case has a mismatch line the result points at the first test case which did not pass.
+
+       @param outcomes - The outcome of each test case which ran, in the order of the test cases.
+       @param total - The number of test cases of the question.
+       @return The result of the submission with the verdict of each test case which ran. */
+    private CodeSubmissionResult summarize(List<CaseOutcome> outcomes, int total) {
+
+        List<TestCaseVerdict> verdicts = new ArrayList<>(outcomes.size());
+        int passed = 0;
+        boolean error = false;
+        int firstFailed = -1;
+        int firstMismatch = -1;
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            TestCaseVerdict verdict = outcomes.get(i).verdict();
+            verdicts.add(verdict);
+            error |= outcomes.get(i).error();
+            if (verdict.isPassed()) {
+                passed++;
+                continue;
+            }
+            if (firstFailed < 0) {
+                firstFailed = i;
+            }
+            if (firstMismatch < 0 && verdict.getMismatchLine() != null) {
+                firstMismatch = i;
+            }
+        }
+
+        if (passed == total) {
+            return new CodeSubmissionResult(true, passed, total, "Your code is correct and submitted successfully", verdicts);
+        }
+        if (error) {
+            return new CodeSubmissionResult(false, passed, total, "Your code gives an error.", verdicts);
+        }
+        if (firstMismatch < 0) {
+            if (firstFailed < 0) {
+                return new CodeSubmissionResult(false, passed, total, "Only " + outcomes.size() + " of " + total
+                        + " test cases were run, please submit again.", verdicts);
+            }
+            TestCaseVerdict failed = verdicts.get(firstFailed);
+            CodeSubmissionResult result = new CodeSubmissionResult(false, passed, total, "Your code failed test case "
+                    + (firstFailed + 1) + " of " + total + " with " + failed.getStatus() + ".", verdicts);
+            result.setFirstMismatchTestCaseId(failed.getTestCaseId());
+            return result;
+        }
+
+        TestCaseVerdict mismatch = verdicts.get(firstMismatch);
+        CodeSubmissionResult result = outcomes.size() < total
+                ? new CodeSubmissionResult(false, passed, total, "Output does not match the expected output at test case "
+                        + (firstMismatch + 1) + " of " + total + ", line " + mismatch.getMismatchLine() + ".", verdicts)
+                : new CodeSubmissionResult(false, passed, total, "Output does not match the expected output for "
+                        + (total - passed) + " of " + total + " test cases, first at test case " + (firstMismatch + 1)
+                        + ", line " + mismatch.getMismatchLine() + ".", verdicts);
+        result.setFirstMismatchTestCaseId(mismatch.getTestCaseId());
+        result.setFirstMismatchLine(mismatch.getMismatchLine());
+        return result;
+    }
+
+    /* Returns the stdout of a run, or null if it has none. */
+    private String stdout(Map<String, Object> response) {
+        return response.get("stdout") instanceof String stdout ? stdout : null;
     }
 
 }
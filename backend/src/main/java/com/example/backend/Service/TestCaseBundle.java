@@ -0,0 +1,156 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.CodingQuestion;
+import com.example.backend.Entity.CodingQuestion.OutputCheck;
+import com.example.backend.Entity.CodingTestCase;
+
+import java.security.MessageDigest;
+import java.util.*;
+
+/* The TestCaseBundle class holds the test cases of one coding question packed in the form the executors need,
+   so a submission does not rebuild the inputs and expected outputs from the entities.
+
+ * Contents:
+   - The test cases are ordered by id, which fixes the order of the runs, the verdicts and the combined input.
+   - The input of each run of a batch and the expected output line of each test case.
+   - The input and expected output of a combined run, the number of test cases followed by every input, and every
+     expected output line. Both are built once with a presized StringBuilder.
+   - The output check mode and numeric tolerance of the question.
+   - A SHA-256 checksum of the ids, inputs and expected outputs and of the output check, which identifies the
+     version of the test case set.
+
+ * A bundle is immutable, so it is safe to share between threads once it is published. */
+public final class TestCaseBundle {
+
+    // Tolerance used in NUMERIC mode when the question does not set one
+    private static final double DEFAULT_NUMERIC_TOLERANCE = 1e-6;
+
+    private final long questionId;
+    private final OutputCheck outputCheck;
+    private final double numericTolerance;
+    private final long[] testCaseIds;
+    private final int[] firstCombinedLines;
+    private final List<String> batchInputs;
+    private final List<String> expectedOutputs;
+    private final String combinedInput;
+    private final String combinedExpectedOutput;
+    private final String checksum;
+
+    /* Packs the test cases of a coding question.
+
+       @param codingQuestion - The coding question, its test cases are read. */
+    public TestCaseBundle(CodingQuestion codingQuestion) {
+        List<CodingTestCase> ordered = new ArrayList<>(codingQuestion.getTestCases());
+        ordered.sort(Comparator.comparing(CodingTestCase::getId));
+
+        int count = ordered.size();
+        this.questionId = codingQuestion.getId();
+        this.outputCheck = codingQuestion.getOutputCheck() != null ? codingQuestion.getOutputCheck() : OutputCheck.EXACT;
+        this.numericTolerance = codingQuestion.getNumericTolerance() != null ? codingQuestion.getNumericTolerance() : DEFAULT_NUMERIC_TOLERANCE;
+        this.testCaseIds = new long[count];
+        this.firstCombinedLines = new int[count];
+        List<String> inputs = new ArrayList<>(count);
+        List<String> outputs = new ArrayList<>(count);
+
+        int inputLength = String.valueOf(count).length() + 1;
+        int outputLength = 0;
+        for (CodingTestCase testCase : ordered) {
+            inputLength += testCase.getInputData().length() + 1;
+            outputLength += testCase.getExpectedOutput().length() + 2;
+        }
+
+        StringBuilder combinedInput = new StringBuilder(inputLength).append(count).append('\n');
+        StringBuilder combinedOutput = new StringBuilder(outputLength);
+        MessageDigest digest = Sha256.newDigest();
+        Sha256.update(digest, outputCheck.name());
+        Sha256.update(digest, String.valueOf(numericTolerance));
+
+        int line = 1;
+        for (int i = 0; i < count; i++) {
+            CodingTestCase testCase = ordered.get(i);
+            testCaseIds[i] = testCase.getId();
+
+            String expected = expectedOutput(testCase.getExpectedOutput());
+            firstCombinedLines[i] = line;
+            line += (int) expected.chars().filter(c -> c == '\n').count();
+            inputs.add("1\n" + testCase.getInputData() + "\n");
+            outputs.add(expected);
+            combinedInput.append(testCase.getInputData()).append('\n');
+            combinedOutput.append(expected);
+
+            Sha256.update(digest, String.valueOf(testCase.getId()));
+            Sha256.update(digest, testCase.getInputData());
+            Sha256.update(digest, testCase.getExpectedOutput());
+        }
+
+        this.batchInputs = Collections.unmodifiableList(inputs);
+        this.expectedOutputs = Collections.unmodifiableList(outputs);
+        this.combinedInput = combinedInput.toString();
+        this.combinedExpectedOutput = combinedOutput.toString();
+        this.checksum = Sha256.hex(digest);
+    }
+
+    public long getQuestionId() {
+        return questionId;
+    }
+
+    public OutputCheck getOutputCheck() {
+        return outputCheck;
+    }
+
+    public double getNumericTolerance() {
+        return numericTolerance;
+    }
+
+    /* Returns the number of test cases. */
+    public int size() {
+        return testCaseIds.length;
+    }
+
+    /* Returns the id of the test case at an index of the fixed order. */
+    public long getTestCaseId(int index) {
+        return testCaseIds[index];
+    }
+
+    /* Returns the input of each run of a batch, one test case in the same format as a combined run with one test case. */
+    public List<String> getBatchInputs() {
+        return batchInputs;
+    }
+
+    /* Returns the expected output line of the test case at an index of the fixed order. */
+    public String getExpectedOutput(int index) {
+        return expectedOutputs.get(index);
+    }
+
+    public String getCombinedInput() {
+        return combinedInput;
+    }
+
+    public String getCombinedExpectedOutput() {
+        return combinedExpectedOutput;
+    }
+
+    /* Returns the line of the combined expected output where the expected output of a test case starts. */
+    public int getFirstCombinedLine(int index) {
+        return firstCombinedLines[index];
+    }
+
+    /* Returns the index of the test case whose expected output holds a line of the combined expected output.
+
+       @param line - A 1-based line of the combined expected output, past the end it maps to the last test case.
+       @return The index of the test case in the fixed order. */
+    public int getTestCaseIndexAtCombinedLine(int line) {
+        int index = Arrays.binarySearch(firstCombinedLines, line);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /* Returns the output expected for one test case, the expected output followed by a space if it is not empty
+       and a new line. */
+    private static String expectedOutput(String expected) {
+        return expected.isEmpty() ? "\n" : expected + " \n";
+    }
+}
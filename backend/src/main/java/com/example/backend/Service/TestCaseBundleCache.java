@@ -0,0 +1,41 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.CodingQuestion;
+import org.springframework.stereotype.Service;
+
+/* The TestCaseBundleCache class holds the TestCaseBundle of every coding question which was submitted.
+
+ * Lifecycle:
+   - The bundle of a question is built on first use from its test cases, which must be loadable, so it is called
+     inside the transaction which loaded the question. A cached bundle does not touch the test cases, so they
+     are not loaded at all.
+   - The bundle of a question is dropped when the question is updated or deleted, and rebuilt on next use. */
+@Service
+public class TestCaseBundleCache {
+
+    // Bundles keyed by coding question id
+    private final GenerationalCache<Long, TestCaseBundle> bundles = GenerationalCache.unbounded();
+
+    /* Returns the bundle of a coding question, building it if it is not cached.
+
+       @param codingQuestion - The coding question, its test cases are only read when the bundle is built.
+       @return The bundle of the question. */
+    public TestCaseBundle get(CodingQuestion codingQuestion) {
+        TestCaseBundle bundle = bundles.get(codingQuestion.getId());
+        if (bundle != null) {
+            return bundle;
+        }
+
+        long buildGeneration = bundles.generation();
+        bundle = new TestCaseBundle(codingQuestion);
+        bundles.put(codingQuestion.getId(), bundle, buildGeneration);
+        return bundle;
+    }
+
+    /* Drops the bundle of a coding question.
+
+       @param questionId - The ID of the updated or deleted coding question. */
+    public void invalidateQuestion(long questionId) {
+        bundles.remove(questionId);
+    }
+}
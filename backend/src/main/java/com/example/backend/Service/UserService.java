@@ -1,11 +1,13 @@
 package com.example.backend.Service;
 
+import com.example.backend.Dto.KeysetPage;
 import com.example.backend.Dto.UpdateUserRequest;
 import com.example.backend.Dto.UserResponse;
 import com.example.backend.Entity.University;
 import com.example.backend.Entity.User;
 import com.example.backend.Repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -33,13 +35,16 @@ public class UserService {
         userRepository.save(user);
     }
 
-    /* Retrieves all users from the database and returns them in a list of UserResponse objects.
+    /* Retrieves one page of users in id order from the database and returns them as UserResponse objects.
 
-       @return - A ResponseEntity containing a list of UserResponse objects if successful, or an error message otherwise.
+       @param after - The continuation token of the previous page, or null for the first page.
+       @param size - The number of users of the page.
+       @return - A ResponseEntity containing the page of UserResponse objects if successful, or an error message otherwise.
     */
-    public ResponseEntity<?> getAll() {
+    public ResponseEntity<?> getAll(String after, int size) {
         try {
-            List<User> users = userRepository.findAll();
+            int limit = KeysetPage.limit(size);
+            List<User> users = userRepository.findAfter(KeysetPage.after(after), Limit.of(limit + 1));
             List<UserResponse> userResponses = new ArrayList<>();
 
             for (User user : users) {
@@ -56,7 +61,9 @@ public class UserService {
                 userResponses.add(userResponse);
             }
 
-            return ResponseEntity.ok(userResponses);
+            return ResponseEntity.ok(KeysetPage.of(userResponses, limit, UserResponse::getUserid));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("An error occurred while fetching the users.");
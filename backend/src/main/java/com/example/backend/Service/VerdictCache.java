@@ -0,0 +1,140 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.CodeSubmissionResult;
+import com.example.backend.Dto.TestCaseVerdict;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Set;
+
+/* The VerdictCache class holds the results of graded code submissions, so a resubmission of the same code for
+   the same test cases is answered without running it again.
+
+ * Key:
+   - A SHA-256 hash of the normalized source code, the language, the coding question, the test case mode and a
+     fingerprint of the test cases. The source is normalized by converting line endings to \n and dropping
+     trailing whitespace at the end of the code, which never changes what the program does.
+   - The fingerprint is the checksum of the TestCaseBundle of the question, which covers the id, input and
+     expected output of every test case, so a changed test case gives a new key even before the old entries
+     are dropped.
+
+ * Lifecycle:
+   - Only results which do not depend on the load of the executor are cached: correct results and results
+     whose test cases were all Accepted, Wrong Answer or Compilation Error. Time limits and runtime errors are
+     run again.
+   - The cache holds at most verdict-cache.max-entries results and drops the least recently used one first.
+   - The entries of a coding question are dropped when the question is updated or deleted.
+   - The hits, misses and size of the cache are registered as the verdict.cache.* meters. */
+@Service
+public class VerdictCache {
+
+    // Verdict statuses which only depend on the code and the test cases
+    private static final Set<String> DETERMINISTIC_STATUSES = Set.of("Accepted", "Wrong Answer", "Compilation Error");
+
+    // A cached result and the coding question it belongs to
+    private record Entry(long questionId, CodeSubmissionResult result) {
+    }
+
+    // Results in least recently used order
+    private final GenerationalCache<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    // Create constructor with the configured maximum number of cached results
+    public VerdictCache(MeterRegistry meterRegistry, @Value("${verdict-cache.max-entries:10000}") int maxEntries) {
+        this.entries = GenerationalCache.lru(maxEntries);
+        this.hits = Counter.builder("verdict.cache.requests")
+                .description("Lookups of graded code submissions in the verdict cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("verdict.cache.requests")
+                .description("Lookups of graded code submissions in the verdict cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("verdict.cache.size", entries, GenerationalCache::size)
+                .description("Results held by the verdict cache")
+                .register(meterRegistry);
+    }
+
+    /* Computes the cache key of a submission.
+
+       @param questionId - The ID of the coding question.
+       @param language - The name of the programming language.
+       @param sourceCode - The submitted code.
+       @param testCaseMode - The mode the test cases are run in, batch or combined.
+       @param testCaseChecksum - The checksum of the TestCaseBundle of the question.
+       @return The hex encoded SHA-256 key. */
+    public String key(long questionId, String language, String sourceCode, String testCaseMode, String testCaseChecksum) {
+        MessageDigest digest = Sha256.newDigest();
+        Sha256.update(digest, String.valueOf(questionId));
+        Sha256.update(digest, language.trim().toLowerCase());
+        Sha256.update(digest, testCaseMode.toLowerCase());
+        Sha256.update(digest, normalize(sourceCode));
+        Sha256.update(digest, testCaseChecksum);
+        return Sha256.hex(digest);
+    }
+
+    /* Returns the generation to pass to put, read before the test cases are loaded. */
+    public long generation() {
+        return entries.generation();
+    }
+
+    /* Returns the cached result of a submission.
+
+       @param key - The key from key().
+       @return The cached result or null. */
+    public CodeSubmissionResult get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result();
+    }
+
+    /* Caches the result of a submission if it is deterministic and no question was invalidated since the
+       given generation.
+
+       @param key - The key from key().
+       @param questionId - The ID of the coding question.
+       @param result - The result of running the submission.
+       @param loadGeneration - The generation read before the test cases were loaded. */
+    public void put(String key, long questionId, CodeSubmissionResult result, long loadGeneration) {
+        if (isDeterministic(result)) {
+            entries.put(key, new Entry(questionId, result), loadGeneration);
+        }
+    }
+
+    /* Drops the cached results of a coding question.
+
+       @param questionId - The ID of the updated or deleted coding question. */
+    public void invalidateQuestion(long questionId) {
+        entries.removeIf((key, entry) -> entry.questionId() == questionId);
+    }
+
+    private static boolean isDeterministic(CodeSubmissionResult result) {
+        if (result.isCorrect()) {
+            return true;
+        }
+        if (result.getVerdicts() == null || result.getVerdicts().isEmpty()) {
+            return false;
+        }
+        for (TestCaseVerdict verdict : result.getVerdicts()) {
+            if (!DETERMINISTIC_STATUSES.contains(verdict.getStatus())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String sourceCode) {
+        return sourceCode.replace("\r\n", "\n").replace('\r', '\n').stripTrailing();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.backend.Controller;
+
+import com.example.backend.Dto.ExecutionLaneStats;
+import com.example.backend.Service.ExecutionScheduler;
+import com.example.backend.Service.Judge0Client;
+import com.example.backend.Service.Judge0CodeExecutor;
+import com.example.backend.Service.StudentExamService;
+import com.example.backend.Simulator.Judge0Simulator;
+import com.example.backend.Simulator.Judge0Simulator.Latency;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Serves /run-code from Tomcat limited to a few request threads, with the Judge0CodeExecutor running against the
+   Judge0Simulator, to check that a code run in flight does not hold a request thread. Only the web layer, the
+   StudentExamService and the ExecutionScheduler are started, the runs need no database. */
+class StudentExamControllerConcurrencyTests {
+
+    private static final int REQUEST_THREADS = 4;
+    private static final int RUNS = 16;
+    private static final long EXECUTION_MS = 1000;
+
+    private Judge0Simulator simulator;
+    private ExecutionScheduler executionScheduler;
+    private ConfigurableApplicationContext context;
+
+    /* The web layer of the test, the StudentExamService is registered by the test with only its code execution
+       dependencies set. */
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import(StudentExamController.class)
+    static class CodeEndpoints {
+
+        // Stands in for the JWT filter, the logged in student is taken from the X-Student header
+        @Bean
+        Filter studentFilter() {
+            return (request, response, chain) -> {
+                String student = ((HttpServletRequest) request).getHeader("X-Student");
+                chain.doFilter(new HttpServletRequestWrapper((HttpServletRequest) request) {
+                    @Override
+                    public Principal getUserPrincipal() {
+                        return student != null ? () -> student : null;
+                    }
+                }, response);
+            };
+        }
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        simulator = new Judge0Simulator(0);
+        simulator.setExecutionLatency(Latency.fixed(EXECUTION_MS));
+
+        Judge0Client client = new Judge0Client(WebClient.builder(), new SimpleMeterRegistry(), simulator.getBaseUrl(),
+                "localhost", "key", 5000, 2000, 20, 10, 50, 30000, 3, false, 1000);
+        Judge0CodeExecutor executor = new Judge0CodeExecutor(client, new ObjectMapper());
+        ReflectionTestUtils.setField(executor, "maxBatchSize", 20);
+        ReflectionTestUtils.setField(executor, "pollInitialDelayMs", 20L);
+        ReflectionTestUtils.setField(executor, "pollMaxDelayMs", 200L);
+        ReflectionTestUtils.setField(executor, "pollTimeoutMs", 10000L);
+
+        executionScheduler = new ExecutionScheduler(new SimpleMeterRegistry(), RUNS, RUNS, 100, 2, RUNS, 100, 1);
+        StudentExamService studentExamService = new StudentExamService();
+        ReflectionTestUtils.setField(studentExamService, "codeExecutor", executor);
+        ReflectionTestUtils.setField(studentExamService, "executionScheduler", executionScheduler);
+
+        context = new SpringApplicationBuilder(CodeEndpoints.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("studentExamService", studentExamService))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + REQUEST_THREADS,
+                        "--server.tomcat.threads.min-spare=" + REQUEST_THREADS,
+                        "--spring.mvc.async.request-timeout=30000");
+    }
+
+    @AfterEach
+    void stop() {
+        if (context != null) {
+            context.close();
+        }
+        simulator.close();
+    }
+
+    @Test
+    void runsInFlightExceedTheRequestThreads() throws Exception {
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/student-exam/run-code"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Student", "student" + i + "@example.com")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"sourceCode\":\"print(input())\",\"language\":\"python\",\"stdin\":\"" + i + "\"}"))
+                    .build();
+            responses.add(http.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Samples the runs in flight until every response arrived
+        int peakRunning = 0;
+        while (!CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).isDone()) {
+            for (ExecutionLaneStats stats : executionScheduler.getStats()) {
+                peakRunning = Math.max(peakRunning, stats.getRunning());
+            }
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos(), "runs did not finish");
+            Thread.sleep(10);
+        }
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        for (int i = 0; i < RUNS; i++) {
+            HttpResponse<String> response = responses.get(i).get();
+            assertEquals(200, response.statusCode(), response.body());
+            assertTrue(response.body().contains("\"stdout\":\"" + i + "\""), response.body());
+        }
+        assertEquals(RUNS, simulator.getExecutions());
+        assertTrue(peakRunning > REQUEST_THREADS, "peak of " + peakRunning + " runs in flight");
+        // holding a request thread per run, the runs would take at least RUNS / REQUEST_THREADS execution times
+        assertTrue(elapsedMs < RUNS / REQUEST_THREADS * EXECUTION_MS, "runs took " + elapsedMs + " ms");
+    }
+}
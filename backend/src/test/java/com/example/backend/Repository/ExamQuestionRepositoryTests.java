@@ -0,0 +1,144 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.*;
+import com.example.backend.Service.ExamPaper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Counts the statements run to load the paper of an exam, which must not grow with the number of questions,
+   options or test cases. Runs on an in-memory H2 database in SQL Server mode. */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:exam-questions;MODE=MSSQLServer",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExamQuestionRepositoryTests {
+
+    @Autowired
+    private ExamQuestionRepository examQuestionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void paperLoadsInTwoStatementsWhateverTheNumberOfQuestions() {
+        long smallExamId = exam("small", 2, 1);
+        long largeExamId = exam("large", 40, 20);
+
+        assertEquals(2, statementsToLoad(smallExamId));
+        assertEquals(2, statementsToLoad(largeExamId));
+    }
+
+    @Test
+    void paperHoldsOrderedQuestionsWithOnlyTheirSampleTestCases() {
+        long examId = exam("paper", 3, 2);
+        entityManager.clear();
+
+        List<ExamQuestion> mcqs = examQuestionRepository.findMcqQuestionsWithOptionsByExamId(examId);
+        List<ExamQuestion> codes = examQuestionRepository.findCodingQuestionsWithSamplesByExamId(examId);
+
+        assertEquals(3, mcqs.size());
+        assertEquals(2, codes.size());
+        assertTrue(mcqs.get(0).getId() < mcqs.get(1).getId());
+        mcqs.forEach(eq -> assertEquals(3, eq.getMcqQuestion().getOptions().size()));
+        codes.forEach(eq -> {
+            assertEquals(1, eq.getCodingQuestion().getSampleTestCases().size());
+            assertTrue(eq.getCodingQuestion().getSampleTestCases().iterator().next().getSample());
+        });
+    }
+
+    private long statementsToLoad(long examId) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ExamQuestion> examQuestions = new ArrayList<>(examQuestionRepository.findMcqQuestionsWithOptionsByExamId(examId));
+        examQuestions.addAll(examQuestionRepository.findCodingQuestionsWithSamplesByExamId(examId));
+        ExamPaper paper = new ExamPaper(examId, examQuestions);
+
+        assertFalse(paper.getMcqQuestions().isEmpty());
+        assertFalse(paper.getCodingQuestions().isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long exam(String name, int mcqCount, int codingCount) {
+        Exam exam = new Exam();
+        exam.setExamName(name);
+        exam.setStatus(Exam.ExamStatus.STARTED);
+        exam.setDuration("60");
+        exam.setEnable(true);
+        exam.setBranch("CE");
+        exam.setSemester(5);
+        exam.setPassingMarks(1);
+        exam.setTotalMarks(10);
+        exam.setDifficultyLevel("Easy");
+        exam.setScheduleDate(LocalDate.now());
+        entityManager.persist(exam);
+
+        for (int i = 0; i < mcqCount; i++) {
+            McqQuestion question = new McqQuestion();
+            question.setQuestionText(name + " mcq " + i);
+            question.setDifficultyLevel("Easy");
+            question.setCategory("x");
+            for (int j = 0; j < 3; j++) {
+                McqOption option = new McqOption();
+                option.setOptionText("option " + j);
+                option.setCorrect(j == 0);
+                option.setMcqQuestion(question);
+                question.getOptions().add(option);
+            }
+            entityManager.persist(question);
+            entityManager.persist(examQuestion(exam, question, null));
+        }
+
+        for (int i = 0; i < codingCount; i++) {
+            CodingQuestion question = new CodingQuestion();
+            question.setTitle(name + " code " + i);
+            question.setQuestionText(name + " code " + i);
+            question.setDifficultyLevel("Easy");
+            question.setCategory("x");
+            question.setCorrectCode("x");
+            for (int j = 0; j < 3; j++) {
+                CodingTestCase testCase = new CodingTestCase();
+                testCase.setInputData(j + " " + j);
+                testCase.setExpectedOutput(String.valueOf(2 * j));
+                testCase.setSample(j == 0);
+                testCase.setCodingQuestion(question);
+                question.getTestCases().add(testCase);
+            }
+            entityManager.persist(question);
+            entityManager.persist(examQuestion(exam, null, question));
+        }
+        return exam.getId();
+    }
+
+    private static ExamQuestion examQuestion(Exam exam, McqQuestion mcqQuestion, CodingQuestion codingQuestion) {
+        ExamQuestion examQuestion = new ExamQuestion();
+        examQuestion.setExam(exam);
+        examQuestion.setMcqQuestion(mcqQuestion);
+        examQuestion.setCodingQuestion(codingQuestion);
+        examQuestion.setMarks(1);
+        return examQuestion;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.Exam;
+import com.example.backend.Entity.GradingJob;
+import com.example.backend.Entity.StudentExam;
+import com.example.backend.Entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Checks the release of stale grading job claims, which gives the jobs of a dead worker to another one and
+   marks a job FAILED once its timed out claims used up its attempts. The claim statement is SQL Server specific
+   and is not run here. Runs on an in-memory H2 database in SQL Server mode, with the H2 dialect because H2
+   does not accept the UPDATE ... FROM statements of the SQL Server dialect. */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:grading-jobs;MODE=MSSQLServer",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GradingJobRepositoryTests {
+
+    @Autowired
+    private GradingJobRepository gradingJobRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void staleClaimIsPutBackToPendingAsAFailedAttempt() {
+        LocalDateTime now = LocalDateTime.now();
+        GradingJob stale = job("stale@example.com", GradingJob.Status.RUNNING, 0, now.minusMinutes(10));
+
+        assertEquals(1, gradingJobRepository.releaseStale(now.minusMinutes(5), 3));
+
+        GradingJob released = reload(stale);
+        assertEquals(GradingJob.Status.PENDING, released.getStatus());
+        assertEquals(1, released.getAttempts());
+        assertEquals("Claim timed out", released.getError());
+        assertNull(released.getClaimedBy());
+        assertNull(released.getClaimedAt());
+    }
+
+    @Test
+    void staleClaimOfTheLastAttemptMarksTheJobFailed() {
+        LocalDateTime now = LocalDateTime.now();
+        GradingJob stale = job("poison@example.com", GradingJob.Status.RUNNING, 2, now.minusMinutes(10));
+
+        gradingJobRepository.releaseStale(now.minusMinutes(5), 3);
+
+        GradingJob released = reload(stale);
+        assertEquals(GradingJob.Status.FAILED, released.getStatus());
+        assertEquals(3, released.getAttempts());
+    }
+
+    @Test
+    void freshClaimsAndOtherJobsAreLeftAlone() {
+        LocalDateTime now = LocalDateTime.now();
+        GradingJob fresh = job("fresh@example.com", GradingJob.Status.RUNNING, 0, now.minusMinutes(1));
+        GradingJob pending = job("pending@example.com", GradingJob.Status.PENDING, 1, null);
+        GradingJob done = job("done@example.com", GradingJob.Status.DONE, 0, now.minusMinutes(10));
+
+        assertEquals(0, gradingJobRepository.releaseStale(now.minusMinutes(5), 3));
+
+        assertEquals(GradingJob.Status.RUNNING, reload(fresh).getStatus());
+        assertEquals(GradingJob.Status.PENDING, reload(pending).getStatus());
+        assertEquals(1, reload(pending).getAttempts());
+        assertEquals(GradingJob.Status.DONE, reload(done).getStatus());
+    }
+
+    @Test
+    void jobIsFoundByItsStudentExam() {
+        GradingJob job = job("find@example.com", GradingJob.Status.PENDING, 0, null);
+        entityManager.clear();
+
+        assertEquals(job.getId(), gradingJobRepository.findByStudentExamId(job.getStudentExam().getId()).orElseThrow().getId());
+        assertTrue(gradingJobRepository.findByStudentExamId(-1L).isEmpty());
+    }
+
+    private GradingJob reload(GradingJob job) {
+        entityManager.clear();
+        return entityManager.find(GradingJob.class, job.getId());
+    }
+
+    private GradingJob job(String email, GradingJob.Status status, int attempts, LocalDateTime claimedAt) {
+        Exam exam = new Exam();
+        exam.setExamName(email);
+        exam.setStatus(Exam.ExamStatus.STARTED);
+        exam.setDuration("60");
+        exam.setEnable(true);
+        exam.setBranch("CE");
+        exam.setSemester(5);
+        exam.setPassingMarks(1);
+        exam.setTotalMarks(10);
+        exam.setDifficultyLevel("Easy");
+        exam.setScheduleDate(LocalDate.now());
+        entityManager.persist(exam);
+
+        User student = new User();
+        student.setUsername(email);
+        student.setEmail(email);
+        student.setPassword("x");
+        student.setRole(User.Role.STUDENT);
+        entityManager.persist(student);
+
+        StudentExam studentExam = new StudentExam();
+        studentExam.setExam(exam);
+        studentExam.setStudent(student);
+        studentExam.setStartTime(LocalDateTime.now());
+        studentExam.setCompleted(true);
+        entityManager.persist(studentExam);
+
+        GradingJob job = new GradingJob();
+        job.setStudentExam(studentExam);
+        job.setStatus(status);
+        job.setAttempts(attempts);
+        job.setClaimedBy(claimedAt != null ? "worker" : null);
+        job.setClaimedAt(claimedAt);
+        job.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(job);
+        entityManager.flush();
+        return job;
+    }
+}
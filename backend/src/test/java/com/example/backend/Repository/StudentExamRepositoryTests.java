@@ -0,0 +1,131 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.Exam;
+import com.example.backend.Entity.StudentExam;
+import com.example.backend.Entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Checks the running score and end time updates of a StudentExam, which are applied in place without loading the entity,
+   and the owner check of the submit endpoints.
+   Runs on an in-memory H2 database in SQL Server mode, with the H2 dialect because H2 does not accept the
+   UPDATE ... FROM statements of the SQL Server dialect. */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:student-exams;MODE=MSSQLServer",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StudentExamRepositoryTests {
+
+    @Autowired
+    private StudentExamRepository studentExamRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void addScoreAddsAndRemovesMarks() {
+        StudentExam studentExam = studentExam("add@example.com", 3);
+
+        assertEquals(1, studentExamRepository.addScore(studentExam.getId(), 5));
+        assertEquals(1, studentExamRepository.addScore(studentExam.getId(), -2));
+
+        assertEquals(6, score(studentExam.getId()));
+    }
+
+    @Test
+    void updateScoreIfUnchangedOnlyReplacesTheExpectedScore() {
+        StudentExam studentExam = studentExam("update@example.com", 4);
+
+        assertEquals(0, studentExamRepository.updateScoreIfUnchanged(studentExam.getId(), 3, 9));
+        assertEquals(4, score(studentExam.getId()));
+
+        assertEquals(1, studentExamRepository.updateScoreIfUnchanged(studentExam.getId(), 4, 9));
+        assertEquals(9, score(studentExam.getId()));
+    }
+
+    @Test
+    void scoresOfAnExamAreReadAsRows() {
+        StudentExam first = studentExam("first@example.com", 2);
+        StudentExam second = studentExam("second@example.com", 7);
+
+        List<Object[]> firstRows = studentExamRepository.findScoresByExamId(first.getExam().getId());
+        List<Object[]> secondRows = studentExamRepository.findScoresByExamId(second.getExam().getId());
+
+        assertEquals(1, firstRows.size());
+        assertEquals(first.getId(), firstRows.get(0)[0]);
+        assertEquals(2, firstRows.get(0)[1]);
+        assertEquals(7, secondRows.get(0)[1]);
+    }
+
+    @Test
+    void endTimeOfASubmittedAttemptIsNotUpdated() {
+        StudentExam studentExam = studentExam("submitted@example.com", 0);
+        LocalDateTime saved = LocalDateTime.now().withNano(0).plusMinutes(1);
+
+        assertEquals(1, studentExamRepository.updateEndTimeIfNotCompleted(studentExam.getId(), saved));
+        assertEquals(1, studentExamRepository.markSubmitted(studentExam.getId(), saved.plusMinutes(1)));
+        assertEquals(0, studentExamRepository.updateEndTimeIfNotCompleted(studentExam.getId(), saved.plusMinutes(2)));
+
+        entityManager.clear();
+        assertEquals(saved.plusMinutes(1), entityManager.find(StudentExam.class, studentExam.getId()).getEndTime());
+    }
+
+    @Test
+    void attemptBelongsOnlyToItsStudent() {
+        StudentExam studentExam = studentExam("owner@example.com", 0);
+
+        assertTrue(studentExamRepository.existsByIdAndStudentEmail(studentExam.getId(), "owner@example.com"));
+        assertFalse(studentExamRepository.existsByIdAndStudentEmail(studentExam.getId(), "other@example.com"));
+        assertFalse(studentExamRepository.existsByIdAndStudentEmail(-1L, "owner@example.com"));
+    }
+
+    private int score(long studentExamId) {
+        entityManager.clear();
+        return entityManager.find(StudentExam.class, studentExamId).getScore();
+    }
+
+    private StudentExam studentExam(String email, int score) {
+        Exam exam = new Exam();
+        exam.setExamName(email);
+        exam.setStatus(Exam.ExamStatus.STARTED);
+        exam.setDuration("60");
+        exam.setEnable(true);
+        exam.setBranch("CE");
+        exam.setSemester(5);
+        exam.setPassingMarks(1);
+        exam.setTotalMarks(10);
+        exam.setDifficultyLevel("Easy");
+        exam.setScheduleDate(LocalDate.now());
+        entityManager.persist(exam);
+
+        User student = new User();
+        student.setUsername(email);
+        student.setEmail(email);
+        student.setPassword("x");
+        student.setRole(User.Role.STUDENT);
+        entityManager.persist(student);
+
+        StudentExam studentExam = new StudentExam();
+        studentExam.setExam(exam);
+        studentExam.setStudent(student);
+        studentExam.setStartTime(LocalDateTime.now());
+        studentExam.setScore(score);
+        entityManager.persist(studentExam);
+        entityManager.flush();
+        return studentExam;
+    }
+}
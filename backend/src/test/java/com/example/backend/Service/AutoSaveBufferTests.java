@@ -0,0 +1,113 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.StudentAnswerDTO;
+import com.example.backend.Entity.StudentAnswer;
+import com.example.backend.Repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Checks that the AutoSaveBuffer keeps the staged answers of an attempt whose write fails, so a transient
+   database error delays the answers instead of losing them, and that it discards the answers of an attempt
+   which was submitted before they were written. */
+class AutoSaveBufferTests {
+
+    private AutoSaveBuffer buffer;
+    private StudentExamRepository studentExamRepository;
+    private ScoreService scoreService;
+    private StudentAnswerJdbcRepository studentAnswerJdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentExamRepository = mock(StudentExamRepository.class);
+        when(studentExamRepository.updateEndTimeIfNotCompleted(anyLong(), any())).thenReturn(1);
+        StudentAnswerRepository studentAnswerRepository = mock(StudentAnswerRepository.class);
+        when(studentAnswerRepository.findAnswerKeys(anyLong(), anyCollection(), anyCollection())).thenReturn(List.of());
+        CodingQuestionRepository codingQuestionRepository = mock(CodingQuestionRepository.class);
+        when(codingQuestionRepository.findExistingIds(anyCollection())).thenReturn(List.of(7L));
+        studentAnswerJdbcRepository = mock(StudentAnswerJdbcRepository.class);
+        scoreService = mock(ScoreService.class);
+
+        buffer = new AutoSaveBuffer();
+        ReflectionTestUtils.setField(buffer, "studentExamRepository", studentExamRepository);
+        ReflectionTestUtils.setField(buffer, "studentAnswerRepository", studentAnswerRepository);
+        ReflectionTestUtils.setField(buffer, "mcqQuestionRepository", mock(McqQuestionRepository.class));
+        ReflectionTestUtils.setField(buffer, "codingQuestionRepository", codingQuestionRepository);
+        ReflectionTestUtils.setField(buffer, "scoreService", scoreService);
+        ReflectionTestUtils.setField(buffer, "studentAnswerJdbcRepository", studentAnswerJdbcRepository);
+        ReflectionTestUtils.setField(buffer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(buffer, "flushBatchSize", 50);
+        ReflectionTestUtils.setField(buffer, "maxFlushFailures", 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedWriteIsRetriedOnNextFlush() {
+        // the first flush fails for the batch and for the attempt on its own
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doNothing()
+                .when(studentAnswerJdbcRepository).upsertAll(eq(1L), anyList());
+
+        buffer.stage(1L, 2L, List.of(codingAnswer("class A {}")));
+        buffer.flushAll();
+        verify(studentAnswerJdbcRepository, times(2)).upsertAll(eq(1L), anyList());
+        buffer.flushAll();
+
+        ArgumentCaptor<List<StudentAnswer>> written = ArgumentCaptor.forClass(List.class);
+        verify(studentAnswerJdbcRepository, times(3)).upsertAll(eq(1L), written.capture());
+        assertEquals(1, written.getValue().size());
+        assertEquals("class A {}", written.getValue().get(0).getAnswer());
+
+        // the attempt was written, so a later flush has nothing left to write
+        buffer.flushAll();
+        verify(studentAnswerJdbcRepository, times(3)).upsertAll(eq(1L), anyList());
+    }
+
+    @Test
+    void answersAreDroppedAfterTooManyFailures() {
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .when(studentAnswerJdbcRepository).upsertAll(eq(1L), anyList());
+
+        buffer.stage(1L, 2L, List.of(codingAnswer("class A {}")));
+        for (int i = 0; i < 5; i++) {
+            buffer.flushAll();
+        }
+
+        // each flush writes the batch and then the attempt on its own, the third failure drops the attempt
+        verify(studentAnswerJdbcRepository, times(6)).upsertAll(eq(1L), anyList());
+    }
+
+    @Test
+    void answersOfASubmittedAttemptAreDiscarded() {
+        // markSubmitted committed before the flush, so the end time update matches no row
+        when(studentExamRepository.updateEndTimeIfNotCompleted(eq(1L), any())).thenReturn(0);
+        when(studentExamRepository.existsById(1L)).thenReturn(true);
+
+        buffer.stage(1L, 2L, List.of(codingAnswer("class A {}")));
+        buffer.flushAll();
+        buffer.flushAll();
+
+        verify(studentExamRepository, times(1)).updateEndTimeIfNotCompleted(eq(1L), any());
+        verify(studentAnswerJdbcRepository, never()).upsertAll(anyLong(), anyList());
+        verify(scoreService, never()).applyCorrectnessChanges(anyLong(), anyLong(), anyMap(), anyMap());
+    }
+
+    private StudentAnswerDTO codingAnswer(String code) {
+        StudentAnswerDTO answer = new StudentAnswerDTO();
+        answer.setQuestionId(7L);
+        answer.setQuestionType("coding");
+        answer.setAnswer(code);
+        answer.setLanguage("java");
+        return answer;
+    }
+}
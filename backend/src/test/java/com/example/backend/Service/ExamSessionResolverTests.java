@@ -0,0 +1,84 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.Exam;
+import com.example.backend.Repository.StudentExamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Checks that submitting an attempt drops only the cached session of that attempt, and does not keep the sessions
+   of other students which are being loaded at the same time out of the cache. */
+class ExamSessionResolverTests {
+
+    private static final long EXAM_ID = 3L;
+
+    private ExamSessionResolver resolver;
+    private StudentExamRepository studentExamRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentExamRepository = mock(StudentExamRepository.class);
+        when(studentExamRepository.findSessionRows(anyString(), anyLong())).thenAnswer(invocation ->
+                List.<Object[]>of(row(invocation.getArgument(0))));
+
+        resolver = new ExamSessionResolver(60000, 100);
+        ReflectionTestUtils.setField(resolver, "studentExamRepository", studentExamRepository);
+    }
+
+    @Test
+    void submitDropsOnlyTheSessionOfItsAttempt() {
+        ExamSession first = resolver.resolve("first@example.com", EXAM_ID);
+        resolver.resolve("second@example.com", EXAM_ID);
+
+        resolver.evictAttempt(first.getStudentExamId());
+        resolver.resolve("first@example.com", EXAM_ID);
+        resolver.resolve("second@example.com", EXAM_ID);
+
+        verify(studentExamRepository, times(2)).findSessionRows("first@example.com", EXAM_ID);
+        verify(studentExamRepository, times(1)).findSessionRows("second@example.com", EXAM_ID);
+    }
+
+    @Test
+    void sessionLoadedDuringASubmitOfAnotherAttemptIsCached() {
+        ExamSession first = resolver.resolve("first@example.com", EXAM_ID);
+        when(studentExamRepository.findSessionRows("second@example.com", EXAM_ID)).thenAnswer(invocation -> {
+            resolver.evictAttempt(first.getStudentExamId());
+            return List.<Object[]>of(row("second@example.com"));
+        });
+
+        resolver.resolve("second@example.com", EXAM_ID);
+        resolver.resolve("second@example.com", EXAM_ID);
+
+        verify(studentExamRepository, times(1)).findSessionRows("second@example.com", EXAM_ID);
+    }
+
+    @Test
+    void sessionLoadedDuringItsOwnSubmitIsNotCached() {
+        ExamSession first = resolver.resolve("first@example.com", EXAM_ID);
+        resolver.evict("first@example.com", EXAM_ID);
+        when(studentExamRepository.findSessionRows("first@example.com", EXAM_ID)).thenAnswer(invocation -> {
+            resolver.evictAttempt(first.getStudentExamId());
+            return List.<Object[]>of(row("first@example.com"));
+        }).thenAnswer(invocation -> List.<Object[]>of(row("first@example.com")));
+
+        resolver.resolve("first@example.com", EXAM_ID);
+        resolver.resolve("first@example.com", EXAM_ID);
+
+        // the submit dropped the session loaded before it committed, so the next resolve loads it again
+        verify(studentExamRepository, times(3)).findSessionRows("first@example.com", EXAM_ID);
+    }
+
+    private static Object[] row(String email) {
+        LocalDateTime start = LocalDateTime.now();
+        return new Object[]{(long) email.hashCode(), "CE", 5, EXAM_ID, "exam", Exam.ExamStatus.STARTED, true, LocalDate.now(),
+                "CE", 5, "60", (long) Math.abs(email.hashCode()), start, start, false};
+    }
+}
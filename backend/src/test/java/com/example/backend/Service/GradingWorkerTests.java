@@ -0,0 +1,262 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.AutoSaveRequest;
+import com.example.backend.Dto.GradedAttempt;
+import com.example.backend.Dto.SubmissionStatus;
+import com.example.backend.Entity.Exam;
+import com.example.backend.Entity.GradingJob;
+import com.example.backend.Entity.StudentExam;
+import com.example.backend.Repository.*;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Follows a submitted exam from submitExam through the grading_jobs queue to the ExamResult written by the
+   GradingWorker. The queue is kept in memory by the mocked repositories with the rules of the claim, complete
+   and fail statements, so the claims, lost claims, failures and stale releases can be driven by the test. */
+class GradingWorkerTests {
+
+    private static final long EXAM_ID = 3L;
+    private static final long STUDENT_EXAM_ID = 10L;
+    private static final long USER_ID = 20L;
+    private static final int PASSING_MARKS = 4;
+    private static final String EMAIL = "student@example.com";
+
+    private StudentExamService studentExamService;
+    private GradingWorker gradingWorker;
+    private AutoSaveBuffer autoSaveBuffer;
+    private StudentExamRepository studentExamRepository;
+    private GradingJobRepository gradingJobRepository;
+    private GradingJobJdbcRepository gradingJobJdbcRepository;
+    private ExamResultJdbcRepository examResultJdbcRepository;
+    private ExamSessionResolver examSessionResolver;
+
+    // The grading_jobs table and the running score of the student exam
+    private final List<GradingJob> jobs = Collections.synchronizedList(new ArrayList<>());
+    private volatile int score = 6;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        autoSaveBuffer = mock(AutoSaveBuffer.class);
+        examSessionResolver = mock(ExamSessionResolver.class);
+
+        studentExamRepository = mock(StudentExamRepository.class);
+        when(studentExamRepository.markSubmitted(eq(STUDENT_EXAM_ID), any())).thenReturn(1).thenReturn(0);
+        when(studentExamRepository.existsByIdAndStudentEmail(STUDENT_EXAM_ID, EMAIL)).thenReturn(true);
+        when(studentExamRepository.getReferenceById(STUDENT_EXAM_ID)).thenAnswer(invocation -> {
+            StudentExam studentExam = new StudentExam();
+            studentExam.setId(STUDENT_EXAM_ID);
+            return studentExam;
+        });
+        when(studentExamRepository.findGradingRows(anyCollection())).thenAnswer(invocation ->
+                List.<Object[]>of(new Object[]{STUDENT_EXAM_ID, USER_ID, EXAM_ID, score, PASSING_MARKS}));
+
+        gradingJobRepository = mock(GradingJobRepository.class);
+        when(gradingJobRepository.save(any(GradingJob.class))).thenAnswer(invocation -> {
+            GradingJob job = invocation.getArgument(0);
+            job.setId((long) jobs.size() + 1);
+            jobs.add(job);
+            return job;
+        });
+        when(gradingJobRepository.findByStudentExamId(STUDENT_EXAM_ID)).thenAnswer(invocation -> jobs.stream()
+                .filter(job -> job.getStudentExam().getId() == STUDENT_EXAM_ID)
+                .findFirst());
+
+        gradingJobJdbcRepository = mock(GradingJobJdbcRepository.class);
+        when(gradingJobJdbcRepository.claim(anyString(), anyInt())).thenAnswer(invocation -> claim(invocation.getArgument(0)));
+        when(gradingJobJdbcRepository.completeAll(anyString(), anyList())).thenAnswer(invocation ->
+                complete(invocation.getArgument(0), invocation.getArgument(1)));
+        doAnswer(invocation -> {
+            release(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+            return null;
+        }).when(gradingJobJdbcRepository).failAll(anyString(), anyList(), anyInt(), any());
+
+        examResultJdbcRepository = mock(ExamResultJdbcRepository.class);
+
+        studentExamService = new StudentExamService();
+        ReflectionTestUtils.setField(studentExamService, "autoSaveBuffer", autoSaveBuffer);
+        ReflectionTestUtils.setField(studentExamService, "studentExamRepository", studentExamRepository);
+        ReflectionTestUtils.setField(studentExamService, "gradingJobRepository", gradingJobRepository);
+        ReflectionTestUtils.setField(studentExamService, "examSessionResolver", examSessionResolver);
+        ReflectionTestUtils.setField(studentExamService, "transactionManager", transactionManager);
+
+        gradingWorker = new GradingWorker(1);
+        ReflectionTestUtils.setField(gradingWorker, "gradingJobJdbcRepository", gradingJobJdbcRepository);
+        ReflectionTestUtils.setField(gradingWorker, "gradingJobRepository", gradingJobRepository);
+        ReflectionTestUtils.setField(gradingWorker, "studentExamRepository", studentExamRepository);
+        ReflectionTestUtils.setField(gradingWorker, "examResultJdbcRepository", examResultJdbcRepository);
+        ReflectionTestUtils.setField(gradingWorker, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(gradingWorker, "batchSize", 10);
+        ReflectionTestUtils.setField(gradingWorker, "maxAttempts", 2);
+        ReflectionTestUtils.setField(gradingWorker, "claimTimeoutMs", 60000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gradingWorker.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submittedExamIsGradedFromItsRunningScore() {
+        SubmissionStatus submitted = studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+
+        assertEquals(GradingJob.Status.PENDING, submitted.getStatus());
+        assertEquals(1, jobs.size());
+        InOrder order = inOrder(autoSaveBuffer, studentExamRepository);
+        order.verify(autoSaveBuffer).flush(STUDENT_EXAM_ID);
+        order.verify(studentExamRepository).markSubmitted(eq(STUDENT_EXAM_ID), any());
+
+        gradingWorker.poll();
+
+        ArgumentCaptor<List<GradedAttempt>> results = ArgumentCaptor.forClass(List.class);
+        verify(examResultJdbcRepository, timeout(5000)).insertAll(eq(EXAM_ID), results.capture());
+        GradedAttempt result = results.getValue().get(0);
+        assertEquals(USER_ID, result.getUserId());
+        assertEquals(6, result.getMarks());
+        assertTrue(result.isPassed());
+        assertEquals(GradingJob.Status.DONE, jobs.get(0).getStatus());
+    }
+
+    @Test
+    void submittingAgainQueuesNoSecondJob() {
+        studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+        SubmissionStatus again = studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+
+        assertEquals(GradingJob.Status.PENDING, again.getStatus());
+        assertEquals(1, jobs.size());
+    }
+
+    @Test
+    void attemptOfAnotherStudentIsNotFound() {
+        studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+
+        assertThrows(EntityNotFoundException.class, () -> studentExamService.submitExam(STUDENT_EXAM_ID, "other@example.com"));
+        assertThrows(EntityNotFoundException.class, () -> studentExamService.getSubmissionStatus(STUDENT_EXAM_ID, "other@example.com"));
+        assertThrows(EntityNotFoundException.class, () -> studentExamService.getSubmissionStatus(STUDENT_EXAM_ID, null));
+        assertEquals(GradingJob.Status.PENDING, studentExamService.getSubmissionStatus(STUDENT_EXAM_ID, EMAIL).getStatus());
+        verify(studentExamRepository, times(1)).markSubmitted(eq(STUDENT_EXAM_ID), any());
+    }
+
+    @Test
+    void autoSaveAfterSubmitIsRejected() {
+        when(examSessionResolver.resolve(EMAIL, EXAM_ID)).thenReturn(session(true));
+        AutoSaveRequest request = new AutoSaveRequest();
+        request.setStudentExamId(STUDENT_EXAM_ID);
+        request.setAnswers(List.of());
+
+        assertThrows(IllegalStateException.class, () -> studentExamService.autoSaveAnswers(EMAIL, EXAM_ID, request));
+        verify(autoSaveBuffer, never()).stage(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void failedBatchIsRetriedAndMarkedFailedAfterMaxAttempts() {
+        // the in-memory queue has no rollback, so the batch fails at its first statement
+        when(studentExamRepository.findGradingRows(anyCollection()))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"));
+        studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+
+        gradingWorker.poll();
+
+        verify(gradingJobJdbcRepository, timeout(5000).times(2)).failAll(anyString(), anyList(), eq(2), any());
+        GradingJob job = jobs.get(0);
+        assertEquals(GradingJob.Status.FAILED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals("connection reset", job.getError());
+        verify(examResultJdbcRepository, never()).insertAll(anyLong(), anyList());
+    }
+
+    @Test
+    void jobNoLongerClaimedByTheWorkerIsNotWritten() {
+        studentExamService.submitExam(STUDENT_EXAM_ID, EMAIL);
+        // another worker took the job over after a stale release while this one was grading it
+        when(gradingJobJdbcRepository.completeAll(anyString(), anyList())).thenAnswer(invocation -> {
+            jobs.get(0).setClaimedBy("other");
+            return new int[]{0};
+        });
+
+        gradingWorker.poll();
+
+        verify(gradingJobJdbcRepository, timeout(5000)).completeAll(anyString(), anyList());
+        verify(gradingJobJdbcRepository, timeout(5000).times(2)).claim(anyString(), anyInt());
+        verify(examResultJdbcRepository, never()).insertAll(anyLong(), anyList());
+    }
+
+    @Test
+    void staleClaimsAreReleasedWithTheMaxAttempts() {
+        LocalDateTime before = LocalDateTime.now();
+
+        gradingWorker.releaseStaleJobs();
+
+        ArgumentCaptor<LocalDateTime> claimedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(gradingJobRepository).releaseStale(claimedBefore.capture(), eq(2));
+        assertFalse(claimedBefore.getValue().isAfter(LocalDateTime.now().minusSeconds(60)));
+        assertFalse(claimedBefore.getValue().isBefore(before.minusSeconds(60)));
+    }
+
+    private List<long[]> claim(String workerId) {
+        synchronized (jobs) {
+            List<long[]> claimed = new ArrayList<>();
+            for (GradingJob job : jobs) {
+                if (job.getStatus() == GradingJob.Status.PENDING) {
+                    job.setStatus(GradingJob.Status.RUNNING);
+                    job.setClaimedBy(workerId);
+                    job.setClaimedAt(LocalDateTime.now());
+                    claimed.add(new long[]{job.getId(), job.getStudentExam().getId()});
+                }
+            }
+            return claimed;
+        }
+    }
+
+    private int[] complete(String workerId, List<Long> jobIds) {
+        synchronized (jobs) {
+            int[] counts = new int[jobIds.size()];
+            for (int i = 0; i < counts.length; i++) {
+                GradingJob job = jobs.get(jobIds.get(i).intValue() - 1);
+                if (job.getStatus() == GradingJob.Status.RUNNING && workerId.equals(job.getClaimedBy())) {
+                    job.setStatus(GradingJob.Status.DONE);
+                    counts[i] = 1;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private void release(String workerId, List<Long> jobIds, int maxAttempts, String error) {
+        synchronized (jobs) {
+            for (Long jobId : jobIds) {
+                GradingJob job = jobs.get(jobId.intValue() - 1);
+                if (job.getStatus() != GradingJob.Status.RUNNING || !workerId.equals(job.getClaimedBy())) {
+                    continue;
+                }
+                job.setStatus(job.getAttempts() + 1 >= maxAttempts ? GradingJob.Status.FAILED : GradingJob.Status.PENDING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setError(error);
+                job.setClaimedBy(null);
+                job.setClaimedAt(null);
+            }
+        }
+    }
+
+    private static ExamSession session(boolean completed) {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        return new ExamSession(EMAIL, new Object[]{USER_ID, "CE", 5, EXAM_ID, "exam", Exam.ExamStatus.STARTED,
+                true, LocalDate.now(), "CE", 5, "60", STUDENT_EXAM_ID, start, start.plusMinutes(1), completed});
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.backend.Service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Runs the Judge0Client against a fake Judge0 served on a local port, whose answers are slow, failing or
+   healthy as each test needs. */
+class Judge0ClientTests {
+
+    // How the fake Judge0 answers, switched by the tests
+    private enum Mode {
+        HEALTHY,
+        HANGING,
+        FIRST_SLOW,
+        BAD_REQUEST
+    }
+
+    private static final String POLL_RESPONSE = "{\"submissions\":[{\"token\":\"a\",\"status\":{\"id\":3,\"description\":\"Accepted\"}}]}";
+
+    private HttpServer server;
+    private volatile Mode mode = Mode.HEALTHY;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startFakeJudge0() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopFakeJudge0() {
+        server.stop(0);
+    }
+
+    @Test
+    void outageFailsFastOnceTheBreakerOpens() {
+        mode = Mode.HANGING;
+        Judge0Client client = client(200, false, 60000);
+
+        List<Long> latencies = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < 100; i++) {
+            long start = System.nanoTime();
+            try {
+                client.pollBatch("java", "a").block();
+                fail("A hanging Judge0 must not answer");
+            } catch (Judge0Client.UnavailableException e) {
+                rejected++;
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("did not respond in time"), e.getMessage());
+            }
+            latencies.add(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+
+        Collections.sort(latencies);
+        assertEquals(Judge0Client.State.OPEN, client.getState());
+        assertEquals(95, rejected);
+        assertEquals(5, requests.get());
+        assertTrue(latencies.get(98) < 1000, "p99 latency " + latencies.get(98) + " ms");
+        assertTrue(latencies.get(89) < 50, "p90 latency " + latencies.get(89) + " ms");
+    }
+
+    @Test
+    void hedgedPollUsesTheFasterAnswer() {
+        mode = Mode.FIRST_SLOW;
+        Judge0Client client = client(5000, true, 60000);
+
+        long start = System.nanoTime();
+        String body = client.pollBatch("python", "a").block();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(POLL_RESPONSE, body);
+        assertEquals(2, requests.get());
+        assertTrue(elapsedMs < 1500, "hedged poll took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void breakerClosesWhenJudge0Recovers() throws InterruptedException {
+        mode = Mode.HANGING;
+        Judge0Client client = client(100, false, 300);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> client.pollBatch("c", "a").block());
+        }
+        assertEquals(Judge0Client.State.OPEN, client.getState());
+
+        mode = Mode.HEALTHY;
+        Thread.sleep(400);
+        assertEquals(Judge0Client.State.HALF_OPEN, client.getState());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(POLL_RESPONSE, client.pollBatch("c", "a").block());
+        }
+        assertEquals(Judge0Client.State.CLOSED, client.getState());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheBreaker() {
+        mode = Mode.BAD_REQUEST;
+        Judge0Client client = client(1000, false, 60000);
+        for (int i = 0; i < 20; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> client.pollBatch("cpp", "a").block());
+            assertFalse(e instanceof Judge0Client.UnavailableException);
+        }
+        assertEquals(Judge0Client.State.CLOSED, client.getState());
+        assertEquals(20, requests.get());
+    }
+
+    private Judge0Client client(long requestTimeoutMs, boolean hedge, long openDurationMs) {
+        return new Judge0Client(WebClient.builder(), new SimpleMeterRegistry(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), "localhost", "key",
+                requestTimeoutMs, requestTimeoutMs, 10, 5, 50, openDurationMs, 2, hedge, 100);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int request = requests.incrementAndGet();
+        try {
+            if (mode == Mode.HANGING || (mode == Mode.FIRST_SLOW && request == 1)) {
+                Thread.sleep(3000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int status = mode == Mode.BAD_REQUEST ? 400 : 200;
+        byte[] body = (status == 200 ? POLL_RESPONSE : "{\"error\":\"bad request\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // The client gave up on a hanging request
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backend.Service;
+
+import com.example.backend.Simulator.Judge0Simulator;
+import com.example.backend.Simulator.Judge0Simulator.Latency;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/* Runs the Judge0CodeExecutor against the Judge0Simulator, to check the Judge0 contract and to measure the
+   throughput and tail latency of our side without calling RapidAPI. */
+class Judge0CodeExecutorTests {
+
+    private Judge0Simulator simulator;
+    private Judge0CodeExecutor executor;
+
+    @BeforeEach
+    void start() throws IOException {
+        simulator = new Judge0Simulator(0);
+        simulator.setOutput(submission -> "out " + String.valueOf(submission.get("stdin")).trim());
+
+        Judge0Client client = new Judge0Client(WebClient.builder(), new SimpleMeterRegistry(), simulator.getBaseUrl(),
+                "localhost", "key", 5000, 2000, 20, 10, 50, 30000, 3, true, 1000);
+        executor = new Judge0CodeExecutor(client, new ObjectMapper());
+        ReflectionTestUtils.setField(executor, "maxBatchSize", 20);
+        ReflectionTestUtils.setField(executor, "pollInitialDelayMs", 20L);
+        ReflectionTestUtils.setField(executor, "pollMaxDelayMs", 200L);
+        ReflectionTestUtils.setField(executor, "pollTimeoutMs", 10000L);
+    }
+
+    @AfterEach
+    void stop() {
+        simulator.close();
+    }
+
+    @Test
+    void singleRunWaitsForTheResult() {
+        simulator.setExecutionLatency(Latency.fixed(50));
+
+        Map<String, Object> result = executor.execute("code", "java", "1\n5\n");
+
+        assertEquals("out 1\n5", result.get("stdout"));
+        assertEquals(3, ((Map<?, ?>) result.get("status")).get("id"));
+    }
+
+    @Test
+    void batchLargerThanOneChunkKeepsInputOrder() {
+        simulator.setExecutionLatency(Latency.uniform(0, 100));
+        List<String> stdins = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            stdins.add(String.valueOf(i));
+        }
+
+        List<Map<String, Object>> results = executor.executeBatch("code", "python", stdins);
+
+        assertEquals(45, results.size());
+        for (int i = 0; i < 45; i++) {
+            assertEquals("out " + i, results.get(i).get("stdout"));
+        }
+        assertEquals(45, simulator.getExecutions());
+    }
+
+    @Test
+    void concurrentBatchesUnderLoad() {
+        simulator.setResponseLatency(Latency.uniform(1, 5));
+        simulator.setExecutionLatency(Latency.logNormal(50, 0.5));
+        int runs = 200;
+
+        long start = System.nanoTime();
+        List<Long> latencies = Flux.range(0, runs)
+                .flatMap(run -> {
+                    long runStart = System.nanoTime();
+                    return executor.executeBatchAsync("code", "cpp", List.of("a", "b", "c", "d", "e"))
+                            .doOnNext(results -> assertEquals(5, results.size()))
+                            .then(Mono.fromCallable(() -> Duration.ofNanos(System.nanoTime() - runStart).toMillis()));
+                }, runs)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertNotNull(latencies);
+        Collections.sort(latencies);
+        assertEquals(runs, latencies.size());
+        // one after another the batches would take at least the median execution latency each
+        assertTrue(elapsedMs < runs * 50L, "batches did not overlap, took " + elapsedMs + " ms");
+        assertTrue(latencies.get(runs / 2) < 2500, "p50 " + latencies.get(runs / 2) + " ms");
+        assertTrue(latencies.get(runs * 99 / 100 - 1) < 5000, "p99 " + latencies.get(runs * 99 / 100 - 1) + " ms");
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/* Compiles and runs code with the LocalCodeExecutor. The CPU time limit of a run is set to 1 second, below the
+   CPU time g++ and javac take to compile, so the tests also check that compiling is not held to the run limit.
+   A test is skipped when its compiler or runtime is not on the PATH. */
+class LocalCodeExecutorTests {
+
+    private LocalCodeExecutor executor;
+
+    @BeforeEach
+    void start() {
+        executor = new LocalCodeExecutor(2, 8, 256);
+        ReflectionTestUtils.setField(executor, "cpuTimeLimitSeconds", 1);
+        ReflectionTestUtils.setField(executor, "wallTimeLimitSeconds", 5);
+        ReflectionTestUtils.setField(executor, "compileTimeLimitSeconds", 60);
+        ReflectionTestUtils.setField(executor, "maxOutputKb", 1024);
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Test
+    void cppIsCompiledOnceAndRunForEachInput() {
+        assumeTrue(onPath("g++"));
+        String source = """
+                #include <bits/stdc++.h>
+                int main() { long long a, b; std::cin >> a >> b; std::cout << a + b << std::endl; }
+                """;
+
+        List<Map<String, Object>> results = executor.executeBatch(source, "cpp", List.of("1 2", "40 2"));
+
+        assertEquals(2, results.size());
+        assertAccepted(results.get(0), "3\n");
+        assertAccepted(results.get(1), "42\n");
+    }
+
+    @Test
+    void javaIsCompiledAndRun() {
+        assumeTrue(onPath("javac") && onPath("java"));
+        String source = """
+                import java.util.Scanner;
+                public class Main {
+                    public static void main(String[] args) {
+                        Scanner in = new Scanner(System.in);
+                        System.out.println(in.nextInt() * in.nextInt());
+                    }
+                }
+                """;
+
+        assertAccepted(executor.execute(source, "java", "6 7"), "42\n");
+    }
+
+    @Test
+    void pythonIsRunWithoutCompiling() {
+        assumeTrue(onPath("python3"));
+
+        assertAccepted(executor.execute("print(input()[::-1])", "python", "abc"), "cba\n");
+    }
+
+    @Test
+    void compilationErrorIsReportedForEveryInput() {
+        assumeTrue(onPath("gcc"));
+
+        List<Map<String, Object>> results = executor.executeBatch("int main() { return x; }", "c", List.of("1", "2"));
+
+        assertEquals(2, results.size());
+        for (Map<String, Object> result : results) {
+            assertEquals(6, status(result));
+            assertTrue(String.valueOf(result.get("compile_output")).contains("x"));
+        }
+    }
+
+    @Test
+    void runOverTheCpuTimeLimitIsATimeLimitExceeded() {
+        assumeTrue(onPath("gcc"));
+
+        Map<String, Object> result = executor.execute("int main() { volatile unsigned long i = 0; for (;;) i++; }", "c", "");
+
+        assertEquals(5, status(result));
+    }
+
+    private static void assertAccepted(Map<String, Object> result, String stdout) {
+        assertEquals(3, status(result), String.valueOf(result));
+        assertEquals(stdout, result.get("stdout"));
+    }
+
+    private static int status(Map<String, Object> result) {
+        return (Integer) ((Map<?, ?>) result.get("status")).get("id");
+    }
+
+    private static boolean onPath(String command) {
+        for (String dir : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+            if (new File(dir, command).canExecute()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
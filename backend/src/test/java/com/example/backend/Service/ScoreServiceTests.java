@@ -0,0 +1,122 @@
+package com.example.backend.Service;
+
+import com.example.backend.Dto.ScoreDrift;
+import com.example.backend.Repository.ExamRepository;
+import com.example.backend.Repository.StudentAnswerRepository;
+import com.example.backend.Repository.StudentExamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Checks the running score of the ScoreService against repositories kept in memory, where a test can write an
+   answer and its score in between the reads of a reconciliation, like an auto-save flush does. */
+class ScoreServiceTests {
+
+    private static final long EXAM_ID = 1L;
+    private static final long STUDENT_EXAM_ID = 10L;
+
+    private ScoreService scoreService;
+    private StudentExamRepository studentExamRepository;
+    private StudentAnswerRepository studentAnswerRepository;
+
+    // The stored score of each student exam and the correct answers as rows of [student exam id, mcq id, coding id]
+    private final Map<Long, Integer> scores = new HashMap<>();
+    private final List<Object[]> correctAnswers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ScoringPlanCache scoringPlanCache = mock(ScoringPlanCache.class);
+        when(scoringPlanCache.get(EXAM_ID)).thenReturn(new ScoringPlan(List.of(
+                new Object[]{100L, null, 2},
+                new Object[]{200L, null, 3},
+                new Object[]{null, 300L, 5})));
+
+        studentExamRepository = mock(StudentExamRepository.class);
+        when(studentExamRepository.addScore(anyLong(), anyInt())).thenAnswer(invocation -> {
+            scores.merge(invocation.getArgument(0), invocation.<Integer>getArgument(1), Integer::sum);
+            return 1;
+        });
+        when(studentExamRepository.findScoresByExamId(EXAM_ID)).thenAnswer(invocation -> scores.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                .toList());
+        when(studentExamRepository.updateScoreIfUnchanged(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            if (scores.get(id) != (int) invocation.getArgument(1)) {
+                return 0;
+            }
+            scores.put(id, invocation.getArgument(2));
+            return 1;
+        });
+
+        studentAnswerRepository = mock(StudentAnswerRepository.class);
+        when(studentAnswerRepository.findCorrectAnswerKeysByExamId(EXAM_ID)).thenAnswer(invocation -> new ArrayList<>(correctAnswers));
+
+        scoreService = new ScoreService();
+        ReflectionTestUtils.setField(scoreService, "scoringPlanCache", scoringPlanCache);
+        ReflectionTestUtils.setField(scoreService, "studentAnswerRepository", studentAnswerRepository);
+        ReflectionTestUtils.setField(scoreService, "studentExamRepository", studentExamRepository);
+        ReflectionTestUtils.setField(scoreService, "examRepository", mock(ExamRepository.class));
+    }
+
+    @Test
+    void correctnessChangesAddTheMarksOfTheirQuestions() {
+        scores.put(STUDENT_EXAM_ID, 3);
+
+        scoreService.applyCorrectnessChanges(STUDENT_EXAM_ID, EXAM_ID, Map.of(100L, true, 200L, false), Map.of(300L, true));
+
+        verify(studentExamRepository).addScore(STUDENT_EXAM_ID, 2 - 3 + 5);
+        assertEquals(7, scores.get(STUDENT_EXAM_ID));
+    }
+
+    @Test
+    void unchangedCorrectnessWritesNothing() {
+        scoreService.applyCorrectnessChanges(STUDENT_EXAM_ID, EXAM_ID, Map.of(), Map.of());
+        // a question which is not part of the exam carries no marks
+        scoreService.applyCorrectnessChanges(STUDENT_EXAM_ID, EXAM_ID, Map.of(999L, true), Map.of());
+
+        verify(studentExamRepository, never()).addScore(anyLong(), anyInt());
+    }
+
+    @Test
+    void reconcileCorrectsADriftedScore() {
+        scores.put(STUDENT_EXAM_ID, 9);
+        scores.put(11L, 3);
+        correctAnswers.add(new Object[]{STUDENT_EXAM_ID, 100L, null});
+        correctAnswers.add(new Object[]{STUDENT_EXAM_ID, null, 300L});
+        correctAnswers.add(new Object[]{11L, 200L, null});
+
+        List<ScoreDrift> drifts = scoreService.reconcile(EXAM_ID);
+
+        assertEquals(1, drifts.size());
+        assertEquals(STUDENT_EXAM_ID, drifts.get(0).getStudentExamId());
+        assertEquals(7, scores.get(STUDENT_EXAM_ID));
+        assertEquals(3, scores.get(11L));
+    }
+
+    @Test
+    void reconcileKeepsAScoreChangedByAConcurrentFlip() {
+        scores.put(STUDENT_EXAM_ID, 2);
+        correctAnswers.add(new Object[]{STUDENT_EXAM_ID, 100L, null});
+
+        // an answer becomes correct with its score right after the correct answers were read
+        when(studentAnswerRepository.findCorrectAnswerKeysByExamId(EXAM_ID)).thenAnswer(invocation -> {
+            List<Object[]> read = new ArrayList<>(correctAnswers);
+            correctAnswers.add(new Object[]{STUDENT_EXAM_ID, null, 300L});
+            scoreService.applyCorrectnessChanges(STUDENT_EXAM_ID, EXAM_ID, Map.of(), Map.of(300L, true));
+            return read;
+        });
+
+        scoreService.reconcile(EXAM_ID);
+
+        assertEquals(7, scores.get(STUDENT_EXAM_ID));
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.backend.Simulator;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/* The Judge0Simulator class serves the part of the Judge0 HTTP API the Judge0CodeExecutor uses on a local port,
+   so integration and load tests can run code submissions without calling RapidAPI. Point judge0.base-url at
+   getBaseUrl() to use it.
+
+ * Endpoints:
+   - POST /submissions: Creates one submission. With wait=true the response is the finished submission,
+     otherwise its token.
+   - POST /submissions/batch: Creates the submissions of the batch and answers their tokens.
+   - GET /submissions/batch?tokens=...: Answers the submissions of the tokens, In Queue until they finished.
+   - GET /submissions/{token}: Answers one submission.
+
+ * Behaviour, each setting can be changed while the simulator runs:
+   - responseLatency: Time before every HTTP response is sent.
+   - executionLatency: Time a submission takes to run. A wait=true request waits for it, a batch submission is
+     In Queue until it passed.
+   - errorRate and rateLimitRate: Share of requests answered with 503 Service Unavailable or 429 Too Many
+     Requests before they are handled.
+   - output: Computes the stdout of a submission from its body. ECHO returns the stdin, canned(text) always the
+     same text, and any function can be given to compute the expected answers.
+
+ * Delays are timers on a scheduler, so a slow response holds no thread and many requests can wait at once.
+
+ * It can be started alone for manual load tests, see main. */
+public class Judge0Simulator implements AutoCloseable {
+
+    // Outputs the stdin of the submission
+    public static final Function<Map<String, Object>, String> ECHO = submission -> String.valueOf(submission.getOrDefault("stdin", ""));
+
+    /* A distribution of delays in milliseconds. */
+    public interface Latency {
+        long sampleMs(Random random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(long ms) {
+            return random -> ms;
+        }
+
+        static Latency uniform(long minMs, long maxMs) {
+            return random -> minMs + (long) (random.nextDouble() * (maxMs - minMs));
+        }
+
+        /* A log-normal distribution with the given median, sigma controls the length of the tail. */
+        static Latency logNormal(long medianMs, double sigma) {
+            return random -> Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        /* Parses none, fixed:ms, uniform:min:max or lognormal:median:sigma. */
+        static Latency parse(String text) {
+            String[] parts = text.split(":");
+            return switch (parts[0]) {
+                case "none" -> none();
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal" -> logNormal(Long.parseLong(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency " + text);
+            };
+        }
+    }
+
+    /* Returns an output function which always outputs the same text. */
+    public static Function<Map<String, Object>, String> canned(String stdout) {
+        return submission -> stdout;
+    }
+
+    // A created submission, finished once readyAt passed
+    private record Submission(String token, long readyAt, String stdout) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ExecutorService handlers = Executors.newFixedThreadPool(8);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final HttpServer server;
+
+    private volatile Latency responseLatency = Latency.none();
+    private volatile Latency executionLatency = Latency.none();
+    private volatile double errorRate;
+    private volatile double rateLimitRate;
+    private volatile Function<Map<String, Object>, String> output = ECHO;
+
+    /* Starts the simulator.
+
+       @param port - The local port, 0 for any free port.
+       @throws IOException - If the port can not be bound. */
+    public Judge0Simulator(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setResponseLatency(Latency responseLatency) {
+        this.responseLatency = responseLatency;
+    }
+
+    public void setExecutionLatency(Latency executionLatency) {
+        this.executionLatency = executionLatency;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setRateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = rateLimitRate;
+    }
+
+    public void setOutput(Function<Map<String, Object>, String> output) {
+        this.output = output;
+    }
+
+    /* Returns the number of HTTP requests received. */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /* Returns the number of submissions created. */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet();
+        try {
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) {
+                respond(exchange, 503, "{\"error\":\"simulated outage\"}", 0);
+                return;
+            }
+            if (roll < errorRate + rateLimitRate) {
+                respond(exchange, 429, "{\"message\":\"simulated rate limit\"}", 0);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            boolean post = "POST".equals(exchange.getRequestMethod());
+
+            if (post && path.equals("/submissions")) {
+                Submission submission = create(objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {}));
+                if ("true".equals(query.get("wait"))) {
+                    long waitMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(submission.readyAt() - System.nanoTime()));
+                    respond(exchange, 200, json(view(submission, true)), waitMs);
+                } else {
+                    respond(exchange, 201, json(Map.of("token", submission.token())), 0);
+                }
+            } else if (post && path.equals("/submissions/batch")) {
+                Map<String, List<Map<String, Object>>> body = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {});
+                List<Map<String, Object>> tokens = new ArrayList<>();
+                for (Map<String, Object> submission : body.get("submissions")) {
+                    tokens.add(Map.of("token", create(submission).token()));
+                }
+                respond(exchange, 201, json(tokens), 0);
+            } else if (path.equals("/submissions/batch")) {
+                List<Map<String, Object>> views = new ArrayList<>();
+                for (String token : query.getOrDefault("tokens", "").split(",")) {
+                    Submission submission = submissions.get(token);
+                    views.add(submission != null ? view(submission, isFinished(submission)) : null);
+                }
+                respond(exchange, 200, json(Map.of("submissions", views)), 0);
+            } else if (path.startsWith("/submissions/")) {
+                Submission submission = submissions.get(path.substring("/submissions/".length()));
+                if (submission == null) {
+                    respond(exchange, 404, "{\"error\":\"Not found\"}", 0);
+                } else {
+                    respond(exchange, 200, json(view(submission, isFinished(submission))), 0);
+                }
+            } else {
+                respond(exchange, 404, "{\"error\":\"Not found\"}", 0);
+            }
+        } catch (Exception e) {
+            respond(exchange, 400, "{\"error\":\"" + e.getMessage() + "\"}", 0);
+        }
+    }
+
+    private Submission create(Map<String, Object> body) {
+        executions.incrementAndGet();
+        long latencyMs = Math.max(0, executionLatency.sampleMs(ThreadLocalRandom.current()));
+        Submission submission = new Submission(UUID.randomUUID().toString(),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyMs), output.apply(body));
+        submissions.put(submission.token(), submission);
+        return submission;
+    }
+
+    private static boolean isFinished(Submission submission) {
+        return System.nanoTime() >= submission.readyAt();
+    }
+
+    // The submission as Judge0 returns it, In Queue until it finished
+    private Map<String, Object> view(Submission submission, boolean finished) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("token", submission.token());
+        view.put("stderr", null);
+        view.put("compile_output", null);
+        if (!finished) {
+            view.put("stdout", null);
+            view.put("status", Map.of("id", 1, "description", "In Queue"));
+        } else {
+            view.put("stdout", submission.stdout());
+            view.put("status", Map.of("id", 3, "description", "Accepted"));
+            view.put("time", "0.01");
+            view.put("memory", 1024);
+        }
+        return view;
+    }
+
+    // Sends the response once the execution delay and a sampled response latency passed
+    private void respond(HttpExchange exchange, int status, String body, long delayMs) {
+        long totalMs = delayMs + Math.max(0, responseLatency.sampleMs(ThreadLocalRandom.current()));
+        Runnable send = () -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (IOException e) {
+                // The client gave up on the request
+            } finally {
+                exchange.close();
+            }
+        };
+        if (totalMs == 0) {
+            send.run();
+        } else {
+            scheduler.schedule(send, totalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(pair.substring(0, equals), URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    /* Runs the simulator until the process is stopped, configured with system properties:
+       judge0-simulator.port (default 2358), .response-latency and .execution-latency (none, fixed:ms,
+       uniform:min:max or lognormal:median:sigma), .error-rate, .rate-limit-rate and .output (echo or the
+       canned stdout). */
+    public static void main(String[] args) throws IOException {
+        Judge0Simulator simulator = new Judge0Simulator(Integer.getInteger("judge0-simulator.port", 2358));
+        simulator.setResponseLatency(Latency.parse(System.getProperty("judge0-simulator.response-latency", "none")));
+        simulator.setExecutionLatency(Latency.parse(System.getProperty("judge0-simulator.execution-latency", "lognormal:50:0.5")));
+        simulator.setErrorRate(Double.parseDouble(System.getProperty("judge0-simulator.error-rate", "0")));
+        simulator.setRateLimitRate(Double.parseDouble(System.getProperty("judge0-simulator.rate-limit-rate", "0")));
+        String output = System.getProperty("judge0-simulator.output", "echo");
+        simulator.setOutput(output.equals("echo") ? ECHO : canned(output));
+        System.err.println("Judge0 simulator listening on " + simulator.getBaseUrl());
+    }
+}
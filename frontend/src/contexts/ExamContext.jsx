@@ -20,8 +20,8 @@ const ExamContext = createContext();
 const ExamProvider = ({ children }) => {
   const [state, dispatch] = useReducer(reducer, initialState);
   const { logout } = useAuth();
-  const { getExams, startExam, submitExam, autoSave } = examService;
-  const { getMcqQuestions, getCodingQuestions } = QuestionService;
+  const { getExams, bootstrapExam, submitExam, autoSave } = examService;
+  const { getMcqQuestions, getCodingQuestions, mergeAnswers } = QuestionService;
   const headers = AuthHeader();
 
   const fetchExams = async (navigate) => {
@@ -36,16 +36,12 @@ const ExamProvider = ({ children }) => {
     }
   }
 
+  // Starts or resumes the exam and shows its first MCQ page with the saved answers, in one request
   const startedExam1 = async (examid, navigate) => {
     try {
-        const exam = await getExams(headers);
-        const examData = exam.find((exam) => exam.id === parseInt(examid));
-        const examdata = { ...examData, examid: examid };
-        let data = await startExam(examid, headers);
-        data = {...examdata, ...data};   
-        console.log(data);
-        
-        dispatch({ type: "START_EXAM_SUCCESS", payload: data });
+        const data = await bootstrapExam(examid, headers);
+        dispatch({ type: "START_EXAM_SUCCESS", payload: { ...data, id: data.studentExamId, examid: examid } });
+        dispatch({ type: "FETCH_EXAMS_MCQ", payload: { data: mergeAnswers(data.mcqQuestions, data.answers), first: 1 } });
     } catch (error) {
         handleAuthError(error, navigate);
         fireToast("An error occurred " + error.message, "error");
@@ -85,8 +85,6 @@ const ExamPage = () => {
       .requestFullscreen()
       .catch(console.error);
     await startedExam1(examId, navigate);
-    getMcqQuestions1(examId, navigate, currentPage, 1);
-    setQuestions(mcqQuestions);
     setDialogOpen1(false);
   };
 
@@ -120,10 +118,7 @@ const ExamPage = () => {
 
   useEffect(() => {
     let countdown, autosave;
-    const startTime = new Date(startedExam?.startTime);
-    const endTime = new Date(startedExam?.endTime);
-    const seconds = ((endTime - startTime) / 1000);
-    setTimer(parseInt((startedExam?.duration * 60) - seconds));
+    setTimer(startedExam?.remainingSeconds);
     if (!dialogOpen1) {
       countdown = setInterval(() => {
         setTimer((prevCountdown) => {
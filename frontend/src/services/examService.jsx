@@ -12,6 +12,12 @@ const startExam = async (examid, headers) => {
     return response?.data;
 }
 
+// Starts or resumes an exam and returns the attempt, the time left, the first pages and the saved answers at once.
+const bootstrapExam = async (examid, headers) => {
+    const response = await axios.post(`${API_URL}/${examid}/bootstrap?size=8`, null, {headers});
+    return response?.data;
+}
+
 const submitExam = async (studentexamid, headers) => {
     const response = await axios.post(`${API_URL}/submit-exam/${studentexamid}`, null, {headers});
     return response?.data;
@@ -32,4 +38,4 @@ const submitCode = async (data, examid, headers) => {
     return response?.data;
 }
 
-export default { getExams, startExam, submitExam, autoSave, runCode, submitCode };
\ No newline at end of file
+export default { getExams, startExam, bootstrapExam, submitExam, autoSave, runCode, submitCode };
\ No newline at end of file
@@ -2,14 +2,32 @@ import axios from "axios";
 
 const API_URL = import.meta.env.VITE_API_URL + '/api/exam-questions';
 
+// Sets the saved answers, keyed by exam question id, on the questions of a page.
+const mergeAnswers = (questions, answers) => {
+    const answersById = new Map(answers?.map((answer) => [answer.id, answer]));
+    return questions?.map((question) => {
+        const answer = answersById.get(question.id);
+        return answer ? {...question, answer: answer.answer, language: answer.language} : question;
+    });
+}
+
+// The question page is the same for every student and revalidated by the browser with its ETag,
+// the saved answers of the student are fetched apart and merged into it.
+const getPage = async (examid, type, headers, pageno) => {
+    const email = localStorage.getItem('email');
+    const [page, answers] = await Promise.all([
+        axios.get(`${API_URL}/${examid}/${type}/${email}/page?page=${pageno}&size=8`, {headers}),
+        axios.get(`${API_URL}/${examid}/${type}/${email}/answers?page=${pageno}&size=8`, {headers}),
+    ]);
+    return mergeAnswers(page?.data, answers?.data);
+}
+
 const getMcqQuestions = async (examid, headers, pageno) => {
-    const response = await axios.get(`${API_URL}/${examid}/mcq/${localStorage.getItem('email')}?page=${pageno}&size=8`, {headers});
-    return response?.data;
+    return getPage(examid, 'mcq', headers, pageno);
 }
 
 const getCodingQuestions = async (examid, headers, pageno) => {
-    const response = await axios.get(`${API_URL}/${examid}/code/${localStorage.getItem('email')}?page=${pageno}&size=8`, {headers});
-    return response?.data;
+    return getPage(examid, 'code', headers, pageno);
 }
 
-export default {getCodingQuestions, getMcqQuestions};
\ No newline at end of file
+export default {getCodingQuestions, getMcqQuestions, mergeAnswers};